@@ -10,8 +10,6 @@
  * with methods for calculating weighted GPAs and adding AP points.
  */
 
-import java.util.ArrayList;
-
 // Represents an AP student, extending RegularStudent
 public class APStudent extends RegularStudent {
     private int apPoints;
@@ -31,26 +29,12 @@ public class APStudent extends RegularStudent {
     }
 
     /**
-     * Calculates the student's weighted GPA based on a list of all grade records.
-     * @param allGradeRecords A list of all grade records.
+     * Gets the maximum GPA for this student's scale.
+     * @return 5.0, since weighted GPA for AP students is on a 5.0 scale
      */
     @Override
-    public void calculateGPA(ArrayList<GradeRecord> allGradeRecords) {
-        double totalPoints = 0;
-        int numGrades = 0;
-        for (GradeRecord record : allGradeRecords) {
-            if (record.getStudentID().equals(this.getId())) {
-                totalPoints += record.getGrade();
-                numGrades++;
-            }
-        }
-
-        if (numGrades > 0) {
-            // Weighted GPA for AP students is on a 5.0 scale
-            setGpa((totalPoints / numGrades) * 5.0 / 100.0);
-        } else {
-            setGpa(0.0);
-        }
+    protected double getGpaScale() {
+        return 5.0;
     }
 
     /**
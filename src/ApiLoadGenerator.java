@@ -0,0 +1,233 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - API Load Generator Class
+ * 06/11/2025
+ *
+ * The ApiLoadGenerator class measures the HTTP API under load on localhost. A number of
+ * concurrent clients send a mix of student lookups, grade assignments and enrollments, and the
+ * latency of every request is recorded so the median and tail latencies can be reported.
+ */
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+public class ApiLoadGenerator {
+    private static final int SAMPLE_STUDENTS = 5000;
+    private static final int SAMPLE_CLASSES = 100;
+
+    private String baseUrl;
+    private int studentCount;
+    private int classCount;
+    private HttpClient client;
+
+    /**
+     * Creates a load generator for a running API server.
+     * @param baseUrl The server's base URL, such as http://127.0.0.1:8080.
+     * @param studentCount Requests use student IDs S00000 up to this count.
+     * @param classCount Requests use class codes C000 up to this count.
+     */
+    public ApiLoadGenerator(String baseUrl, int studentCount, int classCount) {
+        this.baseUrl = baseUrl;
+        this.studentCount = studentCount;
+        this.classCount = classCount;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * Runs the load test: 70% student lookups, 20% grade assignments, 10% enrollments.
+     * @param concurrency The number of clients sending requests at the same time.
+     * @param totalRequests The number of requests to send across all clients.
+     * @return The latency of every request, in nanoseconds, and the error count.
+     * @throws Exception if a client thread fails unexpectedly
+     */
+    public LoadResult run(int concurrency, int totalRequests) throws Exception {
+        ExecutorService clients = ApiServer.newRequestExecutor();
+        ArrayList<Future<long[]>> results = new ArrayList<>();
+        int[] errors = new int[concurrency];
+        long start = System.nanoTime();
+        for (int c = 0; c < concurrency; c++) {
+            int requests = totalRequests / concurrency + ((c < totalRequests % concurrency) ? 1 : 0);
+            int clientIndex = c;
+            results.add(clients.submit(() -> {
+                Random random = new Random(clientIndex);
+                long[] latencies = new long[requests];
+                for (int i = 0; i < requests; i++) {
+                    HttpRequest request = nextRequest(random);
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 500) {
+                            errors[clientIndex]++;
+                        }
+                    } catch (java.io.IOException e) {
+                        errors[clientIndex]++;
+                    }
+                    latencies[i] = System.nanoTime() - sent;
+                }
+                return latencies;
+            }));
+        }
+
+        long[] all = new long[totalRequests];
+        int filled = 0;
+        for (Future<long[]> result : results) {
+            long[] latencies = result.get();
+            System.arraycopy(latencies, 0, all, filled, latencies.length);
+            filled += latencies.length;
+        }
+        long elapsed = System.nanoTime() - start;
+        clients.shutdown();
+        return new LoadResult(all, elapsed, Arrays.stream(errors).sum());
+    }
+
+    // Picks the next request in the 70/20/10 mix
+    private HttpRequest nextRequest(Random random) {
+        String studentId = String.format("S%05d", random.nextInt(studentCount));
+        String classCode = String.format("C%03d", random.nextInt(classCount));
+        int kind = random.nextInt(10);
+        if (kind < 7) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/students/" + studentId)).GET().build();
+        }
+        String form;
+        String path;
+        if (kind < 9) {
+            path = "/grades";
+            form = "studentId=" + studentId + "&classCode=" + classCode + "&grade=" + (50 + random.nextInt(51));
+        } else {
+            path = "/enrollments";
+            form = "studentId=" + studentId + "&classCode=" + classCode;
+        }
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+    }
+
+    /**
+     * Fills a system with sample students and classes matching the IDs the generator uses.
+     * @param manager The system to fill.
+     * @param studentCount The number of students.
+     * @param classCount The number of classes.
+     */
+    public static void loadSampleData(SystemManager manager, int studentCount, int classCount) {
+        for (int c = 0; c < classCount; c++) {
+            manager.addClass(new Class(String.format("C%03d", c), "Sample Class " + c, "Staff", 1 + c % 7));
+        }
+        Random random = new Random(42);
+        for (int s = 0; s < studentCount; s++) {
+            String id = String.format("S%05d", s);
+            RegularStudent student = (s % 4 == 0) ? new APStudent(id, "Student " + s, 9 + s % 4)
+                    : new RegularStudent(id, "Student " + s, 9 + s % 4);
+            manager.addStudent(student);
+            for (int i = 0; i < 5; i++) {
+                String code = String.format("C%03d", random.nextInt(classCount));
+                manager.enrollStudent(student, manager.findClassByCode(code).orElse(null));
+                manager.assignGrade(id, code, 50 + random.nextInt(51));
+            }
+        }
+    }
+
+    /**
+     * Runs the load test from the command line. Without a URL, a server with sample data
+     * is started on a free port first.
+     * Usage: java ApiLoadGenerator [concurrency] [requests] [baseUrl]
+     * @param args the optional concurrency, request count and server URL
+     * @throws Exception if the test cannot run
+     */
+    public static void main(String[] args) throws Exception {
+        int concurrency = (args.length > 0) ? Integer.parseInt(args[0]) : 100;
+        int requests = (args.length > 1) ? Integer.parseInt(args[1]) : 20000;
+
+        ApiServer server = null;
+        String baseUrl;
+        if (args.length > 2) {
+            baseUrl = args[2];
+        } else {
+            ConcurrentSystemManager manager = new ConcurrentSystemManager();
+            loadSampleData(manager, SAMPLE_STUDENTS, SAMPLE_CLASSES);
+            server = new ApiServer(manager, new AutoCurver(), 0);
+            server.start();
+            baseUrl = "http://127.0.0.1:" + server.getPort();
+        }
+
+        System.out.printf("Sending %d requests from %d concurrent clients to %s (%s threads)%n", requests,
+                concurrency, baseUrl, ApiServer.usesVirtualThreads() ? "virtual" : "platform");
+        ApiLoadGenerator generator = new ApiLoadGenerator(baseUrl, SAMPLE_STUDENTS, SAMPLE_CLASSES);
+        generator.run(concurrency, Math.min(requests, concurrency * 10));
+        LoadResult result = generator.run(concurrency, requests);
+        result.print();
+
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    /**
+     * The outcome of a load test run.
+     */
+    public static class LoadResult {
+        private long[] latencies;
+        private long elapsedNanos;
+        private int errors;
+
+        private LoadResult(long[] latencies, long elapsedNanos, int errors) {
+            this.latencies = latencies.clone();
+            Arrays.sort(this.latencies);
+            this.elapsedNanos = elapsedNanos;
+            this.errors = errors;
+        }
+
+        /**
+         * Gets a latency percentile using the nearest-rank method.
+         * @param percentile the percentile, from 0 to 100
+         * @return The latency in milliseconds.
+         */
+        public double getPercentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return 0.0;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * latencies.length);
+            return latencies[Math.max(0, Math.min(latencies.length - 1, rank - 1))] / 1e6;
+        }
+
+        /**
+         * Gets the throughput of the run.
+         * @return Requests completed per second.
+         */
+        public double getRequestsPerSecond() {
+            return (elapsedNanos == 0) ? 0.0 : latencies.length / (elapsedNanos / 1e9);
+        }
+
+        /**
+         * Gets the number of requests that failed or returned a server error.
+         * @return The error count.
+         */
+        public int getErrors() {
+            return errors;
+        }
+
+        /**
+         * Prints the throughput and latency percentiles.
+         */
+        public void print() {
+            System.out.printf("Requests: %d, errors: %d, throughput: %.0f req/sec%n",
+                    latencies.length, errors, getRequestsPerSecond());
+            System.out.printf("Latency p50: %.2f ms, p90: %.2f ms, p99: %.2f ms, max: %.2f ms%n",
+                    getPercentileMillis(50), getPercentileMillis(90), getPercentileMillis(99),
+                    getPercentileMillis(100));
+        }
+    }
+}
@@ -0,0 +1,611 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - API Server Class
+ * 06/11/2025
+ *
+ * The ApiServer class exposes the student management system over a local HTTP API using the
+ * JDK's built-in HTTP server. Students can be looked up, graded and enrolled, reports generated
+ * and score lists curved. Each request runs on its own virtual thread when the JDK supports
+ * them, so thousands of open connections do not need a large pool of platform threads.
+ */
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ApiServer {
+    public static final int DEFAULT_PORT = 8080;
+    private static final int BACKLOG = 1024;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
+    private volatile ConcurrentSystemManager manager;
+    private AutoCurver curver;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Creates a server on the loopback interface. Call start to begin serving requests.
+     * @param manager The system to serve.
+     * @param curver The curving engine for the curve endpoint.
+     * @param port The port to listen on, or 0 to pick a free port.
+     * @throws IOException if the port cannot be bound
+     */
+    public ApiServer(ConcurrentSystemManager manager, AutoCurver curver, int port) throws IOException {
+        this.manager = manager;
+        this.curver = curver;
+        // The JDK server writes headers and body separately; without TCP_NODELAY each small
+        // keep-alive response waits out the client's delayed ACK (about 40 ms on Linux)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), BACKLOG);
+        this.server.createContext("/students", this::handleStudents);
+        this.server.createContext("/grades", this::handleGrades);
+        this.server.createContext("/enrollments", this::handleEnrollments);
+        this.server.createContext("/report", this::handleReport);
+        this.server.createContext("/schedules", this::handleSchedules);
+        this.server.createContext("/classes", this::handleClasses);
+        this.server.createContext("/leaderboard", this::handleLeaderboard);
+        this.server.createContext("/curves", this::handleCurves);
+        this.server.createContext("/curve", this::handleCurve);
+    }
+
+    /**
+     * Starts serving requests in the background.
+     */
+    public void start() {
+        this.executor = newRequestExecutor();
+        this.server.setExecutor(this.executor);
+        this.server.start();
+    }
+
+    /**
+     * Stops the server, giving open requests up to a second to finish.
+     */
+    public void stop() {
+        this.server.stop(1);
+        if (this.executor != null) {
+            this.executor.shutdown();
+        }
+    }
+
+    /**
+     * Gets the port the server is listening on.
+     * @return The port number.
+     */
+    public int getPort() {
+        return this.server.getAddress().getPort();
+    }
+
+    /**
+     * Switches the server to a different system, such as one just loaded from a snapshot.
+     * Requests already in progress finish against the previous system.
+     * @param manager The system to serve.
+     */
+    public void setManager(ConcurrentSystemManager manager) {
+        this.manager = manager;
+    }
+
+    /**
+     * Tells whether requests run on virtual threads on this JDK.
+     * @return true if a virtual thread is started per request.
+     */
+    public static boolean usesVirtualThreads() {
+        return virtualThreadFactory() != null;
+    }
+
+    // GET /students?offset=&limit= lists students; GET /students/{id} returns one in detail
+    private void handleStudents(HttpExchange exchange) throws IOException {
+        if (!requireMethod(exchange, "GET")) {
+            return;
+        }
+        String path = exchange.getRequestURI().getPath();
+        if (path.length() > "/students/".length()) {
+            String id = decode(path.substring("/students/".length()));
+            Optional<String> json = manager.readStudent(id, ApiServer::studentJson);
+            if (json.isPresent()) {
+                send(exchange, 200, "application/json", json.get());
+            } else {
+                sendError(exchange, 404, "No student with ID " + id);
+            }
+            return;
+        }
+
+        HashMap<String, String> params = parseParams(exchange);
+        int offset;
+        int limit;
+        try {
+            offset = Math.max(0, Integer.parseInt(params.getOrDefault("offset", "0")));
+            limit = Math.max(0, Integer.parseInt(params.getOrDefault("limit", String.valueOf(DEFAULT_PAGE_SIZE))));
+        } catch (NumberFormatException e) {
+            sendError(exchange, 400, "offset and limit must be whole numbers");
+            return;
+        }
+
+        ArrayList<RegularStudent> students = manager.getStudents();
+        StringBuilder json = new StringBuilder("{\"total\":").append(students.size()).append(",\"students\":[");
+        int end = (int) Math.min(students.size(), (long) offset + limit);
+        for (int i = offset; i < end; i++) {
+            RegularStudent student = students.get(i);
+            if (i > offset) {
+                json.append(',');
+            }
+            json.append("{\"id\":");
+            appendJsonString(json, student.getId());
+            json.append(",\"name\":");
+            appendJsonString(json, student.getName());
+            json.append(",\"gpa\":");
+            CsvWriter.appendFixed2(json, student.getGPA());
+            json.append('}');
+        }
+        json.append("]}");
+        send(exchange, 200, "application/json", json.toString());
+    }
+
+    // POST /grades with studentId, classCode and grade; creates or updates the student's grade
+    private void handleGrades(HttpExchange exchange) throws IOException {
+        if (!requireMethod(exchange, "POST")) {
+            return;
+        }
+        HashMap<String, String> params = parseParams(exchange);
+        String studentId = params.get("studentId");
+        String classCode = params.get("classCode");
+        if (studentId == null || classCode == null || !params.containsKey("grade")) {
+            sendError(exchange, 400, "studentId, classCode and grade are required");
+            return;
+        }
+        double grade;
+        try {
+            grade = Double.parseDouble(params.get("grade"));
+        } catch (NumberFormatException e) {
+            sendError(exchange, 400, "grade must be a number");
+            return;
+        }
+        if (manager.findStudentById(studentId).isEmpty()) {
+            sendError(exchange, 404, "No student with ID " + studentId);
+            return;
+        }
+
+        // A student has one grade per class, so posting again updates it
+        boolean created = manager.assignGrade(studentId, classCode, grade);
+        // Read the record under the student lock, which every change to it holds
+        String body = manager.readStudent(studentId, student -> {
+            GradeRecord record = manager.findGradeRecord(studentId, classCode).orElse(null);
+            return gradeJson(studentId, classCode, (record == null) ? GradeRecord.validGrade(grade) : record.getGrade(),
+                    (record == null) ? new double[0] : record.getHistory());
+        }).orElseGet(() -> gradeJson(studentId, classCode, GradeRecord.validGrade(grade), new double[0]));
+        send(exchange, created ? 201 : 200, "application/json", body);
+    }
+
+    // Builds the JSON body describing one grade and its past values
+    private static String gradeJson(String studentId, String classCode, double grade, double[] history) {
+        StringBuilder json = new StringBuilder("{\"studentId\":");
+        appendJsonString(json, studentId);
+        json.append(",\"classCode\":");
+        appendJsonString(json, classCode);
+        json.append(",\"grade\":");
+        CsvWriter.appendFixed2(json, grade);
+        json.append(",\"history\":[");
+        for (int i = 0; i < history.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            CsvWriter.appendFixed2(json, history[i]);
+        }
+        json.append("]}");
+        return json.toString();
+    }
+
+    // POST /enrollments with studentId and classCode
+    private void handleEnrollments(HttpExchange exchange) throws IOException {
+        if (!requireMethod(exchange, "POST")) {
+            return;
+        }
+        HashMap<String, String> params = parseParams(exchange);
+        String studentId = params.get("studentId");
+        String classCode = params.get("classCode");
+        if (studentId == null || classCode == null) {
+            sendError(exchange, 400, "studentId and classCode are required");
+            return;
+        }
+        Optional<RegularStudent> student = manager.findStudentById(studentId);
+        Optional<Class> course = manager.findClassByCode(classCode);
+        if (student.isEmpty()) {
+            sendError(exchange, 404, "No student with ID " + studentId);
+            return;
+        }
+        if (course.isEmpty()) {
+            sendError(exchange, 404, "No class with code " + classCode);
+            return;
+        }
+
+        manager.enrollStudent(student.get(), course.get());
+        send(exchange, 200, "application/json", manager.readStudent(studentId, ApiServer::studentJson).orElse("{}"));
+    }
+
+    // GET /report?gradeLevel=&classCode=&passing=&offset=&limit= streams the system report as text
+    private void handleReport(HttpExchange exchange) throws IOException {
+        if (!requireMethod(exchange, "GET")) {
+            return;
+        }
+        HashMap<String, String> params = parseParams(exchange);
+        ReportFilter filter = new ReportFilter();
+        try {
+            if (params.containsKey("gradeLevel")) {
+                filter.setGradeLevel(Integer.parseInt(params.get("gradeLevel")));
+            }
+            if (params.containsKey("passing")) {
+                filter.setPassing(Boolean.parseBoolean(params.get("passing")));
+            }
+            filter.setClassCode(params.get("classCode"));
+            filter.setPage(Integer.parseInt(params.getOrDefault("offset", "0")),
+                    Integer.parseInt(params.getOrDefault("limit", String.valueOf(Integer.MAX_VALUE))));
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, "gradeLevel, offset and limit must be non-negative whole numbers");
+            return;
+        }
+
+        // A length of 0 sends the body in chunks as the report is written
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer out = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)) {
+            manager.writeReport(out, filter);
+        }
+    }
+
+    // GET /schedules streams every student's schedule as text
+    private void handleSchedules(HttpExchange exchange) throws IOException {
+        if (!requireMethod(exchange, "GET")) {
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer out = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)) {
+            manager.writeSchedules(out);
+        }
+    }
+
+    // GET /classes/{code} returns a class's grade totals: count, average, min, max, pass rate, histogram
+    private void handleClasses(HttpExchange exchange) throws IOException {
+        if (!requireMethod(exchange, "GET")) {
+            return;
+        }
+        String path = exchange.getRequestURI().getPath();
+        if (path.length() <= "/classes/".length()) {
+            sendError(exchange, 404, "Use /classes/{code}");
+            return;
+        }
+        String code = decode(path.substring("/classes/".length()));
+        Optional<Class> course = manager.findClassByCode(code);
+        if (course.isEmpty()) {
+            sendError(exchange, 404, "No class with code " + code);
+            return;
+        }
+
+        GradeAggregate grades = course.get().getGradeAggregate();
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"code\":");
+        appendJsonString(json, code);
+        json.append(",\"name\":");
+        appendJsonString(json, course.get().getClassName());
+        json.append(",\"enrolled\":").append(manager.readClass(code, c -> c.getStudents().size()).orElse(0));
+        synchronized (grades) {
+            json.append(",\"grades\":").append(grades.getCount());
+            json.append(",\"average\":");
+            CsvWriter.appendFixed2(json, grades.getAverage());
+            json.append(",\"min\":");
+            CsvWriter.appendFixed2(json, grades.getMin());
+            json.append(",\"max\":");
+            CsvWriter.appendFixed2(json, grades.getMax());
+            json.append(",\"passing\":").append(grades.getPassingCount());
+            json.append(",\"passRate\":");
+            CsvWriter.appendFixed2(json, grades.getPassRate());
+            json.append(",\"histogram\":").append(Arrays.toString(grades.getHistogram()).replace(" ", ""));
+        }
+        json.append('}');
+        send(exchange, 200, "application/json", json.toString());
+    }
+
+    // GET /leaderboard?classCode=&count= lists the students with the highest GPAs, school-wide or in one class
+    private void handleLeaderboard(HttpExchange exchange) throws IOException {
+        if (!requireMethod(exchange, "GET")) {
+            return;
+        }
+        HashMap<String, String> params = parseParams(exchange);
+        int count;
+        try {
+            count = Math.max(0, Integer.parseInt(params.getOrDefault("count", String.valueOf(Leaderboard.DEFAULT_CAPACITY))));
+        } catch (NumberFormatException e) {
+            sendError(exchange, 400, "count must be a whole number");
+            return;
+        }
+        String classCode = params.get("classCode");
+        if (classCode != null && manager.findClassByCode(classCode).isEmpty()) {
+            sendError(exchange, 404, "No class with code " + classCode);
+            return;
+        }
+
+        ArrayList<RegularStudent> top = (classCode == null) ? manager.getTopStudents(count)
+                : manager.getTopStudents(classCode, count);
+        StringBuilder json = new StringBuilder("[");
+        for (RegularStudent student : top) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append("{\"id\":");
+            appendJsonString(json, student.getId());
+            json.append(",\"name\":");
+            appendJsonString(json, student.getName());
+            json.append(",\"gpa\":");
+            CsvWriter.appendFixed2(json, student.getGPA());
+            json.append('}');
+        }
+        json.append(']');
+        send(exchange, 200, "application/json", json.toString());
+    }
+
+    // GET /curves lists the available curves
+    private void handleCurves(HttpExchange exchange) throws IOException {
+        if (!requireMethod(exchange, "GET")) {
+            return;
+        }
+        StringBuilder json = new StringBuilder("[");
+        for (CurveStrategy strategy : curver.getRegistry().getStrategies()) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append("{\"name\":");
+            appendJsonString(json, strategy.getName());
+            json.append(",\"description\":");
+            appendJsonString(json, strategy.getDescription());
+            json.append(",\"requiresValue\":").append(strategy.requiresValue()).append('}');
+        }
+        json.append(']');
+        send(exchange, 200, "application/json", json.toString());
+    }
+
+    // POST /curve?type=&value= with a StudentID,Score CSV body; returns the curved CSV
+    private void handleCurve(HttpExchange exchange) throws IOException {
+        if (!requireMethod(exchange, "POST")) {
+            return;
+        }
+        HashMap<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+        String type = params.getOrDefault("type", "").trim().toLowerCase();
+        Optional<CurveStrategy> strategy = curver.getRegistry().find(type);
+        if (strategy.isEmpty()) {
+            sendError(exchange, 400, "Unknown curve type: " + type);
+            return;
+        }
+        double value = 0.0;
+        if (params.containsKey("value")) {
+            try {
+                value = Double.parseDouble(params.get("value"));
+            } catch (NumberFormatException e) {
+                sendError(exchange, 400, "value must be a number");
+                return;
+            }
+        }
+
+        ScoreBatch batch = new ScoreBatch();
+        try (InputStream body = exchange.getRequestBody()) {
+            CsvTokenizer tokenizer = new CsvTokenizer(new InputStreamReader(body, StandardCharsets.UTF_8));
+            boolean header = true;
+            while (tokenizer.nextRecord()) {
+                if (header) {
+                    header = false;
+                } else if (tokenizer.getTrimmedFieldCount() == 2) {
+                    batch.add(tokenizer.getField(0), tokenizer.getDouble(1));
+                }
+            }
+        } catch (NumberFormatException e) {
+            sendError(exchange, 400, "Invalid score: " + e.getMessage());
+            return;
+        }
+        if (!curver.applyCurve(batch, strategy.get(), value)) {
+            sendError(exchange, 422, "The " + type + " curve could not be applied to these scores");
+            return;
+        }
+
+        StringBuilder csv = new StringBuilder(batch.size() * 24 + 40);
+        csv.append("StudentID,OriginalScore,CurvedScore\n");
+        for (int i = 0; i < batch.size(); i++) {
+            appendCsvField(csv, batch.getStudentID(i));
+            csv.append(',');
+            CsvWriter.appendFixed2(csv, batch.getOriginalScore(i)).append(',');
+            CsvWriter.appendFixed2(csv, batch.getCurvedScore(i)).append('\n');
+        }
+        send(exchange, 200, "text/csv; charset=utf-8", csv.toString());
+    }
+
+    /**
+     * Builds the JSON detail view of a student. Called while holding the student's lock.
+     * @param student the student to describe
+     * @return The student as a JSON object.
+     */
+    private static String studentJson(RegularStudent student) {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"id\":");
+        appendJsonString(json, student.getId());
+        json.append(",\"name\":");
+        appendJsonString(json, student.getName());
+        json.append(",\"gradeLevel\":").append(student.getGradeLevel());
+        json.append(",\"type\":\"").append((student instanceof APStudent) ? "AP" : "Regular").append('"');
+        if (student instanceof APStudent) {
+            json.append(",\"apPoints\":").append(((APStudent) student).getAPPoints());
+        }
+        json.append(",\"active\":").append(student.isActive());
+        json.append(",\"gpa\":");
+        CsvWriter.appendFixed2(json, student.getGPA());
+        json.append(",\"classes\":[");
+        boolean first = true;
+        for (Class course : student.getClasses()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            json.append("{\"code\":");
+            appendJsonString(json, course.getClassCode());
+            json.append(",\"average\":");
+            CsvWriter.appendFixed2(json, student.getClassAverage(course.getClassCode()));
+            json.append('}');
+        }
+        json.append("]}");
+        return json.toString();
+    }
+
+    // Appends a string as a quoted JSON value, escaping quotes, backslashes and control characters
+    private static void appendJsonString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c == '\n') {
+                json.append("\\n");
+            } else if (c == '\r') {
+                json.append("\\r");
+            } else if (c == '\t') {
+                json.append("\\t");
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    // Appends a CSV field, quoting it if it contains a comma, quote or line break
+    private static void appendCsvField(StringBuilder csv, String value) {
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = (c == ',' || c == '"' || c == '\n' || c == '\r');
+        }
+        if (!needsQuotes) {
+            csv.append(value);
+            return;
+        }
+        csv.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                csv.append('"');
+            }
+            csv.append(c);
+        }
+        csv.append('"');
+    }
+
+    // Rejects a request with 405 unless it uses the expected method
+    private static boolean requireMethod(HttpExchange exchange, String method) throws IOException {
+        if (method.equalsIgnoreCase(exchange.getRequestMethod())) {
+            return true;
+        }
+        exchange.getResponseHeaders().set("Allow", method);
+        sendError(exchange, 405, "Use " + method + " for " + exchange.getRequestURI().getPath());
+        return false;
+    }
+
+    // Merges query string parameters with a form-encoded request body
+    private static HashMap<String, String> parseParams(HttpExchange exchange) throws IOException {
+        HashMap<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+        try (InputStream body = exchange.getRequestBody()) {
+            String form = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+            params.putAll(parseQuery(form));
+        }
+        return params;
+    }
+
+    // Parses name=value pairs separated by '&', decoding percent escapes
+    private static HashMap<String, String> parseQuery(String query) {
+        HashMap<String, String> params = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int equals = pair.indexOf('=');
+            if (equals < 0) {
+                params.put(decode(pair), "");
+            } else {
+                params.put(decode(pair.substring(0, equals)), decode(pair.substring(equals + 1)));
+            }
+        }
+        return params;
+    }
+
+    private static String decode(String text) {
+        try {
+            return URLDecoder.decode(text, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return text;
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        appendJsonString(json, message);
+        json.append('}');
+        send(exchange, status, "application/json", json.toString());
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Creates the executor that runs each request: one virtual thread per request on JDKs
+     * that have them (21 and later), otherwise a cached pool of platform threads. The
+     * lookup is reflective so the system still builds and runs on older JDKs.
+     * @return The request executor.
+     */
+    static ExecutorService newRequestExecutor() {
+        Method factory = virtualThreadFactory();
+        if (factory != null) {
+            try {
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // Fall through to platform threads
+            }
+        }
+        return Executors.newCachedThreadPool();
+    }
+
+    private static Method virtualThreadFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
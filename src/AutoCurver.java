@@ -10,18 +10,37 @@
  * and saves the results to a new CSV file. It contains 9 different curve types.
  */
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Optional;
 
 public class AutoCurver {
+    // Metrics for the file operations; each curve also has its own applyCurve timer
+    private static final OperationTimer READ_SCORES_TIMER = Metrics.timer("AutoCurver.readScores");
+    private static final OperationTimer STREAM_SCORES_TIMER = Metrics.timer("AutoCurver.streamScores");
+    private static final OperationTimer READ_BATCH_TIMER = Metrics.timer("AutoCurver.readScoreBatch");
+    private static final OperationTimer CURVE_FILE_TIMER = Metrics.timer("AutoCurver.curveFile");
+    private static final OperationTimer SAVE_TIMER = Metrics.timer("AutoCurver.saveCurvedScores");
 
-    // Constructs a new AutoCurver object
-    public AutoCurver() {}
+    private CurveRegistry registry;
+
+    // Constructs a new AutoCurver object with the built-in and ServiceLoader curves
+    public AutoCurver() {
+        this(CurveRegistry.withDefaults());
+    }
+
+    // Constructs a new AutoCurver object that looks curves up in the given registry
+    public AutoCurver(CurveRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Gets the registry of curves this curver can apply.
+     * @return The CurveRegistry.
+     */
+    public CurveRegistry getRegistry() {
+        return this.registry;
+    }
 
     /**
      * Reads assignment scores from a CSV file.
@@ -29,21 +48,53 @@ public class AutoCurver {
      * @return An ArrayList of AssignmentScore objects.
      */
     public ArrayList<AssignmentScore> readScores(String inputFilePath) {
-        ArrayList<AssignmentScore> scores = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(inputFilePath))) {
-            String line = reader.readLine();
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length == 2) {
-                    String id = parts[0].trim();
-                    double score = Double.parseDouble(parts[1].trim());
-                    scores.add(new AssignmentScore(id, score));
-                }
+        long start = READ_SCORES_TIMER.start();
+        try {
+            ArrayList<AssignmentScore> scores = new ArrayList<>();
+            streamScores(inputFilePath, (id, score) -> scores.add(new AssignmentScore(id.toString(), score)));
+            return scores;
+        } finally {
+            READ_SCORES_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Streams assignment scores from a CSV file into a sink through memory-mapped
+     * segments, without creating an object per row.
+     * @param inputFilePath The path to the input CSV file.
+     * @param sink The consumer of each student's ID and score.
+     * @return The number of scores read before the end of the file or the first error.
+     */
+    public long streamScores(String inputFilePath, ScoreSink sink) {
+        long start = STREAM_SCORES_TIMER.start();
+        try {
+            CountingSink counter = new CountingSink(sink);
+            try {
+                new MappedScoreReader().read(inputFilePath, counter);
+            } catch (IOException | NumberFormatException e) {
+                System.err.println("Error reading scores from " + inputFilePath + ": " + e.getMessage());
             }
-        } catch (IOException | NumberFormatException e) {
-            System.err.println("Error reading scores from " + inputFilePath + ": " + e.getMessage());
+            Metrics.count("curve.scoresRead", counter.count);
+            return counter.count;
+        } finally {
+            STREAM_SCORES_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Reads assignment scores from a CSV file into a columnar batch.
+     * @param inputFilePath The path to the input CSV file.
+     * @return A ScoreBatch with every score read.
+     */
+    public ScoreBatch readScoreBatch(String inputFilePath) {
+        long start = READ_BATCH_TIMER.start();
+        try {
+            ScoreBatch batch = new ScoreBatch();
+            streamScores(inputFilePath, batch);
+            return batch;
+        } finally {
+            READ_BATCH_TIMER.stop(start);
         }
-        return scores;
     }
 
     /**
@@ -58,102 +109,205 @@ public class AutoCurver {
             return;
         }
 
-        if ("sqrt".equals(curveType)) {
-            for (AssignmentScore s : scores) s.setCurvedScore(Math.sqrt(s.getOriginalScore()) * 10);
-        } else if ("flat".equals(curveType)) {
-            for (AssignmentScore s : scores) s.setCurvedScore(s.getOriginalScore() + curveValue);
-        } else if ("log".equals(curveType)) {
-            for (AssignmentScore s : scores) s.setCurvedScore(25 * Math.log(s.getOriginalScore() + 1));
-        } else if ("exp".equals(curveType)) {
-            for (AssignmentScore s : scores) s.setCurvedScore((Math.exp(s.getOriginalScore() / 25.0) - 1) * 20);
-        } else if ("power".equals(curveType)) {
-            for (AssignmentScore s : scores) s.setCurvedScore(Math.pow(s.getOriginalScore() / 100.0, curveValue) * 100);
-        } else if ("sigmoid".equals(curveType)) {
-            for (AssignmentScore s : scores) s.setCurvedScore(100 / (1 + Math.exp(-0.1 * (s.getOriginalScore() - 50))));
-        } else if ("stddev".equals(curveType) || "zscore".equals(curveType)) {
-            applyStandardDeviationCurves(scores, curveType, curveValue);
-        } else if ("ratio".equals(curveType)) {
-            applyRatioCurve(scores);
-        } else {
+        ScoreBatch batch = ScoreBatch.fromList(scores);
+        if (applyCurve(batch, curveType, curveValue)) {
+            batch.copyCurvedScoresTo(scores);
+        }
+    }
+
+    /**
+     * Applies a curve to a batch of assignment scores.
+     * @param batch The ScoreBatch to curve.
+     * @param curveType The name of the curve to apply.
+     * @param curveValue A value used by some curves.
+     * @return true if the curve was applied, false if it could not be.
+     */
+    public boolean applyCurve(ScoreBatch batch, String curveType, double curveValue) {
+        Optional<CurveStrategy> strategy = registry.find(curveType);
+        if (strategy.isEmpty()) {
             System.err.println("Unknown curve type: " + curveType);
+            return false;
         }
+        return applyCurve(batch, strategy.get(), curveValue);
     }
 
     /**
-     * A private helper method to apply standard deviation or z-score curves.
-     * @param scores The list of scores.
-     * @param curveType The specific curve type ("stddev" or "zscore").
-     * @param curveValue The target mean for the "stddev" curve.
+     * Applies a curve strategy to a batch of assignment scores. The statistics pass
+     * only runs for curves that need it; every other curve takes a single pass.
+     * @param batch The ScoreBatch to curve.
+     * @param strategy The curve to apply.
+     * @param curveValue A value used by some curves.
+     * @return true if the curve was applied, false if it could not be.
      */
-    private void applyStandardDeviationCurves(ArrayList<AssignmentScore> scores, String curveType, double curveValue) {
-        double sum = 0.0;
-        for (AssignmentScore s : scores) sum += s.getOriginalScore();
-        double mean = sum / scores.size();
+    public boolean applyCurve(ScoreBatch batch, CurveStrategy strategy, double curveValue) {
+        OperationTimer timer = Metrics.timer("AutoCurver.applyCurve." + strategy.getName());
+        long start = timer.start();
+        try {
+            if (batch == null || batch.size() == 0) {
+                System.err.println("No scores to curve.");
+                return false;
+            }
 
-        double varianceSum = 0.0;
-        for (AssignmentScore s : scores) varianceSum += Math.pow(s.getOriginalScore() - mean, 2);
-        double stdDev = Math.sqrt(varianceSum / scores.size());
+            ScoreStatistics stats = null;
+            if (strategy.needsStatistics()) {
+                stats = ScoreStatistics.of(batch.getOriginalScores(), batch.size());
+                if (stats.getStdDev() == 0) {
+                    System.err.println("Cannot apply " + strategy.getName() + " curve; standard deviation is zero.");
+                    return false;
+                }
+            }
 
-        if (stdDev == 0) {
-            System.err.println("Cannot apply z-score or stddev curve; standard deviation is zero.");
-            return;
+            strategy.apply(batch, curveValue, stats);
+            Metrics.count("curve.scoresCurved", batch.size());
+            return true;
+        } finally {
+            timer.stop(start);
         }
+    }
+
+    /**
+     * Curves a score file straight into an output file without holding the scores in
+     * memory. Statistics-based curves take one streaming pass to accumulate the mean and
+     * standard deviation and a second to curve; curves that are not a ScoreCurve fall back to a batch.
+     * @param inputFilePath The path to the input CSV file.
+     * @param outputFilePath The path for the new output CSV file.
+     * @param curveType The name of the curve to apply.
+     * @param curveValue A value used by some curves.
+     * @return true if the curve was applied, false if it could not be.
+     */
+    public boolean curveFile(String inputFilePath, String outputFilePath, String curveType, double curveValue) {
+        long start = CURVE_FILE_TIMER.start();
+        try {
+            Optional<CurveStrategy> found = registry.find(curveType);
+            if (found.isEmpty()) {
+                System.err.println("Unknown curve type: " + curveType);
+                return false;
+            }
+            if (!(found.get() instanceof ScoreCurve)) {
+                ScoreBatch batch = readScoreBatch(inputFilePath);
+                if (!applyCurve(batch, found.get(), curveValue)) {
+                    return false;
+                }
+                return saveCurvedScores(batch, outputFilePath);
+            }
+            ScoreCurve strategy = (ScoreCurve) found.get();
 
-        if ("stddev".equals(curveType)) {
-            double targetMean = curveValue;
-            for (AssignmentScore s : scores) s.setCurvedScore(s.getOriginalScore() - mean + targetMean);
-        } else { // zscore
-            double targetMean = 75.0;
-            double targetStdDev = 10.0;
-            for (AssignmentScore s : scores) {
-                double zScore = (s.getOriginalScore() - mean) / stdDev;
-                s.setCurvedScore((zScore * targetStdDev) + targetMean);
+            ScoreStatistics stats = null;
+            if (strategy.needsStatistics()) {
+                ScoreStatistics accumulator = new ScoreStatistics();
+                streamScores(inputFilePath, (id, score) -> accumulator.add(score));
+                if (accumulator.getCount() == 0) {
+                    System.err.println("No scores to curve.");
+                    return false;
+                }
+                if (accumulator.getStdDev() == 0) {
+                    System.err.println("Cannot apply " + strategy.getName() + " curve; standard deviation is zero.");
+                    return false;
+                }
+                stats = accumulator;
             }
+
+            ScoreStatistics curveStats = stats;
+            try (CsvWriter writer = new CsvWriter(outputFilePath)) {
+                writer.append("StudentID,OriginalScore,CurvedScore\n");
+                IOException[] failure = new IOException[1];
+                long rows = streamScores(inputFilePath, (id, score) -> {
+                    if (failure[0] != null) {
+                        return;
+                    }
+                    try {
+                        double curved = ScoreBatch.clamp(strategy.curve(score, curveValue, curveStats));
+                        writer.append(id).append(',').appendFixed2(score).append(',').appendFixed2(curved).newLine();
+                    } catch (IOException e) {
+                        failure[0] = e;
+                    }
+                });
+                if (failure[0] != null) {
+                    throw failure[0];
+                }
+                if (rows == 0) {
+                    System.err.println("No scores to curve.");
+                    return false;
+                }
+                Metrics.count("curve.scoresCurved", rows);
+            } catch (IOException e) {
+                System.err.println("Error saving curved scores to " + outputFilePath + ": " + e.getMessage());
+                return false;
+            }
+            return true;
+        } finally {
+            CURVE_FILE_TIMER.stop(start);
         }
     }
 
     /**
-     * A private helper method to apply a ratio-based curve.
-     * @param scores The list of scores.
+     * Saves the original and curved scores to a new CSV file.
+     * @param scores The list of scored AssignmentScore objects.
+     * @param outputFilePath The path for the new output CSV file.
+     * @return true if the file was written, false if it could not be.
      */
-    private void applyRatioCurve(ArrayList<AssignmentScore> scores) {
-        ArrayList<AssignmentScore> sortedScores = new ArrayList<>(scores);
-        sortedScores.sort(Comparator.comparingDouble(AssignmentScore::getOriginalScore).reversed());
-
-        int totalStudents = scores.size();
-        int aCount = (int) (totalStudents * 0.10);
-        int bCount = (int) (totalStudents * 0.20);
-        int cCount = (int) (totalStudents * 0.40);
-        int dCount = (int) (totalStudents * 0.20);
-
-        for(int i = 0; i < sortedScores.size(); i++) {
-            AssignmentScore current = sortedScores.get(i);
-            if (i < aCount) current.setCurvedScore(95.0);
-            else if (i < aCount + bCount) current.setCurvedScore(85.0);
-            else if (i < aCount + bCount + cCount) current.setCurvedScore(75.0);
-            else if (i < aCount + bCount + cCount + dCount) current.setCurvedScore(65.0);
-            else current.setCurvedScore(50.0);
+    public boolean saveCurvedScores(ArrayList<AssignmentScore> scores, String outputFilePath) {
+        long start = SAVE_TIMER.start();
+        try {
+            try (CsvWriter writer = new CsvWriter(outputFilePath)) {
+                writer.append("StudentID,OriginalScore,CurvedScore\n");
+                for (AssignmentScore score : scores) {
+                    writer.append(score.getStudentID()).append(',')
+                            .appendFixed2(score.getOriginalScore()).append(',')
+                            .appendFixed2(score.getCurvedScore())
+                            .newLine();
+                }
+            } catch (IOException e) {
+                System.err.println("Error saving curved scores to " + outputFilePath + ": " + e.getMessage());
+                return false;
+            }
+            return true;
+        } finally {
+            SAVE_TIMER.stop(start);
         }
     }
 
     /**
-     * Saves the original and curved scores to a new CSV file.
-     * @param scores The list of scored AssignmentScore objects.
+     * Saves the original and curved scores of a batch to a new CSV file.
+     * @param batch The curved ScoreBatch.
      * @param outputFilePath The path for the new output CSV file.
+     * @return true if the file was written, false if it could not be.
      */
-    public void saveCurvedScores(ArrayList<AssignmentScore> scores, String outputFilePath) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(outputFilePath))) {
-            writer.write("StudentID,OriginalScore,CurvedScore\n");
-            for (AssignmentScore score : scores) {
-                String line = String.format("%s,%.2f,%.2f",
-                        score.getStudentID(),
-                        score.getOriginalScore(),
-                        score.getCurvedScore());
-                writer.write(line);
-                writer.newLine();
+    public boolean saveCurvedScores(ScoreBatch batch, String outputFilePath) {
+        long start = SAVE_TIMER.start();
+        try {
+            try (CsvWriter writer = new CsvWriter(outputFilePath)) {
+                writer.append("StudentID,OriginalScore,CurvedScore\n");
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.appendStudentID(i, writer);
+                    writer.append(',')
+                            .appendFixed2(batch.getOriginalScore(i)).append(',')
+                            .appendFixed2(batch.getCurvedScore(i))
+                            .newLine();
+                }
+            } catch (IOException e) {
+                System.err.println("Error saving curved scores to " + outputFilePath + ": " + e.getMessage());
+                return false;
             }
-        } catch (IOException e) {
-            System.err.println("Error saving curved scores to " + outputFilePath + ": " + e.getMessage());
+            return true;
+        } finally {
+            SAVE_TIMER.stop(start);
+        }
+    }
+
+    // Counts the scores passed through so a partial read can still be reported
+    private static class CountingSink implements ScoreSink {
+        private ScoreSink target;
+        private long count;
+
+        private CountingSink(ScoreSink target) {
+            this.target = target;
+        }
+
+        @Override
+        public void accept(CharSequence studentID, double score) {
+            this.target.accept(studentID, score);
+            this.count++;
         }
     }
 }
@@ -0,0 +1,247 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Batch Curver Class
+ * 06/11/2025
+ *
+ * The BatchCurver class runs many grade curving jobs at once, such as every section and
+ * assignment at the end of a semester. Jobs from a manifest run on a fork-join pool sized to
+ * the available cores, and very large files are split into chunks that are curved in parallel.
+ */
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+public class BatchCurver {
+    // Files with at least this many scores are curved in parallel chunks of this size
+    private static final int PARALLEL_CHUNK_SIZE = 64 * 1024;
+
+    private AutoCurver curver;
+    private ForkJoinPool pool;
+
+    public BatchCurver(AutoCurver curver) {
+        this(curver, Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchCurver(AutoCurver curver, int parallelism) {
+        if (curver == null || parallelism < 1) {
+            throw new IllegalArgumentException("Invalid batch curver parameters");
+        }
+        this.curver = curver;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Reads a manifest of curve jobs. Each row after the header has the form
+     * InputFile,CurveType,CurveValue,OutputFile; invalid rows are reported and skipped.
+     * @param manifestPath The path to the manifest CSV file.
+     * @return An ArrayList of the jobs in the manifest.
+     * @throws IOException if the manifest cannot be read
+     */
+    public static ArrayList<CurveJob> readManifest(String manifestPath) throws IOException {
+        ArrayList<CurveJob> jobs = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(manifestPath))) {
+            CsvTokenizer tokenizer = new CsvTokenizer(reader);
+            tokenizer.nextRecord();
+            int lineNumber = 1;
+            while (tokenizer.nextRecord()) {
+                lineNumber++;
+                if (tokenizer.getTrimmedFieldCount() == 0) {
+                    continue;
+                }
+                try {
+                    if (tokenizer.getTrimmedFieldCount() != 4) {
+                        throw new IllegalArgumentException("expected 4 fields");
+                    }
+                    CharSequence value = tokenizer.getField(2);
+                    double curveValue = (value.length() == 0) ? 0.0 : CsvTokenizer.parseDouble(value);
+                    jobs.add(new CurveJob(tokenizer.getString(0), tokenizer.getString(1),
+                            curveValue, tokenizer.getString(3)));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Skipping manifest line " + lineNumber + ": " + e.getMessage());
+                }
+            }
+        }
+        return jobs;
+    }
+
+    /**
+     * Runs every job on the pool and records each job's result.
+     * @param jobs The jobs to run.
+     * @return The total time taken in nanoseconds.
+     */
+    public long runJobs(ArrayList<CurveJob> jobs) {
+        long start = System.nanoTime();
+        ArrayList<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (CurveJob job : jobs) {
+            tasks.add(this.pool.submit(() -> runJob(job)));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Prints each job's latency and the overall throughput.
+     * @param jobs The jobs that were run.
+     * @param totalNanos The total time taken, as returned by runJobs.
+     */
+    public static void printSummary(ArrayList<CurveJob> jobs, long totalNanos) {
+        long totalRows = 0;
+        int failed = 0;
+        System.out.println("\n--- Batch Curve Summary ---");
+        for (CurveJob job : jobs) {
+            System.out.printf("  %-8s %s -> %s: %s, %d scores in %.1f ms%n",
+                    job.getCurveType(), job.getInputFile(), job.getOutputFile(),
+                    job.isSucceeded() ? "OK" : "FAILED", job.getRows(), job.getElapsedNanos() / 1_000_000.0);
+            // Only scores that were curved and saved count toward throughput
+            if (job.isSucceeded()) {
+                totalRows += job.getRows();
+            } else {
+                failed++;
+            }
+        }
+        double seconds = totalNanos / 1_000_000_000.0;
+        System.out.printf("Jobs: %d (%d failed), scores: %d, time: %.2f s, throughput: %.0f scores/sec%n",
+                jobs.size(), failed, totalRows, seconds, (seconds > 0) ? totalRows / seconds : 0.0);
+    }
+
+    /**
+     * Stops the pool's worker threads.
+     */
+    public void shutdown() {
+        this.pool.shutdown();
+    }
+
+    /**
+     * Reads, curves and saves a single job, recording its result.
+     * @param job the job to run
+     */
+    private void runJob(CurveJob job) {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        long rows = 0;
+
+        Optional<CurveStrategy> strategy = curver.getRegistry().find(job.getCurveType());
+        if (strategy.isEmpty()) {
+            System.err.println("Unknown curve type: " + job.getCurveType());
+        } else {
+            ScoreBatch batch = curver.readScoreBatch(job.getInputFile());
+            rows = batch.size();
+            succeeded = applyCurve(batch, strategy.get(), job.getCurveValue())
+                    && curver.saveCurvedScores(batch, job.getOutputFile());
+        }
+        job.recordResult(succeeded, rows, System.nanoTime() - start);
+    }
+
+    /**
+     * Applies a curve, splitting large batches into chunks that are curved in parallel.
+     * Curves that are not a ScoreCurve and small batches are curved on the current thread.
+     * @param batch the scores to curve
+     * @param strategy the curve to apply
+     * @param curveValue a value used by some curves
+     * @return true if the curve was applied, false if it could not be.
+     */
+    private boolean applyCurve(ScoreBatch batch, CurveStrategy strategy, double curveValue) {
+        if (!(strategy instanceof ScoreCurve) || batch.size() < PARALLEL_CHUNK_SIZE * 2) {
+            return curver.applyCurve(batch, strategy, curveValue);
+        }
+        ScoreCurve scoreCurve = (ScoreCurve) strategy;
+
+        // Metered under the same names as AutoCurver.applyCurve, so batch jobs show up with the rest
+        OperationTimer timer = Metrics.timer("AutoCurver.applyCurve." + strategy.getName());
+        long start = timer.start();
+        try {
+            ScoreStatistics stats = null;
+            if (strategy.needsStatistics()) {
+                stats = new StatisticsTask(batch.getOriginalScores(), 0, batch.size()).invoke();
+                if (stats.getStdDev() == 0) {
+                    System.err.println("Cannot apply " + strategy.getName() + " curve; standard deviation is zero.");
+                    return false;
+                }
+            }
+            new CurveTask(batch, scoreCurve, curveValue, stats, 0, batch.size()).invoke();
+            Metrics.count("curve.scoresCurved", batch.size());
+            return true;
+        } finally {
+            timer.stop(start);
+        }
+    }
+
+    // Accumulates statistics for a range of scores, merging the halves of large ranges
+    private static class StatisticsTask extends RecursiveTask<ScoreStatistics> {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] scores;
+        private final int from;
+        private final int to;
+
+        private StatisticsTask(double[] scores, int from, int to) {
+            this.scores = scores;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ScoreStatistics compute() {
+            if (this.to - this.from <= PARALLEL_CHUNK_SIZE) {
+                ScoreStatistics stats = new ScoreStatistics();
+                stats.addAll(this.scores, this.from, this.to);
+                return stats;
+            }
+            int mid = (this.from + this.to) >>> 1;
+            StatisticsTask left = new StatisticsTask(this.scores, this.from, mid);
+            left.fork();
+            ScoreStatistics right = new StatisticsTask(this.scores, mid, this.to).compute();
+            ScoreStatistics merged = left.join();
+            merged.merge(right);
+            return merged;
+        }
+    }
+
+    // Curves a range of scores, splitting large ranges in half
+    private static class CurveTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ScoreBatch batch;
+        private final ScoreCurve strategy;
+        private final double curveValue;
+        private final ScoreStatistics stats;
+        private final int from;
+        private final int to;
+
+        private CurveTask(ScoreBatch batch, ScoreCurve strategy, double curveValue,
+                          ScoreStatistics stats, int from, int to) {
+            this.batch = batch;
+            this.strategy = strategy;
+            this.curveValue = curveValue;
+            this.stats = stats;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= PARALLEL_CHUNK_SIZE) {
+                double[] original = this.batch.getOriginalScores();
+                double[] curved = this.batch.getCurvedScores();
+                for (int i = this.from; i < this.to; i++) {
+                    curved[i] = ScoreBatch.clamp(this.strategy.curve(original[i], this.curveValue, this.stats));
+                }
+                return;
+            }
+            int mid = (this.from + this.to) >>> 1;
+            invokeAll(new CurveTask(this.batch, this.strategy, this.curveValue, this.stats, this.from, mid),
+                    new CurveTask(this.batch, this.strategy, this.curveValue, this.stats, mid, this.to));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Built-In Curve Enum
+ * 06/11/2025
+ *
+ * The BuiltInCurve enum provides the per-score curves that ship with the grade curving
+ * utility. Each constant is a ScoreCurve, so the curves can be looked up by name
+ * in a CurveRegistry alongside any custom curves.
+ */
+
+public enum BuiltInCurve implements ScoreCurve {
+    FLAT("flat", "Adds a fixed number of points to every score.",
+            "Value: The number of points to add (e.g., 5).", true, false) {
+        @Override
+        public double curve(double score, double curveValue, ScoreStatistics stats) {
+            return score + curveValue;
+        }
+    },
+    SQRT("sqrt", "Takes the square root of the score and multiplies by 10.",
+            "No value needed.", false, false) {
+        @Override
+        public double curve(double score, double curveValue, ScoreStatistics stats) {
+            return Math.sqrt(score) * 10;
+        }
+    },
+    LOG("log", "Applies a logarithmic curve to compress higher scores.",
+            "No value needed.", false, false) {
+        @Override
+        public double curve(double score, double curveValue, ScoreStatistics stats) {
+            return 25 * Math.log(score + 1);
+        }
+    },
+    EXP("exp", "Applies an exponential curve to boost lower scores more significantly.",
+            "No value needed.", false, false) {
+        @Override
+        public double curve(double score, double curveValue, ScoreStatistics stats) {
+            return (Math.exp(score / 25.0) - 1) * 20;
+        }
+    },
+    POWER("power", "Raises the normalized score (0-1) to a given power.",
+            "Value: The exponent to use (e.g., 0.5 to boost scores).", true, false) {
+        @Override
+        public double curve(double score, double curveValue, ScoreStatistics stats) {
+            return Math.pow(score / 100.0, curveValue) * 100;
+        }
+    },
+    SIGMOID("sigmoid", "A smooth 'S'-shaped curve that boosts scores around the midpoint (50).",
+            "No value needed.", false, false) {
+        @Override
+        public double curve(double score, double curveValue, ScoreStatistics stats) {
+            return 100 / (1 + Math.exp(-0.1 * (score - 50)));
+        }
+    },
+    ZSCORE("zscore", "Standardizes scores and rescales them to a target mean and standard deviation.",
+            "No value needed (uses default mean 75, stddev 10).", false, true) {
+        @Override
+        public double curve(double score, double curveValue, ScoreStatistics stats) {
+            double targetMean = 75.0;
+            double targetStdDev = 10.0;
+            double zScore = (score - stats.getMean()) / stats.getStdDev();
+            return (zScore * targetStdDev) + targetMean;
+        }
+    },
+    STDDEV("stddev", "Shifts all scores to achieve a new target mean score.",
+            "Value: The desired average score for the class (e.g., 85).", true, true) {
+        @Override
+        public double curve(double score, double curveValue, ScoreStatistics stats) {
+            double targetMean = curveValue;
+            return score - stats.getMean() + targetMean;
+        }
+    };
+
+    private final String name;
+    private final String description;
+    private final String valueDescription;
+    private final boolean requiresValue;
+    private final boolean needsStatistics;
+
+    BuiltInCurve(String name, String description, String valueDescription,
+                 boolean requiresValue, boolean needsStatistics) {
+        this.name = name;
+        this.description = description;
+        this.valueDescription = valueDescription;
+        this.requiresValue = requiresValue;
+        this.needsStatistics = needsStatistics;
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public String getDescription() {
+        return this.description;
+    }
+
+    @Override
+    public boolean requiresValue() {
+        return this.requiresValue;
+    }
+
+    @Override
+    public String getValueDescription() {
+        return this.valueDescription;
+    }
+
+    @Override
+    public boolean needsStatistics() {
+        return this.needsStatistics;
+    }
+}
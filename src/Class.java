@@ -7,17 +7,26 @@
  *
  * The Class class represents a high school course in the student management system, storing course
  * details and managing student rosters. It provides methods to add or remove students and retrieve
- * course information, facilitating enrollment tracking.
+ * course information, facilitating enrollment tracking. A class's code, name, teacher and period
+ * never change, so its information line is rendered once and reused by every schedule.
  */
 
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 
 public class Class {
     private String classCode;
     private String className;
     private String teacher;
     private int period;
-    private ArrayList<RegularStudent> students;
+    private String classInfo;
+    // Roster keyed by student ID, in enrollment order
+    private LinkedHashMap<String, RegularStudent> students;
+
+    // Running grade totals and GPA ranking, kept up to date by the SystemManager
+    private GradeAggregate gradeAggregate;
+    private Leaderboard leaderboard;
 
     public Class(String classCode, String className, String teacher, int period) {
         if (classCode == null || classCode.isEmpty() || className == null || className.isEmpty() ||
@@ -28,7 +37,10 @@ public class Class {
         this.className = className;
         this.teacher = teacher;
         this.period = period;
-        this.students = new ArrayList<RegularStudent>();
+        this.classInfo = null;
+        this.students = new LinkedHashMap<>();
+        this.gradeAggregate = new GradeAggregate();
+        this.leaderboard = new Leaderboard(Leaderboard.DEFAULT_CAPACITY, () -> this.students.values());
     }
 
     /**
@@ -36,10 +48,16 @@ public class Class {
      * @param student the student to add
      */
     public void addStudent(RegularStudent student) {
-        boolean alreadyEnrolled = this.students.stream().anyMatch(s -> s.getId().equals(student.getId()));
-        if (!alreadyEnrolled) {
-            this.students.add(student);
-        }
+        this.students.putIfAbsent(student.getId(), student);
+    }
+
+    /**
+     * Appends a student to the roster without the duplicate check, for restoring
+     * a roster that is already known to be consistent.
+     * @param student the student to append
+     */
+    void restoreStudent(RegularStudent student) {
+        this.students.put(student.getId(), student);
     }
 
     /**
@@ -47,7 +65,16 @@ public class Class {
      * @param student the student to remove
      */
     public void removeStudent(RegularStudent student) {
-        students.removeIf(s -> s.getId().equals(student.getId()));
+        this.students.remove(student.getId());
+    }
+
+    /**
+     * Checks whether a student is on the class roster.
+     * @param studentId the ID of the student
+     * @return true if the student is enrolled in the class
+     */
+    public boolean hasStudent(String studentId) {
+        return this.students.containsKey(studentId);
     }
 
     /**
@@ -55,7 +82,12 @@ public class Class {
      * @return string containing class details
      */
     public String getClassInfo() {
-        return this.className + " (" + this.classCode + "), Teacher: " + this.teacher + ", Period: " + this.period;
+        if (this.classInfo == null) {
+            this.classInfo = new StringBuilder(32 + this.className.length() + this.classCode.length() + this.teacher.length())
+                    .append(this.className).append(" (").append(this.classCode).append("), Teacher: ")
+                    .append(this.teacher).append(", Period: ").append(this.period).toString();
+        }
+        return this.classInfo;
     }
 
     /**
@@ -91,10 +123,26 @@ public class Class {
     }
 
     /**
-     * Gets the list of students enrolled in the class.
-     * @return An ArrayList of RegularStudent objects.
+     * Gets the students enrolled in the class, in the order they enrolled.
+     * @return A read-only view of the roster.
+     */
+    public Collection<RegularStudent> getStudents() {
+        return Collections.unmodifiableCollection(this.students.values());
+    }
+
+    /**
+     * Gets the running totals of the grades recorded in this class.
+     * @return The class's grade aggregate.
+     */
+    public GradeAggregate getGradeAggregate() {
+        return this.gradeAggregate;
+    }
+
+    /**
+     * Gets the GPA ranking of the students on this class's roster.
+     * @return The class's leaderboard.
      */
-    public ArrayList<RegularStudent> getStudents() {
-        return this.students;
+    public Leaderboard getLeaderboard() {
+        return this.leaderboard;
     }
 }
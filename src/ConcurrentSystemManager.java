@@ -0,0 +1,890 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Concurrent System Manager Class
+ * 06/11/2025
+ *
+ * The ConcurrentSystemManager class is a thread-safe SystemManager for many users at once.
+ * Lookups and list snapshots read concurrent collections without locking. Changes to a student
+ * (enrollment, grades, GPA, edits) are serialized by one of a fixed set of striped locks chosen
+ * by student ID, and class rosters are guarded the same way by class code. A thread only ever
+ * takes a class lock while holding at most one student lock, so the locks cannot deadlock.
+ * Snapshots and invariant checks take every student lock and then every class lock, in the
+ * same order, so they see the whole system at one point in time.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+public class ConcurrentSystemManager extends SystemManager {
+    private static final int DEFAULT_STRIPES = 64;
+
+    private ConcurrentHashMap<String, RegularStudent> studentsById;
+    private ConcurrentHashMap<String, Class> classesByCode;
+
+    // Students and grades are kept in insertion order under sequence keys, so list snapshots
+    // match SystemManager's ordering and removals do not have to search
+    private AtomicLong insertionSequence;
+    private ConcurrentSkipListMap<Long, RegularStudent> studentOrder;
+    private ConcurrentHashMap<String, Long> studentOrderKeys;
+    private ConcurrentLinkedQueue<Class> classOrder;
+    private ConcurrentSkipListMap<Long, GradeRecord> gradeRecords;
+
+    // A student's grades are replaced rather than modified, so readers never see a partial update
+    private ConcurrentHashMap<String, StudentGrades> gradesByStudent;
+    private ConcurrentHashMap<String, ConcurrentSkipListMap<Long, GradeRecord>> gradesByClass;
+    private ConcurrentHashMap<Long, GradeRecord> gradesByKey;
+
+    private AtomicInteger totalEnrollments;
+    private AtomicLong journalSequence;
+    private ReentrantLock[] studentLocks;
+    private ReentrantLock[] classLocks;
+
+    public ConcurrentSystemManager() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public ConcurrentSystemManager(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("At least one lock stripe is required");
+        }
+        this.studentsById = new ConcurrentHashMap<>();
+        this.classesByCode = new ConcurrentHashMap<>();
+        this.insertionSequence = new AtomicLong();
+        this.studentOrder = new ConcurrentSkipListMap<>();
+        this.studentOrderKeys = new ConcurrentHashMap<>();
+        this.classOrder = new ConcurrentLinkedQueue<>();
+        this.gradeRecords = new ConcurrentSkipListMap<>();
+        this.gradesByStudent = new ConcurrentHashMap<>();
+        this.gradesByClass = new ConcurrentHashMap<>();
+        this.gradesByKey = new ConcurrentHashMap<>();
+        this.totalEnrollments = new AtomicInteger();
+        this.journalSequence = new AtomicLong();
+        this.studentLocks = new ReentrantLock[stripes];
+        this.classLocks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.studentLocks[i] = new ReentrantLock();
+            this.classLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Creates a concurrent system that takes over the state of an existing one, such as a
+     * freshly loaded snapshot. The source must not be used afterwards.
+     * @param source The system whose students, classes, grades and journal are taken over.
+     */
+    public ConcurrentSystemManager(SystemManager source) {
+        this(DEFAULT_STRIPES);
+        for (Class course : source.getClasses()) {
+            this.classesByCode.put(course.getClassCode(), course);
+            this.classOrder.add(course);
+        }
+        for (RegularStudent student : source.getStudents()) {
+            this.studentsById.put(student.getId(), student);
+            long key = this.insertionSequence.incrementAndGet();
+            this.studentOrder.put(key, student);
+            this.studentOrderKeys.put(student.getId(), key);
+        }
+        for (GradeRecord record : source.getGradeRecords()) {
+            indexGrade(gradeKey(record.getStudentID(), record.getClassCode(), true), record);
+        }
+
+        this.totalEnrollments.set(source.getTotalEnrollments());
+        this.journalSequence.set(source.getJournalSequence());
+        setJournal(source.getJournal());
+    }
+
+    @Override
+    public Optional<RegularStudent> findStudentById(String studentId) {
+        long start = FIND_STUDENT_TIMER.start();
+        try {
+            return Optional.ofNullable(studentsById.get(studentId));
+        } finally {
+            FIND_STUDENT_TIMER.stop(start);
+        }
+    }
+
+    @Override
+    public Optional<Class> findClassByCode(String classCode) {
+        long start = FIND_CLASS_TIMER.start();
+        try {
+            return Optional.ofNullable(classesByCode.get(classCode));
+        } finally {
+            FIND_CLASS_TIMER.stop(start);
+        }
+    }
+
+    @Override
+    public void addStudent(RegularStudent student) {
+        long start = ADD_STUDENT_TIMER.start();
+        try {
+            if (student == null) {
+                return;
+            }
+            ReentrantLock lock = studentLock(student.getId());
+            lock.lock();
+            try {
+                // Every change to this ID holds its lock, so the student cannot appear before the put
+                if (studentsById.containsKey(student.getId())) {
+                    return;
+                }
+                MutationJournal journal = getJournal();
+                if (journal != null) {
+                    setJournalSequence(journal.logAddStudent(student));
+                }
+                studentsById.put(student.getId(), student);
+                long key = insertionSequence.incrementAndGet();
+                studentOrder.put(key, student);
+                studentOrderKeys.put(student.getId(), key);
+                getStudentIds().idOf(student.getId());
+
+                // Pick up any grades that were recorded before the student was added
+                StudentGrades grades = gradesByStudent.get(student.getId());
+                if (grades != null) {
+                    for (GradeRecord record : grades.records) {
+                        student.addGrade(record);
+                    }
+                }
+                updateLeaderboards(student);
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            ADD_STUDENT_TIMER.stop(start);
+        }
+    }
+
+    @Override
+    public boolean removeStudent(String studentId) {
+        long start = REMOVE_STUDENT_TIMER.start();
+        try {
+            ReentrantLock lock = studentLock(studentId);
+            lock.lock();
+            try {
+                RegularStudent student = studentsById.get(studentId);
+                if (student == null) {
+                    return false;
+                }
+                MutationJournal journal = getJournal();
+                if (journal != null) {
+                    setJournalSequence(journal.logRemoveStudent(studentId));
+                }
+
+                // Rosters mirror schedules, so only the student's own classes need updating
+                for (Class course : student.getClasses()) {
+                    ReentrantLock rosterLock = classLock(course.getClassCode());
+                    rosterLock.lock();
+                    try {
+                        course.removeStudent(student);
+                        course.getLeaderboard().remove(studentId);
+                    } finally {
+                        rosterLock.unlock();
+                    }
+                }
+                totalEnrollments.addAndGet(-student.getClasses().size());
+
+                StudentGrades grades = gradesByStudent.remove(studentId);
+                if (grades != null) {
+                    for (int i = 0; i < grades.records.length; i++) {
+                        gradeRecords.remove(grades.keys[i]);
+                        GradeRecord record = grades.records[i];
+                        gradesByKey.remove(gradeKey(studentId, record.getClassCode(), false));
+                        ReentrantLock classLock = classLock(record.getClassCode());
+                        classLock.lock();
+                        try {
+                            ConcurrentSkipListMap<Long, GradeRecord> classGrades = gradesByClass.get(record.getClassCode());
+                            if (classGrades != null) {
+                                classGrades.remove(grades.keys[i]);
+                            }
+                            if (record.getAggregate() != null) {
+                                record.getAggregate().remove(record);
+                            }
+                        } finally {
+                            classLock.unlock();
+                        }
+                    }
+                }
+                studentsById.remove(studentId);
+                studentOrder.remove(studentOrderKeys.remove(studentId));
+                removeFromLeaderboards(student);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            REMOVE_STUDENT_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Removes many students at once. Each removal takes only that student's locks, so
+     * other users are not blocked for the whole batch.
+     * @param studentIds The IDs of the students to remove; unknown IDs are ignored.
+     * @return The number of students removed.
+     */
+    @Override
+    public int removeStudents(Collection<String> studentIds) {
+        long start = REMOVE_STUDENTS_TIMER.start();
+        try {
+            int removed = 0;
+            for (String studentId : studentIds) {
+                if (removeStudent(studentId)) {
+                    removed++;
+                }
+            }
+            return removed;
+        } finally {
+            REMOVE_STUDENTS_TIMER.stop(start);
+        }
+    }
+
+    @Override
+    public boolean editStudent(String studentId, String newName, int newGradeLevel) {
+        long start = EDIT_STUDENT_TIMER.start();
+        try {
+            ReentrantLock lock = studentLock(studentId);
+            lock.lock();
+            try {
+                RegularStudent student = studentsById.get(studentId);
+                if (student == null) {
+                    return false;
+                }
+                MutationJournal journal = getJournal();
+                if (journal != null) {
+                    setJournalSequence(journal.logEditStudent(studentId, newName, newGradeLevel));
+                }
+                student.setName(newName);
+                student.setGradeLevel(newGradeLevel);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            EDIT_STUDENT_TIMER.stop(start);
+        }
+    }
+
+    @Override
+    public void addClass(Class course) {
+        long start = ADD_CLASS_TIMER.start();
+        try {
+            if (course != null) {
+                addClassIfAbsent(course);
+            }
+        } finally {
+            ADD_CLASS_TIMER.stop(start);
+        }
+    }
+
+    @Override
+    Class findOrCreateClass(String classCode) {
+        Class existing = classesByCode.get(classCode);
+        if (existing != null) {
+            return existing;
+        }
+        return addClassIfAbsent(new Class(classCode, "Class: " + classCode, "Staff", 1));
+    }
+
+    /**
+     * Enrolls a student in a class. Students that are not (or are no longer) part of the
+     * system are ignored, so a removal racing with an enrollment cannot leave a stale roster.
+     * @param student The student to enroll.
+     * @param course The class to enroll the student in.
+     */
+    @Override
+    public void enrollStudent(RegularStudent student, Class course) {
+        long start = ENROLL_TIMER.start();
+        try {
+            if (student == null || course == null) {
+                return;
+            }
+            ReentrantLock lock = studentLock(student.getId());
+            lock.lock();
+            try {
+                if (studentsById.get(student.getId()) != student) {
+                    return;
+                }
+                if (student.isEnrolledIn(course.getClassCode())) {
+                    return;
+                }
+                MutationJournal journal = getJournal();
+                if (journal != null) {
+                    setJournalSequence(journal.logEnrollStudent(student.getId(), course.getClassCode()));
+                }
+
+                ReentrantLock rosterLock = classLock(course.getClassCode());
+                rosterLock.lock();
+                try {
+                    student.enrollClass(course);
+                    course.getLeaderboard().update(student);
+                } finally {
+                    rosterLock.unlock();
+                }
+                totalEnrollments.incrementAndGet();
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            ENROLL_TIMER.stop(start);
+        }
+    }
+
+    @Override
+    public boolean assignGrade(String studentID, String classCode, double grade) {
+        long start = ASSIGN_GRADE_TIMER.start();
+        try {
+            if (studentID == null || classCode == null) {
+                throw new IllegalArgumentException("Student ID and class code cannot be null");
+            }
+            long key = gradeKey(studentID, classCode, true);
+            ReentrantLock lock = studentLock(studentID);
+            lock.lock();
+            try {
+                MutationJournal journal = getJournal();
+                if (journal != null) {
+                    setJournalSequence(journal.logAssignGrade(studentID, classCode, grade));
+                }
+                GradeRecord record = gradesByKey.get(key);
+                boolean created = (record == null);
+                if (!created) {
+                    int historyDepth = getGradeHistoryDepth();
+                    if (historyDepth > 0) {
+                        record.keepHistory(historyDepth);
+                    }
+                    // The class lock keeps the change in step with a class being added at the same time
+                    ReentrantLock classLock = classLock(classCode);
+                    classLock.lock();
+                    try {
+                        record.assignGrade(grade);
+                    } finally {
+                        classLock.unlock();
+                    }
+                } else {
+                    record = new GradeRecord(getStudentIds().valueOf((int) (key >>> 32)),
+                            getClassCodes().valueOf((int) key), grade);
+                    indexGrade(key, record);
+                }
+
+                RegularStudent student = studentsById.get(studentID);
+                if (student != null) {
+                    if (record.getOwner() == null) {
+                        student.addGrade(record);
+                    }
+                    updateLeaderboards(student);
+                }
+                return created;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            ASSIGN_GRADE_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Finds a student's grade record for a class, without locking.
+     * @param studentID the student's ID
+     * @param classCode the class code
+     * @return The grade record, or empty if the student has no grade in the class.
+     */
+    @Override
+    public Optional<GradeRecord> findGradeRecord(String studentID, String classCode) {
+        long start = FIND_GRADE_TIMER.start();
+        try {
+            long key = gradeKey(studentID, classCode, false);
+            return Optional.ofNullable((key < 0) ? null : gradesByKey.get(key));
+        } finally {
+            FIND_GRADE_TIMER.stop(start);
+        }
+    }
+
+    @Override
+    public boolean withdrawStudent(String studentID, String classCode) {
+        long start = WITHDRAW_TIMER.start();
+        try {
+            ReentrantLock lock = studentLock(studentID);
+            lock.lock();
+            try {
+                long key = gradeKey(studentID, classCode, false);
+                GradeRecord record = (key < 0) ? null : gradesByKey.get(key);
+                RegularStudent student = studentsById.get(studentID);
+                boolean enrolled = student != null && student.isEnrolledIn(classCode);
+                if (record == null && !enrolled) {
+                    return false;
+                }
+                MutationJournal journal = getJournal();
+                if (journal != null) {
+                    setJournalSequence(journal.logWithdrawStudent(studentID, classCode));
+                }
+
+                if (record != null) {
+                    removeGrade(key, record);
+                }
+                if (enrolled) {
+                    ReentrantLock rosterLock = classLock(classCode);
+                    rosterLock.lock();
+                    try {
+                        student.dropClass(classCode);
+                        Class course = classesByCode.get(classCode);
+                        if (course != null) {
+                            course.getLeaderboard().remove(studentID);
+                        }
+                    } finally {
+                        rosterLock.unlock();
+                    }
+                    totalEnrollments.decrementAndGet();
+                }
+                if (student != null) {
+                    updateLeaderboards(student);
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            WITHDRAW_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Returns a snapshot of all students, taken without locking.
+     * @return A new ArrayList of the students in the order they were added.
+     */
+    @Override
+    public ArrayList<RegularStudent> getStudents() {
+        return new ArrayList<>(this.studentOrder.values());
+    }
+
+    /**
+     * Returns a snapshot of all classes, taken without locking.
+     * @return A new ArrayList of the classes in the order they were added.
+     */
+    @Override
+    public ArrayList<Class> getClasses() {
+        return new ArrayList<>(this.classOrder);
+    }
+
+    @Override
+    public ArrayList<GradeRecord> getGradeRecords() {
+        return new ArrayList<>(this.gradeRecords.values());
+    }
+
+    @Override
+    protected Collection<GradeRecord> allGradeRecords() {
+        return Collections.unmodifiableCollection(this.gradeRecords.values());
+    }
+
+    @Override
+    public int getTotalEnrollments() {
+        return this.totalEnrollments.get();
+    }
+
+    @Override
+    void setTotalEnrollments(int totalEnrollments) {
+        this.totalEnrollments.set(totalEnrollments);
+    }
+
+    // The skip list and queue sizes are counted by walking them, which is fine for occasional reads
+    @Override
+    LinkedHashMap<String, Integer> getIndexSizes() {
+        LinkedHashMap<String, Integer> sizes = new LinkedHashMap<>();
+        sizes.put("students", studentOrder.size());
+        sizes.put("classes", classOrder.size());
+        sizes.put("enrollments", totalEnrollments.get());
+        sizes.put("gradeRecords", gradeRecords.size());
+        sizes.put("studentsById", studentsById.size());
+        sizes.put("classesByCode", classesByCode.size());
+        sizes.put("gradesByStudent", gradesByStudent.size());
+        sizes.put("gradesByClass", gradesByClass.size());
+        sizes.put("gradesByKey", gradesByKey.size());
+        sizes.put("studentIds", getStudentIds().size());
+        sizes.put("classCodes", getClassCodes().size());
+        return sizes;
+    }
+
+    @Override
+    long getJournalSequence() {
+        return this.journalSequence.get();
+    }
+
+    // Records from different students may be logged out of order, so only move forward
+    @Override
+    void setJournalSequence(long journalSequence) {
+        this.journalSequence.accumulateAndGet(journalSequence, Math::max);
+    }
+
+    /**
+     * Returns a student's grades as of the last completed change, without locking.
+     * @param studentId The ID of the student.
+     * @return A new ArrayList of the student's grade records.
+     */
+    @Override
+    public ArrayList<GradeRecord> getGradesForStudent(String studentId) {
+        long start = GRADES_FOR_STUDENT_TIMER.start();
+        try {
+            StudentGrades grades = gradesByStudent.get(studentId);
+            return (grades == null) ? new ArrayList<>() : new ArrayList<>(Arrays.asList(grades.records));
+        } finally {
+            GRADES_FOR_STUDENT_TIMER.stop(start);
+        }
+    }
+
+    @Override
+    public ArrayList<GradeRecord> getGradesForClass(String classCode) {
+        long start = GRADES_FOR_CLASS_TIMER.start();
+        try {
+            ConcurrentSkipListMap<Long, GradeRecord> classGrades = gradesByClass.get(classCode);
+            return (classGrades == null) ? new ArrayList<>() : new ArrayList<>(classGrades.values());
+        } finally {
+            GRADES_FOR_CLASS_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Gets the students enrolled in a class with the highest GPAs, holding the class's
+     * roster lock in case the leaderboard has to be rebuilt from the roster.
+     * @param classCode The code of the class.
+     * @param count The number of students wanted.
+     * @return Up to count students in ranked order, or an empty list if there is no such class.
+     */
+    @Override
+    public ArrayList<RegularStudent> getTopStudents(String classCode, int count) {
+        long start = TOP_STUDENTS_IN_CLASS_TIMER.start();
+        try {
+            return readClass(classCode, course -> course.getLeaderboard().top(count)).orElseGet(ArrayList::new);
+        } finally {
+            TOP_STUDENTS_IN_CLASS_TIMER.stop(start);
+        }
+    }
+
+    @Override
+    boolean isEnrolled(RegularStudent student, String classCode) {
+        ReentrantLock lock = studentLock(student.getId());
+        lock.lock();
+        try {
+            return super.isEnrolled(student, classCode);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Holds the student's lock so an enrollment cannot change the schedule mid-render
+    @Override
+    void appendSchedule(RegularStudent student, StringBuilder out) {
+        ReentrantLock lock = studentLock(student.getId());
+        lock.lock();
+        try {
+            super.appendSchedule(student, out);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads a student while holding their lock, so schedule and GPA are seen consistently.
+     * @param studentId The ID of the student.
+     * @param reader Computes a result from the student.
+     * @return The reader's result, or empty if there is no such student.
+     */
+    public <T> Optional<T> readStudent(String studentId, Function<RegularStudent, T> reader) {
+        ReentrantLock lock = studentLock(studentId);
+        lock.lock();
+        try {
+            RegularStudent student = studentsById.get(studentId);
+            return (student == null) ? Optional.empty() : Optional.ofNullable(reader.apply(student));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads a class while holding its roster lock.
+     * @param classCode The code of the class.
+     * @param reader Computes a result from the class.
+     * @return The reader's result, or empty if there is no such class.
+     */
+    public <T> Optional<T> readClass(String classCode, Function<Class, T> reader) {
+        ReentrantLock lock = classLock(classCode);
+        lock.lock();
+        try {
+            Class course = classesByCode.get(classCode);
+            return (course == null) ? Optional.empty() : Optional.ofNullable(reader.apply(course));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks that the system is internally consistent: every schedule entry has a matching
+     * roster entry and the reverse, the enrollment count matches the schedules, and the
+     * indexes agree with each other. All locks are held while checking.
+     * @return A description of each problem found; empty if the system is consistent.
+     */
+    public ArrayList<String> checkInvariants() {
+        ArrayList<String> problems = new ArrayList<>();
+        lockAll();
+        try {
+            int listed = 0;
+            int enrollments = 0;
+            for (RegularStudent student : studentOrder.values()) {
+                listed++;
+                if (studentsById.get(student.getId()) != student) {
+                    problems.add("Student " + student.getId() + " is listed but not indexed");
+                }
+                for (Class course : student.getClasses()) {
+                    enrollments++;
+                    if (!course.hasStudent(student.getId())) {
+                        problems.add("Student " + student.getId() + " has " + course.getClassCode()
+                                + " on their schedule but is not on its roster");
+                    }
+                }
+            }
+            if (listed != studentsById.size()) {
+                problems.add(listed + " students listed but " + studentsById.size() + " indexed");
+            }
+            if (enrollments != totalEnrollments.get()) {
+                problems.add("Enrollment count is " + totalEnrollments.get() + " but schedules hold " + enrollments);
+            }
+
+            for (Class course : classOrder) {
+                for (RegularStudent student : course.getStudents()) {
+                    if (studentsById.get(student.getId()) != student) {
+                        problems.add("Roster of " + course.getClassCode() + " holds removed student " + student.getId());
+                    } else if (!student.isEnrolledIn(course.getClassCode())) {
+                        problems.add("Roster of " + course.getClassCode() + " holds " + student.getId()
+                                + " but the class is not on their schedule");
+                    }
+                }
+            }
+
+            int indexedGrades = 0;
+            for (StudentGrades grades : gradesByStudent.values()) {
+                indexedGrades += grades.records.length;
+            }
+            int allGrades = gradeRecords.size();
+            if (indexedGrades != allGrades) {
+                problems.add(allGrades + " grade records but " + indexedGrades + " indexed by student");
+            }
+            if (gradesByKey.size() != allGrades) {
+                problems.add(allGrades + " grade records but " + gradesByKey.size() + " indexed by student and class");
+            }
+            for (Class course : classOrder) {
+                ConcurrentSkipListMap<Long, GradeRecord> classGrades = gradesByClass.get(course.getClassCode());
+                int expected = (classGrades == null) ? 0 : classGrades.size();
+                if (course.getGradeAggregate().getCount() != expected) {
+                    problems.add("Class " + course.getClassCode() + " counts " + course.getGradeAggregate().getCount()
+                            + " grades but has " + expected);
+                }
+            }
+        } finally {
+            unlockAll();
+        }
+        return problems;
+    }
+
+    /**
+     * Takes every student lock and then every class lock, in stripe order, so no change can
+     * be in progress while the caller reads the whole system.
+     */
+    @Override
+    void lockAll() {
+        for (ReentrantLock lock : studentLocks) {
+            lock.lock();
+        }
+        for (ReentrantLock lock : classLocks) {
+            lock.lock();
+        }
+    }
+
+    /**
+     * Releases the locks taken by lockAll, in reverse order.
+     */
+    @Override
+    void unlockAll() {
+        for (int i = classLocks.length - 1; i >= 0; i--) {
+            classLocks[i].unlock();
+        }
+        for (int i = studentLocks.length - 1; i >= 0; i--) {
+            studentLocks[i].unlock();
+        }
+    }
+
+    /**
+     * Adds a grade record to the global, per-student, per-class and per-pair indexes and
+     * to its class's totals. The caller must hold the student's lock.
+     * @param gradeKey the record's grade key
+     * @param record the record to index
+     */
+    private void indexGrade(long gradeKey, GradeRecord record) {
+        gradesByKey.put(gradeKey, record);
+        long key = insertionSequence.incrementAndGet();
+        StudentGrades grades = gradesByStudent.get(record.getStudentID());
+        gradesByStudent.put(record.getStudentID(), (grades == null) ? new StudentGrades(record, key) : grades.plus(record, key));
+        gradeRecords.put(key, record);
+
+        // The class lock keeps the totals in step with a class being added at the same time
+        ReentrantLock lock = classLock(record.getClassCode());
+        lock.lock();
+        try {
+            gradesByClass.computeIfAbsent(record.getClassCode(), k -> new ConcurrentSkipListMap<>()).put(key, record);
+            Class course = classesByCode.get(record.getClassCode());
+            if (course != null) {
+                course.getGradeAggregate().add(record);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a grade record from every index and from its student's and class's totals.
+     * The caller must hold the student's lock.
+     * @param key the record's grade key
+     * @param record the record to remove
+     */
+    private void removeGrade(long key, GradeRecord record) {
+        gradesByKey.remove(key);
+        StudentGrades grades = gradesByStudent.get(record.getStudentID());
+        long sequence = -1;
+        if (grades != null) {
+            sequence = grades.keyOf(record);
+            StudentGrades kept = grades.without(record);
+            if (kept == null) {
+                gradesByStudent.remove(record.getStudentID());
+            } else {
+                gradesByStudent.put(record.getStudentID(), kept);
+            }
+        }
+
+        ReentrantLock lock = classLock(record.getClassCode());
+        lock.lock();
+        try {
+            gradeRecords.remove(sequence);
+            ConcurrentSkipListMap<Long, GradeRecord> classGrades = gradesByClass.get(record.getClassCode());
+            if (classGrades != null) {
+                classGrades.remove(sequence);
+            }
+            if (record.getAggregate() != null) {
+                record.getAggregate().remove(record);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (record.getOwner() != null) {
+            record.getOwner().removeGrade(record);
+        }
+    }
+
+    // Registers a class unless one with the same code exists, returning whichever is registered
+    private Class addClassIfAbsent(Class course) {
+        ReentrantLock lock = classLock(course.getClassCode());
+        lock.lock();
+        try {
+            // Classes are only added under their lock, so the class cannot appear before the put
+            Class existing = classesByCode.get(course.getClassCode());
+            if (existing != null) {
+                return existing;
+            }
+            MutationJournal journal = getJournal();
+            if (journal != null) {
+                setJournalSequence(journal.logAddClass(course));
+            }
+            classesByCode.put(course.getClassCode(), course);
+            classOrder.add(course);
+            getClassCodes().idOf(course.getClassCode());
+            // Count any grades that were recorded before the class was added
+            ConcurrentSkipListMap<Long, GradeRecord> classGrades = gradesByClass.get(course.getClassCode());
+            if (classGrades != null) {
+                for (GradeRecord record : classGrades.values()) {
+                    course.getGradeAggregate().add(record);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return course;
+    }
+
+    private ReentrantLock studentLock(String studentId) {
+        return studentLocks[stripe(studentId, studentLocks.length)];
+    }
+
+    private ReentrantLock classLock(String classCode) {
+        return classLocks[stripe(classCode, classLocks.length)];
+    }
+
+    // One student's grade records with their sequence keys; never modified once published
+    private static class StudentGrades {
+        private final GradeRecord[] records;
+        private final long[] keys;
+
+        private StudentGrades(GradeRecord record, long key) {
+            this(new GradeRecord[] {record}, new long[] {key});
+        }
+
+        private StudentGrades(GradeRecord[] records, long[] keys) {
+            this.records = records;
+            this.keys = keys;
+        }
+
+        private StudentGrades plus(GradeRecord record, long key) {
+            GradeRecord[] moreRecords = Arrays.copyOf(this.records, this.records.length + 1);
+            long[] moreKeys = Arrays.copyOf(this.keys, this.keys.length + 1);
+            moreRecords[this.records.length] = record;
+            moreKeys[this.keys.length] = key;
+            return new StudentGrades(moreRecords, moreKeys);
+        }
+
+        // Finds the sequence key a record is stored under, or -1 if it is not one of these grades
+        private long keyOf(GradeRecord record) {
+            for (int i = 0; i < this.records.length; i++) {
+                if (this.records[i] == record) {
+                    return this.keys[i];
+                }
+            }
+            return -1;
+        }
+
+        // Copies the grades without one record; null if none are left
+        private StudentGrades without(GradeRecord record) {
+            int index = -1;
+            for (int i = 0; i < this.records.length && index < 0; i++) {
+                if (this.records[i] == record) {
+                    index = i;
+                }
+            }
+            if (index < 0) {
+                return this;
+            }
+            if (this.records.length == 1) {
+                return null;
+            }
+            GradeRecord[] fewerRecords = new GradeRecord[this.records.length - 1];
+            long[] fewerKeys = new long[this.keys.length - 1];
+            System.arraycopy(this.records, 0, fewerRecords, 0, index);
+            System.arraycopy(this.keys, 0, fewerKeys, 0, index);
+            System.arraycopy(this.records, index + 1, fewerRecords, index, fewerRecords.length - index);
+            System.arraycopy(this.keys, index + 1, fewerKeys, index, fewerKeys.length - index);
+            return new StudentGrades(fewerRecords, fewerKeys);
+        }
+    }
+
+    // Spreads the hash so IDs that differ only in their last characters use different stripes
+    private static int stripe(String key, int stripes) {
+        int hash = (key == null) ? 0 : key.hashCode();
+        hash ^= (hash >>> 16);
+        return (hash & 0x7fffffff) % stripes;
+    }
+}
@@ -0,0 +1,425 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - CSV Tokenizer Class
+ * 06/11/2025
+ *
+ * The CsvTokenizer class splits CSV data into records and fields for the student management
+ * system. It works over a reusable char buffer, supports RFC 4180 quoting (so names like
+ * "Smith, Jr." survive), and parses numbers straight from the buffer without creating Strings.
+ */
+
+import java.io.IOException;
+import java.io.Reader;
+
+public class CsvTokenizer {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Powers of ten that are exactly representable as doubles, for the fast number path
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    // Where raw characters come from: a Reader, or a single line set with reset
+    private Reader reader;
+    private char[] input;
+    private int inputPos;
+    private int inputLimit;
+    private int pushback;
+
+    // The current record's unescaped field contents, stored back to back
+    private char[] record;
+    private int recordLength;
+    private int[] fieldStarts;
+    private int[] fieldEnds;
+    private int fieldCount;
+    private FieldView[] views;
+
+    /**
+     * Constructs a tokenizer that reads records from a Reader.
+     * @param reader the source of CSV data
+     */
+    public CsvTokenizer(Reader reader) {
+        this();
+        this.reader = reader;
+        this.input = new char[BUFFER_SIZE];
+    }
+
+    /**
+     * Constructs a tokenizer for single lines supplied through reset.
+     */
+    public CsvTokenizer() {
+        this.input = new char[0];
+        this.inputPos = 0;
+        this.inputLimit = 0;
+        this.pushback = -2;
+        this.record = new char[256];
+        this.fieldStarts = new int[16];
+        this.fieldEnds = new int[16];
+        this.views = new FieldView[0];
+    }
+
+    /**
+     * Points the tokenizer at a single line of CSV text, reusing its buffers.
+     * @param line the line to tokenize with the next call to nextRecord
+     */
+    public void reset(CharSequence line) {
+        int length = line.length();
+        if (this.input.length < length) {
+            this.input = new char[Math.max(length, this.input.length * 2)];
+        }
+        if (line instanceof String) {
+            ((String) line).getChars(0, length, this.input, 0);
+        } else {
+            for (int i = 0; i < length; i++) {
+                this.input[i] = line.charAt(i);
+            }
+        }
+        this.reader = null;
+        this.inputPos = 0;
+        this.inputLimit = length;
+        this.pushback = -2;
+    }
+
+    /**
+     * Reads the next record. Quoted fields may contain commas, doubled quotes and
+     * line breaks; whitespace around unquoted fields is trimmed.
+     * @return true if a record was read, false at the end of the input
+     * @throws IOException if the underlying reader fails
+     */
+    public boolean nextRecord() throws IOException {
+        this.fieldCount = 0;
+        this.recordLength = 0;
+
+        int c = read();
+        if (c == -1) {
+            return false;
+        }
+
+        while (true) {
+            while (c == ' ' || c == '\t') {
+                c = read();
+            }
+
+            int start = this.recordLength;
+            if (c == '"') {
+                c = read();
+                while (c != -1) {
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') {
+                            break;
+                        }
+                    }
+                    append((char) c);
+                    c = read();
+                }
+                while (c == ' ' || c == '\t') {
+                    c = read();
+                }
+                int end = this.recordLength;
+                // Anything after the closing quote is kept rather than dropped
+                while (c != ',' && c != '\n' && c != '\r' && c != -1) {
+                    append((char) c);
+                    c = read();
+                    end = trimEnd(start);
+                }
+                addField(start, end);
+            } else {
+                while (c != ',' && c != '\n' && c != '\r' && c != -1) {
+                    append((char) c);
+                    c = read();
+                }
+                addField(start, trimEnd(start));
+            }
+
+            if (c == ',') {
+                c = read();
+                continue;
+            }
+            if (c == '\r') {
+                int next = read();
+                if (next != '\n') {
+                    this.pushback = next;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Gets the number of fields in the current record.
+     * @return The field count.
+     */
+    public int getFieldCount() {
+        return this.fieldCount;
+    }
+
+    /**
+     * Gets the number of fields with trailing empty fields dropped, matching
+     * what String.split(",") would report for the same line.
+     * @return The field count without trailing empty fields.
+     */
+    public int getTrimmedFieldCount() {
+        int count = this.fieldCount;
+        while (count > 0 && this.fieldStarts[count - 1] == this.fieldEnds[count - 1]) {
+            count--;
+        }
+        return count;
+    }
+
+    /**
+     * Gets a field as a view over the tokenizer's buffer. The view is reused and
+     * is only valid until the next call to nextRecord or reset.
+     * @param index the field index
+     * @return The field contents.
+     */
+    public CharSequence getField(int index) {
+        checkIndex(index);
+        if (this.views.length < this.fieldStarts.length) {
+            FieldView[] grown = new FieldView[this.fieldStarts.length];
+            System.arraycopy(this.views, 0, grown, 0, this.views.length);
+            this.views = grown;
+        }
+        if (this.views[index] == null) {
+            this.views[index] = new FieldView(index);
+        }
+        return this.views[index];
+    }
+
+    /**
+     * Gets a field as a new String.
+     * @param index the field index
+     * @return The field contents.
+     */
+    public String getString(int index) {
+        checkIndex(index);
+        return new String(this.record, this.fieldStarts[index], this.fieldEnds[index] - this.fieldStarts[index]);
+    }
+
+    /**
+     * Parses a field as an int directly from the buffer.
+     * @param index the field index
+     * @return The parsed value.
+     * @throws NumberFormatException if the field is not a valid int
+     */
+    public int getInt(int index) {
+        checkIndex(index);
+        return parseInt(getField(index));
+    }
+
+    /**
+     * Parses a field as a double directly from the buffer.
+     * @param index the field index
+     * @return The parsed value.
+     * @throws NumberFormatException if the field is not a valid double
+     */
+    public double getDouble(int index) {
+        checkIndex(index);
+        return parseDouble(getField(index));
+    }
+
+    /**
+     * Parses a decimal int without creating a String, with the same rules as Integer.parseInt.
+     * @param text the characters to parse
+     * @return The parsed value.
+     * @throws NumberFormatException if the text is not a valid int
+     */
+    public static int parseInt(CharSequence text) {
+        int length = text.length();
+        if (length == 0) {
+            throw new NumberFormatException("For input string: \"\"");
+        }
+
+        int i = 0;
+        boolean negative = false;
+        char first = text.charAt(0);
+        if (first == '-' || first == '+') {
+            negative = (first == '-');
+            i++;
+            if (length == 1) {
+                throw invalidNumber(text);
+            }
+        }
+
+        // Accumulate negatively so Integer.MIN_VALUE does not overflow
+        long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long value = 0;
+        for (; i < length; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalidNumber(text);
+            }
+            value = value * 10 + digit;
+            if (value > limit) {
+                throw invalidNumber(text);
+            }
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    /**
+     * Parses a double without creating a String for plain decimal input such as "85.5"
+     * or "-1.25e2". Other forms fall back to Double.parseDouble, so results always match it.
+     * @param text the characters to parse
+     * @return The parsed value.
+     * @throws NumberFormatException if the text is not a valid double
+     */
+    public static double parseDouble(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = (text.charAt(0) == '-');
+            i++;
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean seenPoint = false;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (mantissa != 0 || c != '0') {
+                    significantDigits++;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (seenPoint) {
+                    scale--;
+                }
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                break;
+            }
+        }
+
+        if (i < length && (text.charAt(i) == 'e' || text.charAt(i) == 'E') && digits > 0) {
+            int j = i + 1;
+            boolean negativeExponent = false;
+            if (j < length && (text.charAt(j) == '-' || text.charAt(j) == '+')) {
+                negativeExponent = (text.charAt(j) == '-');
+                j++;
+            }
+            int exponent = 0;
+            int exponentDigits = 0;
+            while (j < length && text.charAt(j) >= '0' && text.charAt(j) <= '9' && exponent < 1000) {
+                exponent = exponent * 10 + (text.charAt(j) - '0');
+                exponentDigits++;
+                j++;
+            }
+            if (exponentDigits > 0) {
+                scale += negativeExponent ? -exponent : exponent;
+                i = j;
+            }
+        }
+
+        // Fast path: an exact mantissa scaled by an exact power of ten rounds correctly
+        if (i == length && digits > 0 && significantDigits <= 15 && scale >= -22 && scale <= 22) {
+            double value = (scale < 0) ? mantissa / POWERS_OF_TEN[-scale] : mantissa * POWERS_OF_TEN[scale];
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(text.toString());
+    }
+
+    // Builds the same exception message Integer.parseInt would
+    private static NumberFormatException invalidNumber(CharSequence text) {
+        return new NumberFormatException("For input string: \"" + text + "\"");
+    }
+
+    // Reads the next raw character, refilling from the reader when needed
+    private int read() throws IOException {
+        if (this.pushback != -2) {
+            int c = this.pushback;
+            this.pushback = -2;
+            return c;
+        }
+        if (this.inputPos >= this.inputLimit) {
+            if (this.reader == null) {
+                return -1;
+            }
+            int n = this.reader.read(this.input, 0, this.input.length);
+            if (n <= 0) {
+                return -1;
+            }
+            this.inputPos = 0;
+            this.inputLimit = n;
+        }
+        return this.input[this.inputPos++];
+    }
+
+    // Appends a character to the current record, growing the buffer if needed
+    private void append(char c) {
+        if (this.recordLength == this.record.length) {
+            char[] grown = new char[this.record.length * 2];
+            System.arraycopy(this.record, 0, grown, 0, this.recordLength);
+            this.record = grown;
+        }
+        this.record[this.recordLength++] = c;
+    }
+
+    // Drops trailing spaces and tabs from the field that started at start
+    private int trimEnd(int start) {
+        int end = this.recordLength;
+        while (end > start && (this.record[end - 1] == ' ' || this.record[end - 1] == '\t')) {
+            end--;
+        }
+        return end;
+    }
+
+    // Records the bounds of a completed field
+    private void addField(int start, int end) {
+        if (this.fieldCount == this.fieldStarts.length) {
+            int[] starts = new int[this.fieldCount * 2];
+            int[] ends = new int[this.fieldCount * 2];
+            System.arraycopy(this.fieldStarts, 0, starts, 0, this.fieldCount);
+            System.arraycopy(this.fieldEnds, 0, ends, 0, this.fieldCount);
+            this.fieldStarts = starts;
+            this.fieldEnds = ends;
+        }
+        this.fieldStarts[this.fieldCount] = start;
+        this.fieldEnds[this.fieldCount] = end;
+        this.fieldCount++;
+    }
+
+    // Ensures a field index is within the current record
+    private void checkIndex(int index) {
+        if (index < 0 || index >= this.fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + index + " out of range for " + this.fieldCount + " fields");
+        }
+    }
+
+    // A reusable CharSequence over one field of the current record
+    private class FieldView implements CharSequence {
+        private final int index;
+
+        private FieldView(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public int length() {
+            return fieldEnds[index] - fieldStarts[index];
+        }
+
+        @Override
+        public char charAt(int position) {
+            return record[fieldStarts[index] + position];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(record, fieldStarts[index] + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(record, fieldStarts[index], length());
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - CSV Writer Class
+ * 06/11/2025
+ *
+ * The CsvWriter class writes CSV output for the student management system through a large
+ * reusable buffer and a FileChannel. Numbers are appended straight into the buffer, and
+ * two-decimal values are written without a Formatter while matching String.format("%.2f").
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+public class CsvWriter implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    // Values this large, or this close to a rounding tie, are left to String.format
+    private static final double FAST_FORMAT_LIMIT = 1e9;
+    private static final double TIE_MARGIN = 1e-3;
+
+    private FileChannel channel;
+    private CharsetEncoder encoder;
+    private char[] chars;
+    private CharBuffer charView;
+    private ByteBuffer bytes;
+    private int length;
+    private char[] digits;
+
+    public CsvWriter(String filePath) throws IOException {
+        this.channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        // Same charset and error handling as FileWriter, so the bytes match its output
+        this.encoder = Charset.defaultCharset().newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.chars = new char[BUFFER_SIZE];
+        this.charView = CharBuffer.wrap(this.chars);
+        this.bytes = ByteBuffer.allocate(BUFFER_SIZE * 4);
+        this.length = 0;
+        this.digits = new char[20];
+    }
+
+    /**
+     * Appends text.
+     * @param text the text to write
+     * @return This writer.
+     * @throws IOException if the buffer must be flushed and the write fails
+     */
+    public CsvWriter append(CharSequence text) throws IOException {
+        int textLength = text.length();
+        for (int i = 0; i < textLength; i++) {
+            append(text.charAt(i));
+        }
+        return this;
+    }
+
+    /**
+     * Appends part of a char array.
+     * @param source the characters to write
+     * @param offset the first character to write
+     * @param count the number of characters to write
+     * @return This writer.
+     * @throws IOException if the buffer must be flushed and the write fails
+     */
+    public CsvWriter append(char[] source, int offset, int count) throws IOException {
+        while (count > 0) {
+            if (this.length == this.chars.length) {
+                flushBuffer();
+            }
+            int chunk = Math.min(count, this.chars.length - this.length);
+            System.arraycopy(source, offset, this.chars, this.length, chunk);
+            this.length += chunk;
+            offset += chunk;
+            count -= chunk;
+        }
+        return this;
+    }
+
+    /**
+     * Appends a single character.
+     * @param c the character to write
+     * @return This writer.
+     * @throws IOException if the buffer must be flushed and the write fails
+     */
+    public CsvWriter append(char c) throws IOException {
+        if (this.length == this.chars.length) {
+            flushBuffer();
+        }
+        this.chars[this.length++] = c;
+        return this;
+    }
+
+    /**
+     * Appends a whole number in decimal.
+     * @param value the number to write
+     * @return This writer.
+     * @throws IOException if the buffer must be flushed and the write fails
+     */
+    public CsvWriter appendLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            return append(Long.toString(value));
+        }
+        if (value < 0) {
+            append('-');
+            value = -value;
+        }
+        int count = 0;
+        do {
+            this.digits[count++] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        while (count > 0) {
+            append(this.digits[--count]);
+        }
+        return this;
+    }
+
+    /**
+     * Appends a number with exactly two decimal places, producing the same characters
+     * as String.format("%.2f", value).
+     * @param value the number to write
+     * @return This writer.
+     * @throws IOException if the buffer must be flushed and the write fails
+     */
+    public CsvWriter appendFixed2(double value) throws IOException {
+        long cents = toRoundedCents(value);
+        if (cents < 0) {
+            return append(String.format("%.2f", value));
+        }
+        if (Double.doubleToRawLongBits(value) < 0) {
+            append('-');
+        }
+        appendLong(cents / 100);
+        append('.');
+        append((char) ('0' + (cents / 10) % 10));
+        append((char) ('0' + cents % 10));
+        return this;
+    }
+
+    /**
+     * Appends a number with exactly two decimal places to a StringBuilder, producing the
+     * same characters as String.format("%.2f", value).
+     * @param builder the builder to append to
+     * @param value the number to write
+     * @return The builder.
+     */
+    public static StringBuilder appendFixed2(StringBuilder builder, double value) {
+        long cents = toRoundedCents(value);
+        if (cents < 0) {
+            return builder.append(String.format("%.2f", value));
+        }
+        if (Double.doubleToRawLongBits(value) < 0) {
+            builder.append('-');
+        }
+        builder.append(cents / 100).append('.');
+        builder.append((char) ('0' + (cents / 10) % 10));
+        builder.append((char) ('0' + cents % 10));
+        return builder;
+    }
+
+    /**
+     * Ends the current line with the platform line separator, as BufferedWriter.newLine does.
+     * @return This writer.
+     * @throws IOException if the buffer must be flushed and the write fails
+     */
+    public CsvWriter newLine() throws IOException {
+        return append(LINE_SEPARATOR);
+    }
+
+    /**
+     * Writes any buffered output to the file.
+     * @throws IOException if the write fails
+     */
+    public void flush() throws IOException {
+        flushBuffer();
+        drainBytes();
+    }
+
+    /**
+     * Flushes any buffered output and closes the file.
+     * @throws IOException if the write or close fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            this.charView.limit(this.length).position(0);
+            while (this.encoder.encode(this.charView, this.bytes, true).isOverflow()) {
+                drainBytes();
+            }
+            while (this.encoder.flush(this.bytes).isOverflow()) {
+                drainBytes();
+            }
+            this.length = 0;
+            drainBytes();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Rounds |value| to whole hundredths with HALF_UP rounding when that is certain to
+     * match String.format, which rounds the shortest decimal form of the double.
+     * @param value the number to round
+     * @return The absolute value in hundredths, or -1 if String.format must be used.
+     */
+    private static long toRoundedCents(double value) {
+        double magnitude = Math.abs(value);
+        if (!(magnitude < FAST_FORMAT_LIMIT) || !LocaleDigits.USES_ASCII) {
+            return -1;
+        }
+        double scaled = magnitude * 100.0;
+        double whole = Math.floor(scaled);
+        double fraction = scaled - whole;
+        // Near an exact half the binary value and its decimal form can round differently
+        if (Math.abs(fraction - 0.5) < TIE_MARGIN) {
+            return -1;
+        }
+        return (long) whole + ((fraction > 0.5) ? 1 : 0);
+    }
+
+    // Encodes the buffered characters into bytes, leaving any split surrogate for later
+    private void flushBuffer() throws IOException {
+        if (this.length == 0) {
+            return;
+        }
+        this.charView.limit(this.length).position(0);
+        while (true) {
+            CoderResult result = this.encoder.encode(this.charView, this.bytes, false);
+            if (result.isOverflow()) {
+                drainBytes();
+            } else {
+                break;
+            }
+        }
+        int remaining = this.charView.remaining();
+        System.arraycopy(this.chars, this.charView.position(), this.chars, 0, remaining);
+        this.length = remaining;
+        this.charView.clear();
+    }
+
+    // Writes the encoded bytes to the channel
+    private void drainBytes() throws IOException {
+        this.bytes.flip();
+        while (this.bytes.hasRemaining()) {
+            this.channel.write(this.bytes);
+        }
+        this.bytes.clear();
+    }
+
+    // Whether the default format locale prints numbers with ASCII digits and a '.'
+    private static class LocaleDigits {
+        private static final boolean USES_ASCII;
+
+        static {
+            DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT));
+            USES_ASCII = symbols.getDecimalSeparator() == '.' && symbols.getZeroDigit() == '0'
+                    && symbols.getMinusSign() == '-';
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Curve Job Class
+ * 06/11/2025
+ *
+ * The CurveJob class describes one entry of a batch curving manifest: which score file to
+ * read, which curve to apply with what value, and where to save the results. After the job
+ * runs it also records whether it succeeded, how many scores it curved and how long it took.
+ */
+
+public class CurveJob {
+    private String inputFile;
+    private String curveType;
+    private double curveValue;
+    private String outputFile;
+
+    private boolean succeeded;
+    private long rows;
+    private long elapsedNanos;
+
+    public CurveJob(String inputFile, String curveType, double curveValue, String outputFile) {
+        if (inputFile == null || inputFile.isEmpty() || curveType == null || curveType.isEmpty()
+                || outputFile == null || outputFile.isEmpty()) {
+            throw new IllegalArgumentException("Invalid curve job parameters");
+        }
+        this.inputFile = inputFile;
+        this.curveType = curveType;
+        this.curveValue = curveValue;
+        this.outputFile = outputFile;
+    }
+
+    /**
+     * Records the outcome of running the job.
+     * @param succeeded whether the curve was applied and saved
+     * @param rows the number of scores curved
+     * @param elapsedNanos how long the job took in nanoseconds
+     */
+    public void recordResult(boolean succeeded, long rows, long elapsedNanos) {
+        this.succeeded = succeeded;
+        this.rows = rows;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Gets the path of the score file to curve.
+     * @return The input file path.
+     */
+    public String getInputFile() {
+        return this.inputFile;
+    }
+
+    /**
+     * Gets the name of the curve to apply.
+     * @return The curve type.
+     */
+    public String getCurveType() {
+        return this.curveType;
+    }
+
+    /**
+     * Gets the value passed to the curve.
+     * @return The curve value.
+     */
+    public double getCurveValue() {
+        return this.curveValue;
+    }
+
+    /**
+     * Gets the path the curved scores are saved to.
+     * @return The output file path.
+     */
+    public String getOutputFile() {
+        return this.outputFile;
+    }
+
+    /**
+     * Checks if the job ran successfully.
+     * @return true if the curve was applied and saved, false otherwise
+     */
+    public boolean isSucceeded() {
+        return this.succeeded;
+    }
+
+    /**
+     * Gets the number of scores the job curved.
+     * @return The row count.
+     */
+    public long getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Gets how long the job took.
+     * @return The elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+}
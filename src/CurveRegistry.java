@@ -0,0 +1,74 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Curve Registry Class
+ * 06/11/2025
+ *
+ * The CurveRegistry class maps curve names to CurveStrategy objects for the grade curving
+ * utility. It holds the built-in curves and any custom curves found through ServiceLoader,
+ * so curves can be looked up by name in constant time.
+ */
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.ServiceLoader;
+
+public class CurveRegistry {
+    private LinkedHashMap<String, CurveStrategy> strategies;
+
+    public CurveRegistry() {
+        this.strategies = new LinkedHashMap<>();
+    }
+
+    /**
+     * Creates a registry with the built-in curves plus any custom curves listed in
+     * META-INF/services/CurveStrategy on the classpath.
+     * @return A new CurveRegistry.
+     */
+    public static CurveRegistry withDefaults() {
+        CurveRegistry registry = new CurveRegistry();
+        for (BuiltInCurve curve : BuiltInCurve.values()) {
+            registry.register(curve);
+        }
+        registry.register(new RatioCurve());
+        for (CurveStrategy custom : ServiceLoader.load(CurveStrategy.class)) {
+            registry.register(custom);
+        }
+        return registry;
+    }
+
+    /**
+     * Registers a curve, replacing any curve already registered under the same name.
+     * @param strategy the curve to register
+     */
+    public void register(CurveStrategy strategy) {
+        if (strategy == null || strategy.getName() == null || strategy.getName().isEmpty()) {
+            throw new IllegalArgumentException("Curve strategy must have a name");
+        }
+        this.strategies.put(strategy.getName().toLowerCase(Locale.ROOT), strategy);
+    }
+
+    /**
+     * Finds a curve by name, ignoring case.
+     * @param name the curve name
+     * @return An Optional containing the curve if registered, otherwise empty.
+     */
+    public Optional<CurveStrategy> find(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(this.strategies.get(name.toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * Gets every registered curve in registration order.
+     * @return An unmodifiable collection of curves.
+     */
+    public Collection<CurveStrategy> getStrategies() {
+        return Collections.unmodifiableCollection(this.strategies.values());
+    }
+}
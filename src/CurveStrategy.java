@@ -0,0 +1,56 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Curve Strategy Interface
+ * 06/11/2025
+ *
+ * The CurveStrategy interface defines one grade curve for the grade curving utility. Each
+ * strategy declares its name, its optional numeric parameter, and whether it needs a
+ * statistics pass, so the curving engine can skip that pass when it is not needed. Curves
+ * that work one score at a time implement ScoreCurve instead, so they can also be streamed
+ * and split across threads; every other curve, such as a rank-based one, only curves whole batches.
+ */
+
+/**
+ * Interface defining a grade curve that can be registered by name.
+ */
+public interface CurveStrategy {
+    /**
+     * Gets the name used to select this curve, such as "sqrt".
+     * @return the curve name
+     */
+    String getName();
+
+    /**
+     * Gets a one-line description of what the curve does.
+     * @return the description
+     */
+    String getDescription();
+
+    /**
+     * Checks if the curve uses the numeric curve value.
+     * @return true if a value must be supplied, false otherwise
+     */
+    boolean requiresValue();
+
+    /**
+     * Describes the curve value, or notes that none is needed.
+     * @return the value description
+     */
+    String getValueDescription();
+
+    /**
+     * Checks if the curve needs the mean and standard deviation of the scores.
+     * @return true if a statistics pass must run before curving, false otherwise
+     */
+    boolean needsStatistics();
+
+    /**
+     * Curves every score in a batch, clamping results to 0-100.
+     * @param batch the scores to curve
+     * @param curveValue the curve value, if the curve uses one
+     * @param stats the score statistics, or null if the curve does not need them
+     */
+    void apply(ScoreBatch batch, double curveValue, ScoreStatistics stats);
+}
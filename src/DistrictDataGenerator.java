@@ -0,0 +1,177 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - District Data Generator Class
+ * 06/11/2025
+ *
+ * The DistrictDataGenerator class writes synthetic CSV files shaped like a school district's
+ * exports, for benchmarking and load testing. Student files follow the import format, with
+ * "Last, First" names (quoted, as a student information system would export them), grade levels
+ * 9 to 12, about one AP student in five, and five to seven graded sections per student drawn from
+ * a catalog of departments. Score files follow the StudentID,Score format used by the curving
+ * utility. Grades are roughly normal around a B, so curves see a realistic spread.
+ */
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Random;
+
+public class DistrictDataGenerator {
+    private static final String[] FIRST_NAMES = {
+        "Aiden", "Amara", "Benjamin", "Chloe", "Daniel", "Elena", "Ethan", "Fatima", "Gabriel", "Grace",
+        "Hiroshi", "Isabella", "Jamal", "Jia", "Kevin", "Layla", "Lucas", "Maya", "Mateo", "Nia",
+        "Noah", "Olivia", "Priya", "Rafael", "Sofia", "Tariq", "Valentina", "William", "Yusuf", "Zoe"
+    };
+    private static final String[] LAST_NAMES = {
+        "Adams", "Brown", "Chen", "Davis", "Garcia", "Hernandez", "Ibrahim", "Johnson", "Kim", "Lee",
+        "Lopez", "Martinez", "Nguyen", "O'Brien", "Okafor", "Patel", "Rodriguez", "Singh", "Smith",
+        "Tanaka", "Thompson", "Walker", "Williams", "Wilson", "Young"
+    };
+    private static final String[] DEPARTMENTS = {"MATH", "ENG", "SCI", "HIST", "LANG", "ART", "PE", "CS"};
+    private static final int COURSES_PER_DEPARTMENT = 12;
+    private static final int MIN_CLASSES_PER_STUDENT = 5;
+    private static final int MAX_CLASSES_PER_STUDENT = 7;
+    private static final double MEAN_GRADE = 82.0;
+    private static final double GRADE_STD_DEV = 9.0;
+
+    private Random random;
+    private int sectionsPerCourse;
+
+    /**
+     * Creates a generator. The same seed always produces the same files.
+     * @param seed The random seed.
+     * @param studentCount The size of the district, used to scale the number of sections so
+     *                     classes stay around 30 students.
+     */
+    public DistrictDataGenerator(long seed, int studentCount) {
+        this.random = new Random(seed);
+        int sections = studentCount * MAX_CLASSES_PER_STUDENT / (30 * DEPARTMENTS.length * COURSES_PER_DEPARTMENT);
+        this.sectionsPerCourse = Math.max(1, sections);
+    }
+
+    /**
+     * Writes a student import file.
+     * @param filePath The path of the CSV file to write.
+     * @param studentCount The number of students (one row each).
+     * @return The number of grade entries written.
+     * @throws IOException if the file cannot be written
+     */
+    public long writeStudents(String filePath, int studentCount) throws IOException {
+        long grades = 0;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath), 1 << 16)) {
+            writer.write("StudentID,Name,GradeLevel,Type,Class,Grade");
+            writer.newLine();
+            StringBuilder row = new StringBuilder(160);
+            for (int s = 0; s < studentCount; s++) {
+                row.setLength(0);
+                row.append(studentId(s)).append(",\"")
+                        .append(LAST_NAMES[random.nextInt(LAST_NAMES.length)]).append(", ")
+                        .append(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]).append("\",")
+                        .append(9 + random.nextInt(4)).append(',')
+                        .append(random.nextInt(5) == 0 ? "AP" : "Regular");
+                int classes = MIN_CLASSES_PER_STUDENT
+                        + random.nextInt(MAX_CLASSES_PER_STUDENT - MIN_CLASSES_PER_STUDENT + 1);
+                for (int c = 0; c < classes; c++) {
+                    row.append(',').append(sectionCode()).append(',');
+                    appendGrade(row, nextGrade());
+                }
+                writer.append(row);
+                writer.newLine();
+                grades += classes;
+            }
+        }
+        return grades;
+    }
+
+    /**
+     * Writes a score file for the curving utility.
+     * @param filePath The path of the CSV file to write.
+     * @param scoreCount The number of scores.
+     * @throws IOException if the file cannot be written
+     */
+    public void writeScores(String filePath, int scoreCount) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath), 1 << 16)) {
+            writer.write("StudentID,Score");
+            writer.newLine();
+            StringBuilder row = new StringBuilder(24);
+            for (int i = 0; i < scoreCount; i++) {
+                row.setLength(0);
+                row.append(studentId(i)).append(',');
+                appendGrade(row, nextGrade());
+                writer.append(row);
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Fills a batch with scores in memory, matching what writeScores would produce.
+     * @param scoreCount The number of scores.
+     * @return A new ScoreBatch.
+     */
+    public ScoreBatch createScores(int scoreCount) {
+        ScoreBatch batch = new ScoreBatch(scoreCount);
+        for (int i = 0; i < scoreCount; i++) {
+            batch.add(studentId(i), Math.round(nextGrade() * 10) / 10.0);
+        }
+        return batch;
+    }
+
+    /**
+     * Gets the ID the generator gives the student at an index.
+     * @param index the student's index in the file, from 0
+     * @return The student ID, such as S0000042.
+     */
+    public static String studentId(int index) {
+        return String.format("S%07d", index);
+    }
+
+    // A course section such as MATH104-02
+    private String sectionCode() {
+        String department = DEPARTMENTS[random.nextInt(DEPARTMENTS.length)];
+        int course = 101 + random.nextInt(COURSES_PER_DEPARTMENT);
+        int section = 1 + random.nextInt(sectionsPerCourse);
+        return department + course + ((section < 10) ? "-0" : "-") + section;
+    }
+
+    // A grade from 0 to 100, roughly normal around a B
+    private double nextGrade() {
+        double grade = MEAN_GRADE + random.nextGaussian() * GRADE_STD_DEV;
+        return Math.max(0.0, Math.min(100.0, grade));
+    }
+
+    // Appends a grade with one decimal place
+    private static void appendGrade(StringBuilder row, double grade) {
+        long tenths = Math.round(grade * 10);
+        row.append(tenths / 10).append('.').append(tenths % 10);
+    }
+
+    /**
+     * Writes a file from the command line.
+     * Usage: java DistrictDataGenerator students|scores [count] [file] [seed]
+     * @param args the kind of file, the number of students or scores, the output path and the seed
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        String kind = (args.length > 0) ? args[0] : "students";
+        int count = (args.length > 1) ? Integer.parseInt(args[1]) : 100000;
+        String filePath = (args.length > 2) ? args[2] : "district_" + kind + "_" + count + ".csv";
+        long seed = (args.length > 3) ? Long.parseLong(args[3]) : 42L;
+
+        DistrictDataGenerator generator = new DistrictDataGenerator(seed, count);
+        long start = System.nanoTime();
+        if (kind.equalsIgnoreCase("scores")) {
+            generator.writeScores(filePath, count);
+            System.out.printf("Wrote %d scores to %s", count, filePath);
+        } else if (kind.equalsIgnoreCase("students")) {
+            long grades = generator.writeStudents(filePath, count);
+            System.out.printf("Wrote %d students with %d grades to %s", count, grades, filePath);
+        } else {
+            System.err.println("Unknown file kind: " + kind + " (expected students or scores)");
+            return;
+        }
+        System.out.printf(" in %.1f s%n", (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Grade Aggregate Class
+ * 06/11/2025
+ *
+ * The GradeAggregate class keeps running totals for the grades recorded in one class: how many
+ * there are, their sum, the lowest and highest, how many are passing, and a histogram in
+ * ten-point buckets. Totals are updated as grades are added, changed or removed, so a class
+ * average or pass rate never has to be computed by scanning every grade record.
+ */
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+public class GradeAggregate {
+    public static final int HISTOGRAM_BUCKETS = 10;
+
+    private int count;
+    private double sum;
+    private int passingCount;
+    private int[] histogram;
+
+    // The lowest and highest grades, kept in heaps so they survive removals
+    private GradeHeap lowest;
+    private GradeHeap highest;
+
+    public GradeAggregate() {
+        this.count = 0;
+        this.sum = 0.0;
+        this.passingCount = 0;
+        this.histogram = new int[HISTOGRAM_BUCKETS];
+        this.lowest = new GradeHeap(false);
+        this.highest = new GradeHeap(true);
+    }
+
+    /**
+     * Adds a grade record to the totals, unless it is already counted here. The record will
+     * update the totals itself if its grade is changed later.
+     * @param record the grade record to add
+     */
+    public synchronized void add(GradeRecord record) {
+        if (record.getAggregate() != this) {
+            record.setAggregate(this);
+            apply(record.getGrade(), 1);
+        }
+    }
+
+    /**
+     * Removes a grade record from the totals.
+     * @param record the grade record to remove
+     */
+    public synchronized void remove(GradeRecord record) {
+        if (record.getAggregate() == this) {
+            record.setAggregate(null);
+            apply(record.getGrade(), -1);
+        }
+    }
+
+    /**
+     * Called by a grade record counted here when its grade changes.
+     * @param oldGrade the grade before the change
+     * @param newGrade the grade after the change
+     */
+    synchronized void gradeChanged(double oldGrade, double newGrade) {
+        apply(oldGrade, -1);
+        apply(newGrade, 1);
+    }
+
+    /**
+     * Gets the number of grades recorded.
+     * @return The grade count.
+     */
+    public synchronized int getCount() {
+        return this.count;
+    }
+
+    /**
+     * Gets the average of all grades recorded.
+     * @return The average grade, or 0.0 if there are none.
+     */
+    public synchronized double getAverage() {
+        return (this.count == 0) ? 0.0 : this.sum / this.count;
+    }
+
+    /**
+     * Gets the lowest grade recorded.
+     * @return The lowest grade, or 0.0 if there are none.
+     */
+    public synchronized double getMin() {
+        return (this.count == 0) ? 0.0 : lowest.peek();
+    }
+
+    /**
+     * Gets the highest grade recorded.
+     * @return The highest grade, or 0.0 if there are none.
+     */
+    public synchronized double getMax() {
+        return (this.count == 0) ? 0.0 : highest.peek();
+    }
+
+    /**
+     * Gets the number of passing grades recorded.
+     * @return The passing count.
+     */
+    public synchronized int getPassingCount() {
+        return this.passingCount;
+    }
+
+    /**
+     * Gets the share of grades that are passing.
+     * @return The pass rate from 0.0 to 1.0, or 0.0 if there are no grades.
+     */
+    public synchronized double getPassRate() {
+        return (this.count == 0) ? 0.0 : (double) this.passingCount / this.count;
+    }
+
+    /**
+     * Gets the number of grades in each ten-point bucket. Bucket 0 holds grades below 10
+     * and the last bucket holds grades from 90 to 100 inclusive.
+     * @return A copy of the histogram.
+     */
+    public synchronized int[] getHistogram() {
+        return this.histogram.clone();
+    }
+
+    /**
+     * Finds the histogram bucket for a grade.
+     * @param grade a grade from 0 to 100
+     * @return The bucket index, from 0 to HISTOGRAM_BUCKETS - 1.
+     */
+    public static int bucketOf(double grade) {
+        return Math.max(0, Math.min(HISTOGRAM_BUCKETS - 1, (int) (grade / (100.0 / HISTOGRAM_BUCKETS))));
+    }
+
+    // Adds (delta 1) or removes (delta -1) one grade from every total
+    private void apply(double grade, int delta) {
+        this.count += delta;
+        this.sum += delta * grade;
+        if (GradeRecord.isPassingGrade(grade)) {
+            this.passingCount += delta;
+        }
+        this.histogram[bucketOf(grade)] += delta;
+        if (this.count == 0) {
+            this.sum = 0.0;
+            lowest.clear();
+            highest.clear();
+        } else if (delta > 0) {
+            lowest.add(grade);
+            highest.add(grade);
+        } else {
+            lowest.remove(grade);
+            highest.remove(grade);
+        }
+    }
+
+    // A binary heap of grades in a primitive array. Removed grades stay in the heap until they
+    // reach the top, or until they make up most of it and the heap is rebuilt without them.
+    private static class GradeHeap {
+        private boolean highestFirst;
+        private double[] values;
+        private int size;
+        private HashMap<Double, Integer> removed;
+        private int removedCount;
+
+        private GradeHeap(boolean highestFirst) {
+            this.highestFirst = highestFirst;
+            this.values = new double[16];
+            this.removed = new HashMap<>();
+        }
+
+        private void add(double grade) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size] = grade;
+            siftUp(size++);
+        }
+
+        private void remove(double grade) {
+            removed.merge(grade, 1, Integer::sum);
+            removedCount++;
+            if (removedCount > size / 2 + 16) {
+                compact();
+            }
+        }
+
+        private double peek() {
+            while (size > 0) {
+                Integer pending = removed.get(values[0]);
+                if (pending == null) {
+                    return values[0];
+                }
+                dropPending(values[0], pending);
+                values[0] = values[--size];
+                siftDown(0);
+            }
+            return 0.0;
+        }
+
+        private void clear() {
+            size = 0;
+            removed.clear();
+            removedCount = 0;
+        }
+
+        // Rebuilds the heap from the grades that have not been removed
+        private void compact() {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                Integer pending = removed.get(values[i]);
+                if (pending == null) {
+                    values[kept++] = values[i];
+                } else {
+                    dropPending(values[i], pending);
+                }
+            }
+            size = kept;
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+
+        private void dropPending(double grade, int pending) {
+            if (pending == 1) {
+                removed.remove(grade);
+            } else {
+                removed.put(grade, pending - 1);
+            }
+            removedCount--;
+        }
+
+        private boolean before(double a, double b) {
+            return highestFirst ? a > b : a < b;
+        }
+
+        private void siftUp(int i) {
+            double grade = values[i];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!before(grade, values[parent])) {
+                    break;
+                }
+                values[i] = values[parent];
+                i = parent;
+            }
+            values[i] = grade;
+        }
+
+        private void siftDown(int i) {
+            double grade = values[i];
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && before(values[child + 1], values[child])) {
+                    child++;
+                }
+                if (!before(values[child], grade)) {
+                    break;
+                }
+                values[i] = values[child];
+                i = child;
+            }
+            values[i] = grade;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Grade History Class
+ * 06/11/2025
+ *
+ * The GradeHistory class keeps the most recent past values of one grade record in a fixed-size
+ * ring buffer. Once the buffer is full, each new value overwrites the oldest one, so a grade
+ * that is re-posted every night still uses the same small amount of memory.
+ */
+
+public class GradeHistory {
+    public static final int MAX_CAPACITY = 64;
+
+    private double[] values;
+    private int next;
+    private int size;
+
+    /**
+     * Creates an empty history.
+     * @param capacity The number of past values to keep, from 1 to MAX_CAPACITY.
+     */
+    public GradeHistory(int capacity) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("History capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        this.values = new double[capacity];
+        this.next = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Adds a past value, dropping the oldest one if the history is full.
+     * @param value the grade being replaced
+     */
+    public void add(double value) {
+        values[next] = value;
+        next = (next + 1) % values.length;
+        if (size < values.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Gets a past value.
+     * @param index 0 for the oldest value kept, up to size() - 1 for the most recent
+     * @return The value.
+     */
+    public double get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("No past value at " + index);
+        }
+        return values[(next - size + index + values.length) % values.length];
+    }
+
+    /**
+     * Gets the number of past values kept.
+     * @return The size, at most the capacity.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets the number of past values the history can keep.
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return values.length;
+    }
+
+    /**
+     * Copies the past values out, oldest first.
+     * @return A new array of the values kept.
+     */
+    public double[] toArray() {
+        double[] copy = new double[size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = get(i);
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Grade Index Class
+ * 06/11/2025
+ *
+ * The GradeIndex class maps (student, class) grade keys to grade records with an open-addressing
+ * hash table of primitive long keys. Each entry costs one slot in two parallel arrays instead of
+ * a boxed key and a map entry object, which matters with millions of grade records. The index is
+ * not thread-safe.
+ */
+
+public class GradeIndex {
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Parallel arrays of keys and records; a null record marks an empty slot
+    private long[] keys;
+    private GradeRecord[] records;
+    private int size;
+
+    public GradeIndex() {
+        this.keys = new long[INITIAL_CAPACITY];
+        this.records = new GradeRecord[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * Finds the record stored under a key.
+     * @param key the grade key
+     * @return The record, or null if there is none.
+     */
+    public GradeRecord get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = slotOf(key, mask); records[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return records[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores a record under a key, replacing any record already stored there.
+     * @param key the grade key
+     * @param record the record, which must not be null
+     */
+    public void put(long key, GradeRecord record) {
+        if (record == null) {
+            throw new IllegalArgumentException("Record cannot be null");
+        }
+        // Grow at three-quarters full; the key mixing keeps probe runs short up to there
+        if ((size + 1) * 4L > keys.length * 3L) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int slot = slotOf(key, mask);
+        while (records[slot] != null) {
+            if (keys[slot] == key) {
+                records[slot] = record;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        records[slot] = record;
+        size++;
+    }
+
+    /**
+     * Removes the record stored under a key.
+     * @param key the grade key
+     * @return The record removed, or null if there was none.
+     */
+    public GradeRecord remove(long key) {
+        int mask = keys.length - 1;
+        int slot = slotOf(key, mask);
+        while (records[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        GradeRecord removed = records[slot];
+        if (removed == null) {
+            return null;
+        }
+
+        // Shift later entries of the probe run back so lookups never stop at the gap
+        int gap = slot;
+        for (int next = (gap + 1) & mask; records[next] != null; next = (next + 1) & mask) {
+            int home = slotOf(keys[next], mask);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                records[gap] = records[next];
+                gap = next;
+            }
+        }
+        records[gap] = null;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Gets the number of records stored.
+     * @return The size.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    // Rehashes every entry into tables of a new capacity
+    private void resize(int capacity) {
+        long[] oldKeys = this.keys;
+        GradeRecord[] oldRecords = this.records;
+        this.keys = new long[capacity];
+        this.records = new GradeRecord[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldRecords[i] != null) {
+                int slot = slotOf(oldKeys[i], mask);
+                while (records[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                records[slot] = oldRecords[i];
+            }
+        }
+    }
+
+    // Mixes all 64 bits of the key, since both surrogates are small and dense
+    private static int slotOf(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -7,18 +7,28 @@
  *
  * The GradeRecord class implements the Grade interface to store a student’s grade for a specific
  * class in the student management system. It manages grade assignment, retrieval, and passing
- * status, supporting accurate grade tracking.
+ * status, supporting accurate grade tracking. A record can also keep its most recent past
+ * grades, so a grade that is corrected or re-posted can be traced.
  */
 
 public class GradeRecord implements Grade {
+    public static final double PASSING_GRADE = 70.0;
+
     private String studentID;
     private String classCode;
     private double grade;
+    private RegularStudent owner;
+    private GradeAggregate aggregate;
+    private GradeHistory history;
+
+    // Where the record sits in its SystemManager's list of all records, or -1 if not listed
+    private int position;
 
     public GradeRecord(String studentID, String classCode, double grade) {
         this.studentID = studentID;
         this.classCode = classCode;
-        this.grade = (grade >= 0.0 && grade <= 100.0) ? grade : 0.0;
+        this.grade = validGrade(grade);
+        this.position = -1;
     }
 
     /**
@@ -27,7 +37,17 @@ public class GradeRecord implements Grade {
      */
     public void assignGrade(double grade) {
         if (grade >= 0.0 && grade <= 100.0) {
+            double oldGrade = this.grade;
             this.grade = grade;
+            if (this.history != null && oldGrade != grade) {
+                this.history.add(oldGrade);
+            }
+            if (this.owner != null && oldGrade != grade) {
+                this.owner.gradeChanged(this, oldGrade);
+            }
+            if (this.aggregate != null && oldGrade != grade) {
+                this.aggregate.gradeChanged(oldGrade, grade);
+            }
         }
     }
 
@@ -44,7 +64,25 @@ public class GradeRecord implements Grade {
      * @return true if passing, false otherwise
      */
     public boolean isPassing() {
-        return this.grade >= 70.0;
+        return isPassingGrade(this.grade);
+    }
+
+    /**
+     * Checks if a grade value is passing (70 or higher).
+     * @param grade the grade to check
+     * @return true if passing, false otherwise
+     */
+    public static boolean isPassingGrade(double grade) {
+        return grade >= PASSING_GRADE;
+    }
+
+    /**
+     * Gets the grade a new record stores for a value; grades outside 0 to 100 are stored as 0.
+     * @param grade the grade given
+     * @return The grade that would be stored.
+     */
+    public static double validGrade(double grade) {
+        return (grade >= 0.0 && grade <= 100.0) ? grade : 0.0;
     }
 
     /**
@@ -62,4 +100,70 @@ public class GradeRecord implements Grade {
     public String getClassCode() {
         return this.classCode;
     }
+
+    /**
+     * Gets the grades this record held before its current one, if history is being kept.
+     * @return The past grades, oldest first; empty if none were kept.
+     */
+    public double[] getHistory() {
+        return (this.history == null) ? new double[0] : this.history.toArray();
+    }
+
+    /**
+     * Starts keeping the record's past grades, if it is not already.
+     * @param capacity The number of past grades to keep.
+     */
+    void keepHistory(int capacity) {
+        if (this.history == null) {
+            this.history = new GradeHistory(capacity);
+        }
+    }
+
+    /**
+     * Gets the student whose running GPA totals include this record.
+     * @return The owning student, or null if none.
+     */
+    RegularStudent getOwner() {
+        return this.owner;
+    }
+
+    /**
+     * Sets the student whose running GPA totals include this record.
+     * @param owner The owning student, or null to detach.
+     */
+    void setOwner(RegularStudent owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Gets the class totals that include this record.
+     * @return The aggregate counting this record, or null if none.
+     */
+    GradeAggregate getAggregate() {
+        return this.aggregate;
+    }
+
+    /**
+     * Sets the class totals that include this record.
+     * @param aggregate The aggregate counting this record, or null to detach.
+     */
+    void setAggregate(GradeAggregate aggregate) {
+        this.aggregate = aggregate;
+    }
+
+    /**
+     * Gets where this record sits in its system's list of all grade records.
+     * @return The list position, or -1 if the record is not listed.
+     */
+    int getPosition() {
+        return this.position;
+    }
+
+    /**
+     * Sets where this record sits in its system's list of all grade records.
+     * @param position The list position, or -1 when the record is removed.
+     */
+    void setPosition(int position) {
+        this.position = position;
+    }
 }
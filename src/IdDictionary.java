@@ -0,0 +1,145 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - ID Dictionary Class
+ * 06/11/2025
+ *
+ * The IdDictionary class encodes strings such as student IDs and class codes as dense int
+ * surrogates, numbered from 0 in the order they are first seen. Each distinct string is kept
+ * once, so records that share an ID can share one String instead of holding their own copies.
+ * Lookups of strings already in the dictionary do not lock; adding a new string does.
+ */
+
+import java.util.Arrays;
+
+public class IdDictionary {
+    private static final int INITIAL_CAPACITY = 64;
+
+    // The strings by surrogate, and an open-addressing table of surrogate + 1 (0 means empty)
+    private volatile String[] values;
+    private volatile int[] table;
+    private volatile int size;
+
+    public IdDictionary() {
+        this.values = new String[INITIAL_CAPACITY];
+        this.table = new int[INITIAL_CAPACITY * 2];
+        this.size = 0;
+    }
+
+    /**
+     * Gets the surrogate for a string, adding the string if it is new.
+     * @param value the string to encode
+     * @return The string's surrogate, from 0 to size() - 1.
+     */
+    public int idOf(String value) {
+        int id = find(value);
+        return (id >= 0) ? id : add(value);
+    }
+
+    /**
+     * Gets the surrogate for a string without adding it.
+     * @param value the string to look up
+     * @return The string's surrogate, or -1 if it is not in the dictionary.
+     */
+    public int find(String value) {
+        int[] slots = this.table;
+        String[] strings = this.values;
+        int mask = slots.length - 1;
+        for (int slot = spread(value.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            // A slot filled by a concurrent add may point past the strings this thread can see
+            String candidate = (entry <= strings.length) ? strings[entry - 1] : null;
+            if (candidate != null && candidate.equals(value)) {
+                return entry - 1;
+            }
+            if (candidate == null) {
+                return findLocked(value);
+            }
+        }
+    }
+
+    /**
+     * Gets the dictionary's copy of a string, adding the string if it is new. Every equal
+     * string passed in comes back as the same instance.
+     * @param value the string to look up, or null
+     * @return The shared instance, or null if value is null.
+     */
+    public String canonical(String value) {
+        return (value == null) ? null : valueOf(idOf(value));
+    }
+
+    /**
+     * Gets the string for a surrogate.
+     * @param id a surrogate returned by idOf
+     * @return The string.
+     */
+    public String valueOf(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("No string with surrogate " + id);
+        }
+        String value = values[id];
+        return (value != null) ? value : valueOfLocked(id);
+    }
+
+    /**
+     * Gets the number of distinct strings. Strings are never removed, so this only grows.
+     * @return The dictionary size.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    private synchronized int findLocked(String value) {
+        return find(value);
+    }
+
+    private synchronized String valueOfLocked(int id) {
+        return values[id];
+    }
+
+    // Adds a string under the lock, rechecking in case another thread added it first
+    private synchronized int add(String value) {
+        int existing = find(value);
+        if (existing >= 0) {
+            return existing;
+        }
+        if (size == values.length) {
+            grow();
+        }
+        int id = size;
+        values[id] = value;
+        insert(table, id, value);
+        size = id + 1;
+        return id;
+    }
+
+    // Doubles the capacity; the new arrays are filled before they are published
+    private void grow() {
+        String[] moreValues = Arrays.copyOf(values, values.length * 2);
+        int[] moreSlots = new int[table.length * 2];
+        for (int id = 0; id < size; id++) {
+            insert(moreSlots, id, moreValues[id]);
+        }
+        this.values = moreValues;
+        this.table = moreSlots;
+    }
+
+    private static void insert(int[] slots, int id, String value) {
+        int mask = slots.length - 1;
+        int slot = spread(value.hashCode()) & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = id + 1;
+    }
+
+    // Mixes the high bits into the low ones so similar IDs do not cluster in the table
+    private static int spread(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Import Result Class
+ * 06/11/2025
+ *
+ * The ImportResult class summarizes a student CSV import in the student management system,
+ * recording how many rows were read and applied, the row-level errors that were skipped,
+ * and how long the import took so throughput can be reported. An incremental import also
+ * records how many rows were new, changed, or already up to date.
+ */
+
+import java.util.ArrayList;
+
+public class ImportResult {
+    // Only the first errors are kept in full so a badly broken file cannot exhaust memory
+    private static final int MAX_STORED_ERRORS = 1000;
+
+    private long rowsRead;
+    private long rowsApplied;
+    private long rowsInserted;
+    private long rowsUpdated;
+    private long rowsUnchanged;
+    private long studentsRemoved;
+    private long errorCount;
+    private ArrayList<String> errors;
+    private long elapsedNanos;
+
+    public ImportResult() {
+        this.rowsRead = 0;
+        this.rowsApplied = 0;
+        this.rowsInserted = 0;
+        this.rowsUpdated = 0;
+        this.rowsUnchanged = 0;
+        this.studentsRemoved = 0;
+        this.errorCount = 0;
+        this.errors = new ArrayList<>();
+        this.elapsedNanos = 0;
+    }
+
+    /**
+     * Records that a data row was read from the file.
+     */
+    public void rowRead() {
+        this.rowsRead++;
+    }
+
+    /**
+     * Records that a parsed row was applied to the system.
+     */
+    public void rowApplied() {
+        this.rowsApplied++;
+    }
+
+    /**
+     * Records that an incremental import added a new student from a row.
+     */
+    public void rowInserted() {
+        this.rowsInserted++;
+    }
+
+    /**
+     * Records that an incremental import changed an existing student to match a row.
+     */
+    public void rowUpdated() {
+        this.rowsUpdated++;
+    }
+
+    /**
+     * Records that an incremental import skipped a row that already matched the system.
+     */
+    public void rowUnchanged() {
+        this.rowsUnchanged++;
+    }
+
+    /**
+     * Sets how many students an incremental import removed because they were not in the file.
+     * @param studentsRemoved the number of students removed
+     */
+    public void setStudentsRemoved(long studentsRemoved) {
+        this.studentsRemoved = studentsRemoved;
+    }
+
+    /**
+     * Records a row that could not be imported.
+     * @param lineNumber the 1-based line number in the file
+     * @param message a description of the problem
+     */
+    public void addError(long lineNumber, String message) {
+        this.errorCount++;
+        if (this.errors.size() < MAX_STORED_ERRORS) {
+            this.errors.add("Line " + lineNumber + ": " + message);
+        }
+    }
+
+    /**
+     * Sets how long the import took.
+     * @param elapsedNanos the elapsed time in nanoseconds
+     */
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Gets the number of data rows read, excluding the header.
+     * @return The number of rows read.
+     */
+    public long getRowsRead() {
+        return this.rowsRead;
+    }
+
+    /**
+     * Gets the number of rows applied to the system.
+     * @return The number of rows applied.
+     */
+    public long getRowsApplied() {
+        return this.rowsApplied;
+    }
+
+    /**
+     * Gets the number of rows an incremental import added as new students.
+     * @return The number of rows inserted.
+     */
+    public long getRowsInserted() {
+        return this.rowsInserted;
+    }
+
+    /**
+     * Gets the number of rows an incremental import applied changes from.
+     * @return The number of rows updated.
+     */
+    public long getRowsUpdated() {
+        return this.rowsUpdated;
+    }
+
+    /**
+     * Gets the number of rows an incremental import skipped because nothing had changed.
+     * @return The number of rows unchanged.
+     */
+    public long getRowsUnchanged() {
+        return this.rowsUnchanged;
+    }
+
+    /**
+     * Gets the number of students an incremental import removed.
+     * @return The number of students removed.
+     */
+    public long getStudentsRemoved() {
+        return this.studentsRemoved;
+    }
+
+    /**
+     * Gets the total number of rows that failed to import.
+     * @return The number of errors.
+     */
+    public long getErrorCount() {
+        return this.errorCount;
+    }
+
+    /**
+     * Gets the stored error messages, capped at the first 1000.
+     * @return An ArrayList of error messages.
+     */
+    public ArrayList<String> getErrors() {
+        return this.errors;
+    }
+
+    /**
+     * Gets how long the import took.
+     * @return The elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    /**
+     * Calculates the import throughput.
+     * @return The number of rows read per second, or 0.0 if no time was recorded.
+     */
+    public double getRowsPerSecond() {
+        if (this.elapsedNanos <= 0) {
+            return 0.0;
+        }
+        return this.rowsRead / (this.elapsedNanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Latency Histogram Class
+ * 06/11/2025
+ *
+ * The LatencyHistogram class records durations in nanoseconds into log-linear buckets, in the
+ * style of an HDR histogram: every power of two is split into 32 equal buckets, so any recorded
+ * value is known to within about 3%, from tens of nanoseconds to hours. Recording is lock-free, so
+ * many threads can record into one histogram without blocking each other, and percentiles can
+ * be read at any time while recording continues.
+ */
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private AtomicLongArray counts;
+    private LongAdder sum;
+    private LongAccumulator max;
+
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKET_COUNT);
+        this.sum = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0L);
+    }
+
+    /**
+     * Records one duration. Negative durations are recorded as zero.
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(long nanos) {
+        long value = Math.max(0L, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Gets the number of durations recorded.
+     * @return The count.
+     */
+    public long getCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Gets the mean of the durations recorded.
+     * @return The mean in nanoseconds, or 0.0 if nothing was recorded.
+     */
+    public double getMean() {
+        long recorded = getCount();
+        return (recorded == 0) ? 0.0 : (double) sum.sum() / recorded;
+    }
+
+    /**
+     * Gets the longest duration recorded.
+     * @return The maximum in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets a percentile of the durations recorded. The result is the upper end of the bucket
+     * the percentile falls in, so it may be up to about 3% above the true value.
+     * @param percentile the percentile, from 0 to 100
+     * @return The duration in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long getPercentile(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Clears every recorded duration. Durations recorded while the reset is running may be
+     * kept or dropped.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        sum.reset();
+        max.reset();
+    }
+
+    /**
+     * Finds the bucket for a value. Values below 32 have a bucket each; above that, each
+     * power of two is split into 32 buckets by the five bits after the leading one.
+     * @param value a value of zero or more
+     * @return The bucket index.
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Gets the largest value that falls in a bucket.
+     * @param bucket a bucket index
+     * @return The bucket's upper bound, inclusive.
+     */
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        long subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        long next = (SUB_BUCKETS + subBucket + 1) << shift;
+        return (next < 0) ? Long.MAX_VALUE : next - 1;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Leaderboard Class
+ * 06/11/2025
+ *
+ * The Leaderboard class ranks students by GPA, keeping only the best few in a sorted set that
+ * is updated whenever a student's GPA changes. It also remembers the best GPA it has pushed off
+ * the board, so it can tell when a student has dropped below someone it no longer tracks; only
+ * then is the board rebuilt from the full list of candidates. Most top-N queries therefore cost
+ * O(N) instead of a scan and sort of every student.
+ */
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+public class Leaderboard {
+    public static final int DEFAULT_CAPACITY = 10;
+
+    private int capacity;
+    private Supplier<? extends Collection<RegularStudent>> candidates;
+    private TreeSet<Entry> ranked;
+    private HashMap<String, Entry> entries;
+
+    // No student off the board has a GPA above this; negative infinity if none are off it
+    private double ceiling;
+    private boolean stale;
+
+    /**
+     * Creates an empty leaderboard. It is built from the candidates on the first query.
+     * @param capacity The number of students tracked.
+     * @param candidates Supplies every student that may appear on the board.
+     */
+    public Leaderboard(int capacity, Supplier<? extends Collection<RegularStudent>> candidates) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A leaderboard must track at least one student");
+        }
+        this.capacity = capacity;
+        this.candidates = candidates;
+        this.ranked = new TreeSet<>();
+        this.entries = new HashMap<>();
+        this.ceiling = Double.NEGATIVE_INFINITY;
+        this.stale = true;
+    }
+
+    /**
+     * Records a student's current GPA, adding them to the board if it is high enough.
+     * @param student the student whose GPA was set or changed
+     */
+    public synchronized void update(RegularStudent student) {
+        if (stale) {
+            return;
+        }
+        Entry old = entries.remove(student.getId());
+        if (old != null) {
+            ranked.remove(old);
+        }
+        Entry entry = new Entry(student, student.getGPA());
+        ranked.add(entry);
+        entries.put(student.getId(), entry);
+        if (ranked.size() > capacity) {
+            Entry dropped = ranked.pollLast();
+            entries.remove(dropped.student.getId());
+            ceiling = Math.max(ceiling, dropped.gpa);
+        }
+    }
+
+    /**
+     * Takes a student off the board, such as when they leave the system or the class.
+     * @param studentId the ID of the student to remove
+     */
+    public synchronized void remove(String studentId) {
+        Entry old = entries.remove(studentId);
+        if (old != null) {
+            ranked.remove(old);
+        }
+    }
+
+    /**
+     * Marks the board out of date, so it is rebuilt from the candidates on the next query.
+     * Used after students' GPAs or memberships change without going through update.
+     */
+    public synchronized void invalidate() {
+        this.stale = true;
+        this.ranked.clear();
+        this.entries.clear();
+    }
+
+    /**
+     * Gets the students with the highest GPAs, best first; ties are broken by student ID.
+     * Asking for more students than the board tracks falls back to sorting every candidate.
+     * @param count the number of students wanted
+     * @return Up to count students in ranked order.
+     */
+    public synchronized ArrayList<RegularStudent> top(int count) {
+        if (count > capacity) {
+            return rankAll(count);
+        }
+        if (stale || !isExact(count)) {
+            rebuild();
+        }
+        ArrayList<RegularStudent> top = new ArrayList<>(Math.min(count, ranked.size()));
+        for (Entry entry : ranked) {
+            if (top.size() == count) {
+                break;
+            }
+            top.add(entry.student);
+        }
+        return top;
+    }
+
+    /**
+     * Gets the number of students tracked.
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    // The first count entries are exact if each beats every student off the board
+    private boolean isExact(int count) {
+        int checked = 0;
+        for (Entry entry : ranked) {
+            if (checked == count) {
+                return true;
+            }
+            if (entry.gpa <= ceiling) {
+                return false;
+            }
+            checked++;
+        }
+        return ceiling == Double.NEGATIVE_INFINITY;
+    }
+
+    // Refills the board from every candidate
+    private void rebuild() {
+        ranked.clear();
+        entries.clear();
+        ceiling = Double.NEGATIVE_INFINITY;
+        stale = false;
+        for (RegularStudent student : candidates.get()) {
+            update(student);
+        }
+    }
+
+    // Ranks every candidate, for queries longer than the board
+    private ArrayList<RegularStudent> rankAll(int count) {
+        TreeSet<Entry> all = new TreeSet<>();
+        for (RegularStudent student : candidates.get()) {
+            all.add(new Entry(student, student.getGPA()));
+        }
+        ArrayList<RegularStudent> top = new ArrayList<>(Math.min(count, all.size()));
+        for (Entry entry : all) {
+            if (top.size() == count) {
+                break;
+            }
+            top.add(entry.student);
+        }
+        return top;
+    }
+
+    // A student and the GPA they were ranked with, ordered best first
+    private static class Entry implements Comparable<Entry> {
+        private final RegularStudent student;
+        private final double gpa;
+
+        private Entry(RegularStudent student, double gpa) {
+            this.student = student;
+            this.gpa = gpa;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byGpa = Double.compare(other.gpa, this.gpa);
+            return (byGpa != 0) ? byGpa : this.student.getId().compareTo(other.student.getId());
+        }
+    }
+}
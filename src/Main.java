@@ -10,6 +10,11 @@
  * tool to curve grades for a single assignment from a CSV file.
  */
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.InputMismatchException;
 import java.util.Optional;
@@ -18,31 +23,58 @@ import java.util.Scanner;
 public class Main {
     private static SystemManager manager = new SystemManager();
     private static Scanner scanner = new Scanner(System.in);
+    private static ApiServer apiServer;
 
     // The main menu for the application
     public static void main(String[] args) {
         System.out.println("Welcome to the Student Management System!");
+        if (args.length > 0) {
+            long syncWindow = (args.length > 1) ? Long.parseLong(args[1]) : MutationJournal.DEFAULT_SYNC_WINDOW_MILLIS;
+            recoverSystem(args[0], syncWindow);
+        }
+        Metrics.registerMBean(() -> manager);
 
         while (true) {
             printMainMenu();
             int choice = getUserChoice();
 
-            if (choice == 1) {
-                handleStudentManagement();
-            } else if (choice == 2) {
-                importStudentsCSV();
-            } else if (choice == 3) {
-                exportStudentsCSV();
-            } else if (choice == 4) {
-                handleAssignmentCurving();
-            } else if (choice == 5) {
-                System.out.println(manager.generateReport());
-            } else if (choice == 6) {
-                System.out.println("Exiting system. Goodbye!");
-                scanner.close();
-                return;
-            } else {
-                System.out.println("Invalid choice. Please enter a number between 1 and 6.");
+            try {
+                if (choice == 1) {
+                    handleStudentManagement();
+                } else if (choice == 2) {
+                    importStudentsCSV();
+                } else if (choice == 3) {
+                    exportStudentsCSV();
+                } else if (choice == 4) {
+                    handleAssignmentCurving();
+                } else if (choice == 5) {
+                    handleBatchCurving();
+                } else if (choice == 6) {
+                    printReport();
+                } else if (choice == 7) {
+                    saveSnapshot();
+                } else if (choice == 8) {
+                    System.out.print("Enter the path of the snapshot file to load: ");
+                    loadSnapshot(scanner.nextLine());
+                } else if (choice == 9) {
+                    startApiServer();
+                } else if (choice == 10) {
+                    System.out.print(Metrics.dump(manager));
+                } else if (choice == 11) {
+                    if (apiServer != null) {
+                        apiServer.stop();
+                    }
+                    closeJournal();
+                    System.out.println("Exiting system. Goodbye!");
+                    scanner.close();
+                    return;
+                } else {
+                    System.out.println("Invalid choice. Please enter a number between 1 and 11.");
+                }
+            } catch (UncheckedIOException e) {
+                // The journal refused the change, so it was not made
+                System.out.println("Change not saved: " + e.getMessage() + " (" + e.getCause().getMessage() + ")");
+                System.out.println("Save a snapshot (option 7) to start a fresh journal.");
             }
 
             System.out.println("\nPress Enter to continue...");
@@ -57,8 +89,13 @@ public class Main {
         System.out.println("2. Import Students & Grades from CSV");
         System.out.println("3. Export Student Roster to CSV");
         System.out.println("4. Curve Assignment Grades (Standalone Tool)");
-        System.out.println("5. Generate Full System Report");
-        System.out.println("6. Exit");
+        System.out.println("5. Batch Curve Assignments from a Manifest");
+        System.out.println("6. Generate Full System Report");
+        System.out.println("7. Save System Snapshot");
+        System.out.println("8. Load System Snapshot");
+        System.out.println("9. Start HTTP API Server");
+        System.out.println("10. Show Performance Metrics");
+        System.out.println("11. Exit");
         System.out.print("Enter your choice: ");
     }
 
@@ -100,7 +137,7 @@ public class Main {
 
         System.out.println("\n--- Student Roster ---");
         for (RegularStudent s : students) {
-            System.out.println("ID: " + s.getId() + ", Name: " + s.getName());
+            System.out.println(s.getDetails());
         }
 
         System.out.print("\nEnter the ID of the student to view their grades: ");
@@ -128,6 +165,7 @@ public class Main {
             }
         }
         System.out.println("--------------------------------------------------");
+        System.out.print(student.getSchedule());
     }
 
     // Handles the logic for adding a new student to the system via console input
@@ -189,7 +227,14 @@ public class Main {
     private static void importStudentsCSV() {
         System.out.print("Enter the path to the CSV file to import student data from: ");
         String path = scanner.nextLine();
-        manager.importStudentsFromCSV(path);
+        System.out.print("Apply only the changes since the last import? (y/n): ");
+        if (scanner.nextLine().trim().equalsIgnoreCase("y")) {
+            System.out.print("Remove students who are no longer in the file? (y/n): ");
+            boolean removeMissing = scanner.nextLine().trim().equalsIgnoreCase("y");
+            manager.importStudentChangesFromCSV(path, removeMissing);
+        } else {
+            manager.importStudentsFromCSV(path);
+        }
     }
 
     // Handles the logic for exporting students to a CSV file
@@ -199,6 +244,111 @@ public class Main {
         manager.exportStudentsToCSV(path);
     }
 
+    // Streams the full system report to the console without building it in memory first
+    private static void printReport() {
+        try {
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out));
+            manager.writeReport(out, new ReportFilter());
+            out.write(System.lineSeparator());
+            out.flush();
+        } catch (IOException e) {
+            System.out.println("Error writing report: " + e.getMessage());
+        }
+    }
+
+    // Handles the logic for saving the full system state to a snapshot file
+    private static void saveSnapshot() {
+        MutationJournal journal = manager.getJournal();
+        if (journal != null) {
+            // With a journal open, saving folds the journal into its snapshot
+            try {
+                journal.compact(manager);
+                System.out.println("System snapshot saved and journal compacted.");
+            } catch (IOException e) {
+                System.out.println("Error compacting journal: " + e.getMessage());
+            }
+            return;
+        }
+
+        System.out.print("Enter the file path to save the snapshot to (e.g., system.snapshot): ");
+        String path = scanner.nextLine();
+        try {
+            SystemSnapshot.save(manager, path);
+            System.out.println("System snapshot saved to " + path);
+        } catch (IOException e) {
+            System.out.println("Error writing snapshot: " + e.getMessage());
+        }
+    }
+
+    // Loads a snapshot and replays its journal, recording all further changes in the journal
+    private static void recoverSystem(String snapshotPath, long syncWindowMillis) {
+        try {
+            long start = System.nanoTime();
+            manager = MutationJournal.recover(snapshotPath, snapshotPath + ".journal", syncWindowMillis);
+            System.out.printf("Recovered %d students from %s (%d journal records) in %.0f ms%n",
+                    manager.getStudents().size(), snapshotPath, manager.getJournal().getRecordCount(),
+                    (System.nanoTime() - start) / 1e6);
+        } catch (IOException e) {
+            System.out.println("Error recovering system: " + e.getMessage());
+        }
+    }
+
+    // Closes the journal, if one is open, so its last records are synced to disk
+    private static void closeJournal() {
+        MutationJournal journal = manager.getJournal();
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.out.println("Error closing journal: " + e.getMessage());
+            }
+        }
+    }
+
+    // Replaces the current system state with the contents of a snapshot file
+    private static void loadSnapshot(String path) {
+        try {
+            long start = System.nanoTime();
+            SystemManager loaded = SystemSnapshot.load(path);
+            MutationJournal journal = manager.getJournal();
+            manager = loaded;
+            if (journal != null) {
+                // The loaded state becomes the journal's new starting point
+                manager.setJournal(journal);
+                journal.compact(manager);
+            }
+            if (apiServer != null) {
+                ConcurrentSystemManager shared = new ConcurrentSystemManager(manager);
+                apiServer.setManager(shared);
+                manager = shared;
+            }
+            System.out.printf("Loaded %d students from %s in %.0f ms%n",
+                    manager.getStudents().size(), path, (System.nanoTime() - start) / 1e6);
+        } catch (IOException e) {
+            System.out.println("Error reading snapshot: " + e.getMessage());
+        }
+    }
+
+    // Starts the HTTP API in the background, sharing the system with this menu
+    private static void startApiServer() {
+        if (apiServer != null) {
+            System.out.println("The API server is already running at http://127.0.0.1:" + apiServer.getPort());
+            return;
+        }
+        if (!(manager instanceof ConcurrentSystemManager)) {
+            manager = new ConcurrentSystemManager(manager);
+        }
+        try {
+            apiServer = new ApiServer((ConcurrentSystemManager) manager, new AutoCurver(), ApiServer.DEFAULT_PORT);
+            apiServer.start();
+            System.out.println("API server running at http://127.0.0.1:" + apiServer.getPort()
+                    + (ApiServer.usesVirtualThreads() ? " (virtual threads)" : ""));
+        } catch (IOException e) {
+            apiServer = null;
+            System.out.println("Could not start the API server: " + e.getMessage());
+        }
+    }
+
     // Handles logic for the assignment curving tool
     private static void handleAssignmentCurving() {
         AutoCurver curver = new AutoCurver();
@@ -210,13 +360,14 @@ public class Main {
         System.out.print("Enter the path for the new output file (e.g., curved_scores.csv): ");
         String outputFile = scanner.nextLine();
 
-        printCurveDescriptions();
+        printCurveDescriptions(curver.getRegistry());
 
         System.out.print("Enter the curve type from the list above: ");
         String curveType = scanner.nextLine().trim().toLowerCase();
 
         double curveValue = 0.0;
-        if (curveType.equals("flat") || curveType.equals("stddev") || curveType.equals("power")) {
+        Optional<CurveStrategy> strategy = curver.getRegistry().find(curveType);
+        if (strategy.isPresent() && strategy.get().requiresValue()) {
             System.out.print("Enter the required numeric value for this curve: ");
             try {
                 curveValue = scanner.nextDouble();
@@ -228,42 +379,55 @@ public class Main {
         }
 
         System.out.println("\nReading scores...");
-        ArrayList<AssignmentScore> scores = curver.readScores(inputFile);
+        ScoreBatch scores = curver.readScoreBatch(inputFile);
 
-        if (!scores.isEmpty()) {
+        if (scores.size() > 0) {
             System.out.println("Applying " + curveType + " curve...");
             curver.applyCurve(scores, curveType, curveValue);
 
             System.out.println("Saving curved scores...");
-            curver.saveCurvedScores(scores, outputFile);
-
-            System.out.println("\nProcess complete! Curved scores have been saved to: " + outputFile);
+            if (curver.saveCurvedScores(scores, outputFile)) {
+                System.out.println("\nProcess complete! Curved scores have been saved to: " + outputFile);
+            } else {
+                System.out.println("\nCould not save the curved scores. Please check the output path and try again.");
+            }
         } else {
             System.out.println("\nCould not process scores. Please check the input file and try again.");
         }
     }
 
+    // Handles logic for curving many assignment files listed in a manifest
+    private static void handleBatchCurving() {
+        System.out.println("\n--- Batch Assignment Grade Curver ---");
+        System.out.print("Enter the path to the manifest CSV (Format: InputFile,CurveType,CurveValue,OutputFile): ");
+        String manifestFile = scanner.nextLine();
+
+        ArrayList<CurveJob> jobs;
+        try {
+            jobs = BatchCurver.readManifest(manifestFile);
+        } catch (IOException e) {
+            System.out.println("Could not read the manifest: " + e.getMessage());
+            return;
+        }
+        if (jobs.isEmpty()) {
+            System.out.println("The manifest does not list any jobs.");
+            return;
+        }
+
+        System.out.println("Running " + jobs.size() + " curve jobs...");
+        BatchCurver batchCurver = new BatchCurver(new AutoCurver());
+        long totalNanos = batchCurver.runJobs(jobs);
+        batchCurver.shutdown();
+        BatchCurver.printSummary(jobs, totalNanos);
+    }
+
     // Prints a detailed description of all available curve types
-    private static void printCurveDescriptions() {
+    private static void printCurveDescriptions(CurveRegistry registry) {
         System.out.println("\n--- Available Curve Types ---");
-        System.out.println("  flat    : Adds a fixed number of points to every score.");
-        System.out.println("            -> Value: The number of points to add (e.g., 5).");
-        System.out.println("  sqrt    : Takes the square root of the score and multiplies by 10.");
-        System.out.println("            -> No value needed.");
-        System.out.println("  log     : Applies a logarithmic curve to compress higher scores.");
-        System.out.println("            -> No value needed.");
-        System.out.println("  exp     : Applies an exponential curve to boost lower scores more significantly.");
-        System.out.println("            -> No value needed.");
-        System.out.println("  power   : Raises the normalized score (0-1) to a given power.");
-        System.out.println("            -> Value: The exponent to use (e.g., 0.5 to boost scores).");
-        System.out.println("  sigmoid : A smooth 'S'-shaped curve that boosts scores around the midpoint (50).");
-        System.out.println("            -> No value needed.");
-        System.out.println("  z-score : Standardizes scores and rescales them to a target mean and standard deviation.");
-        System.out.println("            -> No value needed (uses default mean 75, stddev 10).");
-        System.out.println("  stddev  : Shifts all scores to achieve a new target mean score.");
-        System.out.println("            -> Value: The desired average score for the class (e.g., 85).");
-        System.out.println("  ratio   : Assigns letter grades based on a fixed percentage distribution (e.g., top 10% get an A).");
-        System.out.println("            -> No value needed.");
+        for (CurveStrategy strategy : registry.getStrategies()) {
+            System.out.printf("  %-8s: %s%n", strategy.getName(), strategy.getDescription());
+            System.out.println("            -> " + strategy.getValueDescription());
+        }
         System.out.println("-----------------------------\n");
     }
 
@@ -0,0 +1,166 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Mapped Score Reader Class
+ * 06/11/2025
+ *
+ * The MappedScoreReader class reads StudentID,Score files for the grade curving utility
+ * through memory-mapped segments of the file. Rows are parsed in place and handed to a
+ * ScoreSink, so files larger than the heap can be read without an object per row.
+ */
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+public class MappedScoreReader {
+    private static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+    private long segmentSize;
+    private CsvTokenizer tokenizer;
+    private LineView line;
+
+    public MappedScoreReader() {
+        this(DEFAULT_SEGMENT_SIZE);
+    }
+
+    public MappedScoreReader(long segmentSize) {
+        if (segmentSize < 1 || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid segment size");
+        }
+        this.segmentSize = segmentSize;
+        this.tokenizer = new CsvTokenizer();
+        this.line = new LineView();
+    }
+
+    /**
+     * Reads every score row after the header line and passes it to the sink. Rows
+     * that do not have exactly two fields are skipped, as in AutoCurver.readScores.
+     * @param inputFilePath The path to the input CSV file.
+     * @param sink The consumer of the scores.
+     * @return The number of scores passed to the sink.
+     * @throws IOException if the file cannot be read or a line is longer than a segment
+     * @throws NumberFormatException if a score is not a valid number
+     */
+    public long read(String inputFilePath, ScoreSink sink) throws IOException {
+        long rows = 0;
+        try (FileChannel channel = FileChannel.open(Paths.get(inputFilePath), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long segmentStart = 0;
+            boolean headerSkipped = false;
+
+            while (segmentStart < fileSize) {
+                long length = Math.min(this.segmentSize, fileSize - segmentStart);
+                boolean lastSegment = (segmentStart + length == fileSize);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, segmentStart, length);
+
+                int lineStart = 0;
+                int limit = (int) length;
+                for (int i = 0; i < limit; i++) {
+                    if (buffer.get(i) == '\n') {
+                        if (headerSkipped) {
+                            rows += parseLine(buffer, lineStart, i, sink);
+                        }
+                        headerSkipped = true;
+                        lineStart = i + 1;
+                    }
+                }
+
+                if (lastSegment) {
+                    if (lineStart < limit && headerSkipped) {
+                        rows += parseLine(buffer, lineStart, limit, sink);
+                    }
+                    break;
+                }
+                if (lineStart == 0) {
+                    throw new IOException("Line longer than " + this.segmentSize + " bytes at offset " + segmentStart);
+                }
+                // Remap from the start of the partial line so no row straddles two segments
+                segmentStart += lineStart;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Tokenizes one line of the mapped file and passes its score to the sink.
+     * @param buffer the mapped segment
+     * @param start the first byte of the line
+     * @param end the byte after the line, excluding the newline
+     * @param sink the consumer of the score
+     * @return 1 if a score was passed to the sink, otherwise 0
+     * @throws IOException if the line cannot be tokenized
+     */
+    private int parseLine(MappedByteBuffer buffer, int start, int end, ScoreSink sink) throws IOException {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+
+        this.line.set(buffer, start, end);
+        if (this.line.isAscii()) {
+            this.tokenizer.reset(this.line);
+        } else {
+            // Rare non-ASCII IDs are decoded properly instead of read byte by byte
+            byte[] bytes = new byte[end - start];
+            buffer.get(start, bytes);
+            this.tokenizer.reset(new String(bytes, StandardCharsets.UTF_8));
+        }
+        this.tokenizer.nextRecord();
+
+        if (this.tokenizer.getTrimmedFieldCount() != 2) {
+            return 0;
+        }
+        sink.accept(this.tokenizer.getField(0), this.tokenizer.getDouble(1));
+        return 1;
+    }
+
+    // A reusable CharSequence over one ASCII line of a mapped segment
+    private static class LineView implements CharSequence {
+        private MappedByteBuffer buffer;
+        private int start;
+        private int end;
+
+        private void set(MappedByteBuffer buffer, int start, int end) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+        }
+
+        private boolean isAscii() {
+            for (int i = this.start; i < this.end; i++) {
+                if (this.buffer.get(i) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int length() {
+            return this.end - this.start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) this.buffer.get(this.start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            StringBuilder builder = new StringBuilder(to - from);
+            for (int i = from; i < to; i++) {
+                builder.append(charAt(i));
+            }
+            return builder.toString();
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, length()).toString();
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Metrics Class
+ * 06/11/2025
+ *
+ * The Metrics class is the process-wide registry of the system's performance metrics: an
+ * OperationTimer for each SystemManager and AutoCurver operation, counters for events such as
+ * rows imported and parse errors by type, and gauges for values such as the last import's rows
+ * per second. Everything is recorded with lock-free adders, so metrics can stay on in production.
+ * The metrics can be printed as plain text or read over JMX. Setting the system property
+ * metrics.enabled to false turns recording off.
+ */
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public final class Metrics {
+    public static final String MBEAN_NAME = "StudentManagementSystem:type=Metrics";
+
+    private static volatile boolean enabled = !"false".equalsIgnoreCase(System.getProperty("metrics.enabled"));
+    private static final ConcurrentSkipListMap<String, OperationTimer> TIMERS = new ConcurrentSkipListMap<>();
+    private static final ConcurrentSkipListMap<String, LongAdder> COUNTERS = new ConcurrentSkipListMap<>();
+    private static final ConcurrentSkipListMap<String, Double> GAUGES = new ConcurrentSkipListMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * Checks whether operations are being counted and timed.
+     * @return true if metrics are enabled.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns counting and timing on or off for the whole process.
+     * @param on whether metrics should be recorded
+     */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * Gets the timer for an operation, creating it if needed. Every call is timed.
+     * @param name the operation's name, such as SystemManager.assignGrade
+     * @return The shared timer.
+     */
+    public static OperationTimer timer(String name) {
+        return timer(name, 1);
+    }
+
+    /**
+     * Gets the timer for an operation, creating it if needed.
+     * @param name the operation's name
+     * @param sampleEvery time one call in this many, for operations too fast to time every call
+     * @return The shared timer.
+     */
+    public static OperationTimer timer(String name, int sampleEvery) {
+        return TIMERS.computeIfAbsent(name, key -> new OperationTimer(key, sampleEvery));
+    }
+
+    /**
+     * Gets a counter, creating it if needed.
+     * @param name the counter's name, such as import.rowsRead
+     * @return The shared counter.
+     */
+    public static LongAdder counter(String name) {
+        return COUNTERS.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Adds to a counter if metrics are enabled.
+     * @param name the counter's name
+     * @param amount the amount to add
+     */
+    public static void count(String name, long amount) {
+        if (enabled) {
+            counter(name).add(amount);
+        }
+    }
+
+    /**
+     * Sets a gauge to its latest value if metrics are enabled.
+     * @param name the gauge's name, such as import.lastRowsPerSecond
+     * @param value the value
+     */
+    public static void setGauge(String name, double value) {
+        if (enabled) {
+            GAUGES.put(name, value);
+        }
+    }
+
+    /**
+     * Gets every timer, in name order.
+     * @return A snapshot of the timers.
+     */
+    public static Map<String, OperationTimer> getTimers() {
+        return new LinkedHashMap<>(TIMERS);
+    }
+
+    /**
+     * Gets every counter's value, in name order.
+     * @return A snapshot of the counters.
+     */
+    public static Map<String, Long> getCounters() {
+        LinkedHashMap<String, Long> values = new LinkedHashMap<>();
+        COUNTERS.forEach((name, counter) -> values.put(name, counter.sum()));
+        return values;
+    }
+
+    /**
+     * Gets every gauge's latest value, in name order.
+     * @return A snapshot of the gauges.
+     */
+    public static Map<String, Double> getGauges() {
+        return new LinkedHashMap<>(GAUGES);
+    }
+
+    /**
+     * Clears every timer, counter and gauge. Timers and counters stay registered.
+     */
+    public static void reset() {
+        TIMERS.values().forEach(OperationTimer::reset);
+        COUNTERS.values().forEach(LongAdder::reset);
+        GAUGES.clear();
+    }
+
+    /**
+     * Formats every metric as a plain-text report.
+     * @param manager a system whose index sizes should be included, or null
+     * @return The report.
+     */
+    public static String dump(SystemManager manager) {
+        StringBuilder out = new StringBuilder();
+        out.append("Metrics (").append(enabled ? "enabled" : "disabled").append(")\n");
+        out.append(String.format("%-40s %12s %10s %10s %10s %10s %10s%n",
+                "Operation", "Calls", "Mean us", "p50 us", "p99 us", "Max us", "Sampled"));
+        for (OperationTimer timer : TIMERS.values()) {
+            if (timer.getCalls() == 0) {
+                continue;
+            }
+            LatencyHistogram latencies = timer.getLatencies();
+            out.append(String.format(Locale.ROOT, "%-40s %12d %10.2f %10.2f %10.2f %10.2f %10s%n",
+                    timer.getName(), timer.getCalls(), latencies.getMean() / 1e3,
+                    latencies.getPercentile(50) / 1e3, latencies.getPercentile(99) / 1e3,
+                    latencies.getMax() / 1e3, "1/" + timer.getSampleEvery()));
+        }
+        if (!COUNTERS.isEmpty()) {
+            out.append("Counters\n");
+            getCounters().forEach((name, value) -> out.append(String.format("  %-38s %12d%n", name, value)));
+        }
+        if (!GAUGES.isEmpty()) {
+            out.append("Gauges\n");
+            GAUGES.forEach((name, value) -> out.append(String.format(Locale.ROOT, "  %-38s %12.1f%n", name, value)));
+        }
+        if (manager != null) {
+            out.append("Index sizes\n");
+            manager.getIndexSizes().forEach((name, size) -> out.append(String.format("  %-38s %12d%n", name, size)));
+        }
+        return out.toString();
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server, replacing any earlier registration.
+     * @param managers supplies the system whose index sizes are reported, which may change
+     *                 over time such as when a snapshot is loaded
+     * @return true if the MBean was registered, false if JMX is unavailable.
+     */
+    public static boolean registerMBean(Supplier<SystemManager> managers) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(MBEAN_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(new MXBean(managers), name);
+            return true;
+        } catch (JMException | SecurityException e) {
+            System.err.println("Could not register metrics with JMX: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // The JMX view of the registry
+    private static class MXBean implements MetricsMXBean {
+        private Supplier<SystemManager> managers;
+
+        private MXBean(Supplier<SystemManager> managers) {
+            this.managers = managers;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return Metrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean on) {
+            Metrics.setEnabled(on);
+        }
+
+        @Override
+        public Map<String, Long> getCallCounts() {
+            LinkedHashMap<String, Long> calls = new LinkedHashMap<>();
+            TIMERS.forEach((name, timer) -> calls.put(name, timer.getCalls()));
+            return calls;
+        }
+
+        @Override
+        public Map<String, Double> getMeanMicros() {
+            LinkedHashMap<String, Double> means = new LinkedHashMap<>();
+            TIMERS.forEach((name, timer) -> means.put(name, timer.getLatencies().getMean() / 1e3));
+            return means;
+        }
+
+        @Override
+        public Map<String, Double> getP50Micros() {
+            return percentileMicros(50);
+        }
+
+        @Override
+        public Map<String, Double> getP99Micros() {
+            return percentileMicros(99);
+        }
+
+        @Override
+        public Map<String, Long> getCounters() {
+            return Metrics.getCounters();
+        }
+
+        @Override
+        public Map<String, Double> getGauges() {
+            return Metrics.getGauges();
+        }
+
+        @Override
+        public Map<String, Integer> getIndexSizes() {
+            SystemManager manager = managers.get();
+            return (manager == null) ? new LinkedHashMap<>() : manager.getIndexSizes();
+        }
+
+        @Override
+        public String getReport() {
+            return dump(managers.get());
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+
+        private Map<String, Double> percentileMicros(double percentile) {
+            LinkedHashMap<String, Double> values = new LinkedHashMap<>();
+            TIMERS.forEach((name, timer) -> values.put(name, timer.getLatencies().getPercentile(percentile) / 1e3));
+            return values;
+        }
+    }
+}
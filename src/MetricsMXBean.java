@@ -0,0 +1,80 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Metrics MXBean Interface
+ * 06/11/2025
+ *
+ * The MetricsMXBean interface is the JMX view of the system's metrics, registered by
+ * Metrics.registerMBean so tools such as JConsole or VisualVM can read call counts, latencies,
+ * import counters and index sizes from a running system.
+ */
+
+import java.util.Map;
+
+public interface MetricsMXBean {
+    /**
+     * Checks whether operations are being counted and timed.
+     * @return true if metrics are enabled.
+     */
+    boolean isEnabled();
+
+    /**
+     * Turns counting and timing on or off.
+     * @param enabled whether metrics should be recorded
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Gets the number of calls to each operation.
+     * @return Call counts keyed by operation name.
+     */
+    Map<String, Long> getCallCounts();
+
+    /**
+     * Gets the mean latency of each operation.
+     * @return Mean latencies in microseconds, keyed by operation name.
+     */
+    Map<String, Double> getMeanMicros();
+
+    /**
+     * Gets the median latency of each operation.
+     * @return Median latencies in microseconds, keyed by operation name.
+     */
+    Map<String, Double> getP50Micros();
+
+    /**
+     * Gets the 99th percentile latency of each operation.
+     * @return 99th percentile latencies in microseconds, keyed by operation name.
+     */
+    Map<String, Double> getP99Micros();
+
+    /**
+     * Gets the event counters, such as rows imported and parse errors by type.
+     * @return Counter values keyed by name.
+     */
+    Map<String, Long> getCounters();
+
+    /**
+     * Gets the most recent value of each gauge, such as the last import's rows per second.
+     * @return Gauge values keyed by name.
+     */
+    Map<String, Double> getGauges();
+
+    /**
+     * Gets the number of entries in each of the system's indexes.
+     * @return Index sizes keyed by index name; empty if no system is being watched.
+     */
+    Map<String, Integer> getIndexSizes();
+
+    /**
+     * Gets every metric as the plain-text report Metrics.dump produces.
+     * @return The report.
+     */
+    String getReport();
+
+    /**
+     * Clears every call count, latency, counter and gauge.
+     */
+    void reset();
+}
@@ -0,0 +1,576 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Mutation Journal Class
+ * 06/11/2025
+ *
+ * The MutationJournal class is an append-only write-ahead log of the changes made through a
+ * SystemManager. Each change is written as a checksummed record before it is applied, so a
+ * change the journal cannot take is never made, and the file is synced to disk in groups once
+ * per sync window. On startup the journal is replayed on
+ * top of the latest snapshot, and compaction folds it into a new snapshot.
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+public class MutationJournal implements Closeable {
+    public static final long DEFAULT_SYNC_WINDOW_MILLIS = 10;
+
+    // "SMWL" followed by the format version
+    private static final int MAGIC = 0x534D574C;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+
+    // Each record is a payload length, a CRC32 of the payload, then the payload itself
+    private static final int FRAME_SIZE = 8;
+    private static final int MAX_PAYLOAD = 1024 * 1024;
+
+    private static final byte ADD_STUDENT = 1;
+    private static final byte EDIT_STUDENT = 2;
+    private static final byte REMOVE_STUDENT = 3;
+    private static final byte ADD_CLASS = 4;
+    private static final byte ENROLL_STUDENT = 5;
+    private static final byte ASSIGN_GRADE = 6;
+    private static final byte SET_GRADE = 7;
+    private static final byte WITHDRAW_STUDENT = 8;
+
+    private Path journalPath;
+    private Path snapshotPath;
+    private FileChannel channel;
+    private long syncWindowMillis;
+    private ScheduledExecutorService syncer;
+
+    private ByteBuffer record;
+    private CRC32 crc;
+    private long sequence;
+    private long recordCount;
+    private volatile boolean dirty;
+    private volatile IOException syncFailure;
+    private IOException writeFailure;
+
+    /**
+     * Opens a journal, creating it if needed. A partly written record at the end of the
+     * file, left by a crash, is cut off so new records follow the last complete one.
+     * @param journalPath The path of the journal file.
+     * @param snapshotPath The snapshot that compaction writes to.
+     * @param syncWindowMillis How often buffered writes are synced to disk; 0 syncs every write.
+     * @throws IOException if the journal cannot be opened or is not a journal file
+     */
+    public MutationJournal(String journalPath, String snapshotPath, long syncWindowMillis) throws IOException {
+        if (syncWindowMillis < 0) {
+            throw new IllegalArgumentException("Sync window cannot be negative");
+        }
+        this.journalPath = Paths.get(journalPath);
+        this.snapshotPath = Paths.get(snapshotPath);
+        this.syncWindowMillis = syncWindowMillis;
+        this.record = ByteBuffer.allocate(FRAME_SIZE + 256);
+        this.crc = new CRC32();
+        this.channel = FileChannel.open(this.journalPath, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (this.channel.size() < HEADER_SIZE) {
+            writeHeader();
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(header, 0);
+            if (header.getInt(0) != MAGIC) {
+                this.channel.close();
+                throw new IOException("Not a mutation journal: " + journalPath);
+            }
+            if (header.getInt(4) != VERSION) {
+                this.channel.close();
+                throw new IOException("Unsupported journal version " + header.getInt(4));
+            }
+            long end = scan(null);
+            if (end < this.channel.size()) {
+                this.channel.truncate(end);
+                this.channel.force(false);
+            }
+        }
+        this.channel.position(this.channel.size());
+
+        if (syncWindowMillis > 0) {
+            this.syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "journal-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.syncer.scheduleWithFixedDelay(this::syncQuietly, syncWindowMillis, syncWindowMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Rebuilds the system from a snapshot and the journal written since it, then attaches
+     * the journal so further changes are recorded.
+     * @param snapshotPath The snapshot file; it need not exist yet.
+     * @param journalPath The journal file; it need not exist yet.
+     * @param syncWindowMillis How often journal writes are synced to disk; 0 syncs every write.
+     * @return The recovered SystemManager.
+     * @throws IOException if the snapshot or journal cannot be read
+     */
+    public static SystemManager recover(String snapshotPath, String journalPath, long syncWindowMillis)
+            throws IOException {
+        SystemManager manager = Files.exists(Paths.get(snapshotPath))
+                ? SystemSnapshot.load(snapshotPath) : new SystemManager();
+        MutationJournal journal = new MutationJournal(journalPath, snapshotPath, syncWindowMillis);
+        try {
+            journal.replay(manager);
+        } catch (IOException e) {
+            journal.close();
+            throw e;
+        }
+        manager.setJournal(journal);
+        return manager;
+    }
+
+    /**
+     * Applies every record newer than the system's journal sequence. The system must not
+     * have a journal attached while replaying, so the records are not written twice.
+     * @param manager The system to apply the records to.
+     * @return The number of records applied.
+     * @throws IOException if the journal cannot be read
+     */
+    public synchronized int replay(SystemManager manager) throws IOException {
+        long before = manager.getJournalSequence();
+        int[] applied = new int[1];
+        scan((sequence, payload) -> {
+            if (sequence > before) {
+                apply(manager, payload);
+                manager.setJournalSequence(sequence);
+                applied[0]++;
+            }
+        });
+        catchUp(manager);
+        return applied[0];
+    }
+
+    /**
+     * Writes the system to the snapshot file and empties the journal. The snapshot records
+     * the last journal sequence it contains, so a crash between the two steps is harmless.
+     * A journal that stopped taking records after a failed write or sync works again once
+     * compaction succeeds, since everything it was missing is now in the snapshot. Later
+     * records are numbered after the snapshot's sequence, even if it came from another journal.
+     * @param manager The system this journal belongs to.
+     * @throws IOException if the snapshot or journal cannot be written
+     */
+    public void compact(SystemManager manager) throws IOException {
+        // Changes journal while holding the system's locks, so take those before the journal's
+        manager.lockAll();
+        try {
+            synchronized (this) {
+                Path temp = this.snapshotPath.resolveSibling(this.snapshotPath.getFileName() + ".tmp");
+                SystemSnapshot.save(manager, temp.toString());
+                try (FileChannel snapshot = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    snapshot.force(true);
+                }
+                Files.move(temp, this.snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+                this.channel.truncate(HEADER_SIZE);
+                this.channel.position(HEADER_SIZE);
+                this.channel.force(true);
+                catchUp(manager);
+                this.recordCount = 0;
+                this.dirty = false;
+                this.writeFailure = null;
+                this.syncFailure = null;
+            }
+        } finally {
+            manager.unlockAll();
+        }
+    }
+
+    /**
+     * Forces every record written so far to disk.
+     * @throws IOException if the sync fails
+     */
+    public void sync() throws IOException {
+        this.dirty = false;
+        this.channel.force(false);
+    }
+
+    /**
+     * Gets the number of records in the journal since it was opened or last compacted.
+     * @return The record count.
+     */
+    public synchronized long getRecordCount() {
+        return this.recordCount;
+    }
+
+    /**
+     * Gets the sync window.
+     * @return The milliseconds between group syncs, or 0 if every write is synced.
+     */
+    public long getSyncWindowMillis() {
+        return this.syncWindowMillis;
+    }
+
+    /**
+     * Syncs any outstanding records and closes the journal.
+     * @throws IOException if the final sync or close fails
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.syncer != null) {
+            this.syncer.shutdownNow();
+        }
+        try {
+            if (this.channel.isOpen()) {
+                this.channel.force(false);
+            }
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Records a student added to the system.
+     * @param student the student that was added
+     * @return The record's sequence number.
+     */
+    synchronized long logAddStudent(RegularStudent student) {
+        beginRecord(ADD_STUDENT);
+        putByte((byte) ((student instanceof APStudent) ? 1 : 0));
+        putString(student.getId());
+        putString(student.getName());
+        putInt(student.getGradeLevel());
+        return endRecord();
+    }
+
+    /**
+     * Records an edit to a student's details.
+     * @param studentId the student's ID
+     * @param newName the new name
+     * @param newGradeLevel the new grade level
+     * @return The record's sequence number.
+     */
+    synchronized long logEditStudent(String studentId, String newName, int newGradeLevel) {
+        beginRecord(EDIT_STUDENT);
+        putString(studentId);
+        putString(newName);
+        putInt(newGradeLevel);
+        return endRecord();
+    }
+
+    /**
+     * Records a student removed from the system.
+     * @param studentId the student's ID
+     * @return The record's sequence number.
+     */
+    synchronized long logRemoveStudent(String studentId) {
+        beginRecord(REMOVE_STUDENT);
+        putString(studentId);
+        return endRecord();
+    }
+
+    /**
+     * Records a class added to the system.
+     * @param course the class that was added
+     * @return The record's sequence number.
+     */
+    synchronized long logAddClass(Class course) {
+        beginRecord(ADD_CLASS);
+        putString(course.getClassCode());
+        putString(course.getClassName());
+        putString(course.getTeacher());
+        putInt(course.getPeriod());
+        return endRecord();
+    }
+
+    /**
+     * Records a student enrolled in a class.
+     * @param studentId the student's ID
+     * @param classCode the class code
+     * @return The record's sequence number.
+     */
+    synchronized long logEnrollStudent(String studentId, String classCode) {
+        beginRecord(ENROLL_STUDENT);
+        putString(studentId);
+        putString(classCode);
+        return endRecord();
+    }
+
+    /**
+     * Records a grade assigned to a student.
+     * @param studentID the student's ID
+     * @param classCode the class code
+     * @param grade the grade
+     * @return The record's sequence number.
+     */
+    synchronized long logAssignGrade(String studentID, String classCode, double grade) {
+        beginRecord(ASSIGN_GRADE);
+        putString(studentID);
+        putString(classCode);
+        putDouble(grade);
+        return endRecord();
+    }
+
+    /**
+     * Records a student withdrawn from a class.
+     * @param studentID the student's ID
+     * @param classCode the class code
+     * @return The record's sequence number.
+     */
+    synchronized long logWithdrawStudent(String studentID, String classCode) {
+        beginRecord(WITHDRAW_STUDENT);
+        putString(studentID);
+        putString(classCode);
+        return endRecord();
+    }
+
+    /**
+     * Applies one decoded record to the system.
+     * @param manager the system to change
+     * @param in the record payload, positioned after the sequence number
+     * @throws IOException if the record type is unknown
+     */
+    private static void apply(SystemManager manager, ByteBuffer in) throws IOException {
+        byte type = in.get();
+        if (type == ADD_STUDENT) {
+            boolean ap = in.get() != 0;
+            String id = getString(in);
+            String name = getString(in);
+            int gradeLevel = in.getInt();
+            manager.addStudent(ap ? new APStudent(id, name, gradeLevel) : new RegularStudent(id, name, gradeLevel));
+        } else if (type == EDIT_STUDENT) {
+            manager.editStudent(getString(in), getString(in), in.getInt());
+        } else if (type == REMOVE_STUDENT) {
+            manager.removeStudent(getString(in));
+        } else if (type == ADD_CLASS) {
+            manager.addClass(new Class(getString(in), getString(in), getString(in), in.getInt()));
+        } else if (type == ENROLL_STUDENT) {
+            RegularStudent student = manager.findStudentById(getString(in)).orElse(null);
+            Class course = manager.findClassByCode(getString(in)).orElse(null);
+            manager.enrollStudent(student, course);
+        } else if (type == ASSIGN_GRADE || type == SET_GRADE) {
+            // SET_GRADE was written before assignments became upserts; both now replay the same way
+            manager.assignGrade(getString(in), getString(in), in.getDouble());
+        } else if (type == WITHDRAW_STUDENT) {
+            manager.withdrawStudent(getString(in), getString(in));
+        } else {
+            throw new IOException("Unknown journal record type " + type);
+        }
+    }
+
+    /**
+     * Walks the complete, checksummed records after the header.
+     * @param visitor receives each record's sequence and payload, or null to only find the end
+     * @return The file offset just past the last complete record.
+     * @throws IOException if the file cannot be read
+     */
+    private long scan(RecordVisitor visitor) throws IOException {
+        long size = this.channel.size();
+        long offset = HEADER_SIZE;
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_SIZE);
+        ByteBuffer payload = ByteBuffer.allocate(256);
+        long count = 0;
+
+        while (offset + FRAME_SIZE <= size) {
+            frame.clear();
+            readFully(frame, offset);
+            int length = frame.getInt(0);
+            int checksum = frame.getInt(4);
+            if (length < 9 || length > MAX_PAYLOAD || offset + FRAME_SIZE + length > size) {
+                break;
+            }
+            if (payload.capacity() < length) {
+                payload = ByteBuffer.allocate(Math.max(length, payload.capacity() * 2));
+            }
+            payload.clear().limit(length);
+            readFully(payload, offset + FRAME_SIZE);
+            this.crc.reset();
+            this.crc.update(payload.array(), 0, length);
+            if ((int) this.crc.getValue() != checksum) {
+                break;
+            }
+
+            payload.position(0);
+            long recordSequence = payload.getLong();
+            this.sequence = Math.max(this.sequence, recordSequence);
+            if (visitor != null) {
+                visitor.visit(recordSequence, payload);
+            }
+            count++;
+            offset += FRAME_SIZE + length;
+        }
+        this.recordCount = count;
+        return offset;
+    }
+
+    // Numbers later records after everything the system already contains, such as a snapshot
+    // loaded from another journal, so recovery does not skip them as already applied
+    private void catchUp(SystemManager manager) {
+        this.sequence = Math.max(this.sequence, manager.getJournalSequence());
+    }
+
+    // Writes the magic number and version to a new or empty journal
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        this.channel.truncate(0);
+        while (header.hasRemaining()) {
+            this.channel.write(header, HEADER_SIZE - header.remaining());
+        }
+        this.channel.force(true);
+    }
+
+    // Fills a buffer from the journal starting at the given offset
+    private void readFully(ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = this.channel.read(buffer, offset);
+            if (n < 0) {
+                throw new IOException("Unexpected end of journal");
+            }
+            offset += n;
+        }
+    }
+
+    // Starts a new record; the frame is filled in by endRecord
+    private void beginRecord(byte type) {
+        this.record.clear();
+        this.record.position(FRAME_SIZE + 8);
+        this.record.put(type);
+    }
+
+    /**
+     * Frames the current record, writes it, and syncs it now or in the next group. Callers
+     * apply their change only after this returns, so a failure here leaves the system as it was.
+     * @return The record's sequence number.
+     * @throws UncheckedIOException if the journal has failed before or the record cannot be written
+     */
+    private long endRecord() {
+        IOException failure = this.syncFailure;
+        if (failure != null) {
+            throw new UncheckedIOException("Journal sync failed; no further changes can be recorded", failure);
+        }
+        if (this.writeFailure != null) {
+            throw new UncheckedIOException("Journal write failed; no further changes can be recorded", this.writeFailure);
+        }
+
+        long recordSequence = this.sequence + 1;
+        int length = this.record.position() - FRAME_SIZE;
+        this.record.putLong(FRAME_SIZE, recordSequence);
+        this.crc.reset();
+        this.crc.update(this.record.array(), FRAME_SIZE, length);
+        this.record.putInt(0, length);
+        this.record.putInt(4, (int) this.crc.getValue());
+        this.record.flip();
+
+        long frameStart = -1;
+        try {
+            frameStart = this.channel.position();
+            while (this.record.hasRemaining()) {
+                this.channel.write(this.record);
+            }
+            if (this.syncWindowMillis == 0) {
+                this.channel.force(false);
+            } else {
+                this.dirty = true;
+            }
+        } catch (IOException e) {
+            discardFrom(frameStart, e);
+            throw new UncheckedIOException("Could not write to the journal", e);
+        }
+        this.sequence = recordSequence;
+        this.recordCount++;
+        return recordSequence;
+    }
+
+    // Cuts a failed record off the end of the file, so later records do not follow a torn frame.
+    // If even that fails the file is in an unknown state, and the journal refuses further writes.
+    private void discardFrom(long frameStart, IOException cause) {
+        try {
+            if (frameStart < 0) {
+                throw new IOException("Journal position unknown");
+            }
+            this.channel.truncate(frameStart);
+            this.channel.position(frameStart);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+            this.writeFailure = cause;
+        }
+    }
+
+    // Runs on the sync thread once per window, forcing any records written since the last sync
+    private void syncQuietly() {
+        if (!this.dirty) {
+            return;
+        }
+        try {
+            sync();
+        } catch (IOException e) {
+            this.syncFailure = e;
+        }
+    }
+
+    private void putByte(byte value) {
+        ensureSpace(1);
+        this.record.put(value);
+    }
+
+    private void putInt(int value) {
+        ensureSpace(4);
+        this.record.putInt(value);
+    }
+
+    private void putDouble(double value) {
+        ensureSpace(8);
+        this.record.putDouble(value);
+    }
+
+    // Strings are a byte length and UTF-8 bytes; a length of -1 stands for null
+    private void putString(String value) {
+        if (value == null) {
+            putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putInt(bytes.length);
+        ensureSpace(bytes.length);
+        this.record.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    // Grows the record buffer so a field of the given size fits
+    private void ensureSpace(int bytes) {
+        if (this.record.remaining() < bytes) {
+            int needed = this.record.position() + bytes;
+            if (needed - FRAME_SIZE > MAX_PAYLOAD) {
+                throw new IllegalArgumentException("Journal record larger than " + MAX_PAYLOAD + " bytes");
+            }
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(needed, this.record.capacity() * 2));
+            this.record.flip();
+            grown.put(this.record);
+            this.record = grown;
+        }
+    }
+
+    // Receives each record found while scanning the journal
+    private interface RecordVisitor {
+        void visit(long sequence, ByteBuffer payload) throws IOException;
+    }
+}
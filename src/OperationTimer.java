@@ -0,0 +1,100 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Operation Timer Class
+ * 06/11/2025
+ *
+ * The OperationTimer class counts the calls to one operation and records how long they take in
+ * a LatencyHistogram. Very fast operations such as lookups are sampled: only one call in every
+ * few is timed, and calls are counted a sampling interval at a time, since reading the clock or
+ * updating a shared counter on every call would cost more than the lookup itself. Timers are
+ * created through Metrics and do nothing while metrics are disabled.
+ */
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class OperationTimer {
+    private String name;
+    private int sampleMask;
+    private LongAdder calls;
+    private LatencyHistogram latencies;
+
+    // Picks which calls are timed; a lost update between threads only delays the next sample
+    private int ticks;
+
+    /**
+     * Creates a timer. Use Metrics.timer to create timers that appear in the metrics.
+     * @param name The operation's name.
+     * @param sampleEvery Time one call in this many; rounded up to a power of two.
+     */
+    OperationTimer(String name, int sampleEvery) {
+        this.name = name;
+        this.sampleMask = (sampleEvery <= 1) ? 0 : Integer.highestOneBit(sampleEvery - 1) * 2 - 1;
+        this.calls = new LongAdder();
+        this.latencies = new LatencyHistogram();
+    }
+
+    /**
+     * Counts a call and starts timing it if it is one of the calls sampled.
+     * @return The start time to pass to stop, or 0 if this call is not being timed.
+     */
+    public long start() {
+        if (!Metrics.isEnabled() || (sampleMask != 0 && (++ticks & sampleMask) != 0)) {
+            return 0L;
+        }
+        calls.add(sampleMask + 1);
+        return System.nanoTime();
+    }
+
+    /**
+     * Finishes timing a call.
+     * @param start the value returned by start
+     */
+    public void stop(long start) {
+        if (start != 0L) {
+            latencies.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Gets the operation's name.
+     * @return The name.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets the number of calls counted. For a sampled operation this is rounded down to a
+     * whole number of sampling intervals, and may run a little low under heavy concurrency.
+     * @return The call count.
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * Gets how many calls there are for each one timed.
+     * @return The sampling interval; 1 if every call is timed.
+     */
+    public int getSampleEvery() {
+        return sampleMask + 1;
+    }
+
+    /**
+     * Gets the latencies of the calls timed.
+     * @return The histogram.
+     */
+    public LatencyHistogram getLatencies() {
+        return this.latencies;
+    }
+
+    /**
+     * Clears the call count and latencies.
+     */
+    public void reset() {
+        calls.reset();
+        latencies.reset();
+    }
+}
@@ -0,0 +1,433 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Performance Benchmark Class
+ * 06/11/2025
+ *
+ * The PerformanceBenchmark class times the system's hot paths so changes can be checked for
+ * regressions: student lookup, grade assignment, CSV import and export and the full report at
+ * 1k, 10k and 100k students, and every registered curve at 1k to 10M scores. Each benchmark is
+ * warmed up until the JIT has compiled it, then measured over several iterations, and the
+ * results are written as JSON. Two result files can be compared to see what got faster or slower.
+ */
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public class PerformanceBenchmark {
+    private static final int[] STUDENT_COUNTS = {1000, 10000, 100000};
+    private static final int[] SCORE_COUNTS = {1000, 10000, 100000, 1000000, 10000000};
+    private static final String[] DISTRICT_BENCHMARKS = {
+        "findStudentById", "assignGrade", "importStudentsFromCSV", "exportStudentsToCSV", "generateReport"
+    };
+    private static final int CALLS_PER_INVOCATION = 10000;
+    private static final int GRADES_BEFORE_RESET = 200000;
+    private static final double REGRESSION_THRESHOLD = 0.10;
+    private static final Pattern RESULT_LINE = Pattern.compile(
+            "\"benchmark\": \"([^\"]+)\", \"size\": (\\d+),.*\"nsPerOp\": ([0-9.Ee+-]+),");
+
+    private long warmupNanos;
+    private long iterationNanos;
+    private int iterations;
+    private int maxScores;
+    private String only;
+    private ArrayList<Result> results;
+
+    // Results are folded into this so the JIT cannot drop work whose result is unused
+    private static volatile long sink;
+
+    /**
+     * Creates a benchmark run.
+     * @param quick Whether to use shorter warmups and fewer iterations, for a rough check.
+     * @param maxScores The largest score count to curve.
+     * @param only Only benchmarks whose names start with this are run; null runs them all.
+     */
+    public PerformanceBenchmark(boolean quick, int maxScores, String only) {
+        this.warmupNanos = quick ? 200_000_000L : 1_000_000_000L;
+        this.iterationNanos = quick ? 100_000_000L : 500_000_000L;
+        this.iterations = quick ? 3 : 5;
+        this.maxScores = maxScores;
+        this.only = only;
+        this.results = new ArrayList<>();
+    }
+
+    /**
+     * Runs every selected benchmark, printing each result as it finishes.
+     * @return The results, in the order they were run.
+     * @throws Exception if a benchmark fails
+     */
+    public List<Result> run() throws Exception {
+        Path workDir = Files.createTempDirectory("benchmark");
+        try {
+            for (int students : STUDENT_COUNTS) {
+                if (anySelected(DISTRICT_BENCHMARKS)) {
+                    runDistrict(workDir, students);
+                }
+            }
+            for (int scores : SCORE_COUNTS) {
+                if (scores <= maxScores && anySelected("applyCurve")) {
+                    runCurves(scores);
+                }
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(workDir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+        return results;
+    }
+
+    // Benchmarks the SystemManager operations on one generated district
+    private void runDistrict(Path workDir, int studentCount) throws Exception {
+        String students = workDir.resolve("students_" + studentCount + ".csv").toString();
+        String export = workDir.resolve("export_" + studentCount + ".csv").toString();
+        new DistrictDataGenerator(42L, studentCount).writeStudents(students, studentCount);
+        SystemManager[] manager = {load(students)};
+        int grades = manager[0].getGradeRecords().size();
+
+        Random random = new Random(7);
+        String[] ids = new String[CALLS_PER_INVOCATION];
+        String[] codes = new String[CALLS_PER_INVOCATION];
+        for (int i = 0; i < ids.length; i++) {
+            RegularStudent student = manager[0].getStudents().get(random.nextInt(studentCount));
+            ids[i] = student.getId();
+            ArrayList<Class> classes = new ArrayList<>(student.getClasses());
+            codes[i] = classes.get(random.nextInt(classes.size())).getClassCode();
+        }
+
+        measure("findStudentById", studentCount, 1, () -> {
+            long found = 0;
+            for (String id : ids) {
+                found += manager[0].findStudentById(id).isPresent() ? 1 : 0;
+            }
+            sink += found;
+            return ids.length;
+        });
+
+        measure("assignGrade", studentCount, 1, new Operation() {
+            @Override
+            public void setUp() throws Exception {
+                // Start again from the file before the grade store grows too far past its real size
+                if (manager[0].getGradeRecords().size() > grades + GRADES_BEFORE_RESET) {
+                    manager[0] = load(students);
+                }
+            }
+
+            @Override
+            public long run() {
+                for (int i = 0; i < ids.length; i++) {
+                    manager[0].assignGrade(ids[i], codes[i], 50 + (i % 51));
+                }
+                return ids.length;
+            }
+        });
+        manager[0] = load(students);
+
+        measure("importStudentsFromCSV", studentCount, studentCount, new Operation() {
+            private SystemManager fresh;
+
+            @Override
+            public void setUp() {
+                fresh = new SystemManager();
+            }
+
+            @Override
+            public long run() {
+                quietly(() -> fresh.importStudentsFromCSV(students));
+                sink += fresh.getStudents().size();
+                return 1;
+            }
+        });
+
+        measure("exportStudentsToCSV", studentCount, studentCount, () -> {
+            quietly(() -> manager[0].exportStudentsToCSV(export));
+            return 1;
+        });
+
+        measure("generateReport", studentCount, studentCount, () -> {
+            sink += manager[0].generateReport().length();
+            return 1;
+        });
+    }
+
+    // Benchmarks every registered curve on one batch of scores
+    private void runCurves(int scoreCount) throws Exception {
+        AutoCurver curver = new AutoCurver();
+        ScoreBatch batch = new DistrictDataGenerator(42L, scoreCount).createScores(scoreCount);
+        for (CurveStrategy strategy : curver.getRegistry().getStrategies()) {
+            double value = curveValue(strategy.getName());
+            measure("applyCurve:" + strategy.getName(), scoreCount, scoreCount, () -> {
+                curver.applyCurve(batch, strategy, value);
+                sink += (long) batch.getCurvedScore(batch.size() - 1);
+                return 1;
+            });
+        }
+    }
+
+    // A typical value for each curve that takes one
+    private static double curveValue(String curveName) {
+        switch (curveName) {
+            case "flat":
+                return 5.0;
+            case "power":
+                return 0.5;
+            case "stddev":
+                return 85.0;
+            default:
+                return 0.0;
+        }
+    }
+
+    // Warms an operation up, then times it over the configured number of iterations
+    private void measure(String name, int size, int itemsPerOp, Operation operation) throws Exception {
+        if (!anySelected(name)) {
+            return;
+        }
+        timeUntil(operation, warmupNanos);
+        double[] nsPerOp = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long[] timed = timeUntil(operation, iterationNanos);
+            nsPerOp[i] = (double) timed[0] / timed[1];
+        }
+        Result result = new Result(name, size, itemsPerOp, nsPerOp);
+        results.add(result);
+        System.out.println(result);
+    }
+
+    // Whether the --only option selects any of the named benchmarks
+    private boolean anySelected(String... names) {
+        for (String name : names) {
+            if (only == null || name.startsWith(only) || only.startsWith(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Runs an operation until the timed part has taken at least the given time;
+    // returns the timed nanoseconds and the operation count
+    private static long[] timeUntil(Operation operation, long nanos) throws Exception {
+        long elapsed = 0;
+        long operations = 0;
+        do {
+            operation.setUp();
+            long start = System.nanoTime();
+            operations += operation.run();
+            elapsed += System.nanoTime() - start;
+        } while (elapsed < nanos);
+        return new long[] {elapsed, operations};
+    }
+
+    // Imports a student file without the import's progress messages
+    private static SystemManager load(String filePath) {
+        SystemManager manager = new SystemManager();
+        quietly(() -> manager.importStudentsFromCSV(filePath));
+        return manager;
+    }
+
+    // Runs an action with standard output discarded
+    private static void quietly(Runnable action) {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            action.run();
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    /**
+     * Writes results as JSON, one result per line.
+     * @param results the results to write
+     * @param filePath the path of the JSON file
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeJson(List<Result> results, String filePath) throws IOException {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"timestamp\": \"").append(Instant.now()).append("\",\n");
+        json.append("  \"javaVersion\": \"").append(System.getProperty("java.version")).append("\",\n");
+        json.append("  \"processors\": ").append(Runtime.getRuntime().availableProcessors()).append(",\n");
+        json.append("  \"maxHeapMb\": ").append(Runtime.getRuntime().maxMemory() >> 20).append(",\n");
+        json.append("  \"results\": [\n");
+        for (int i = 0; i < results.size(); i++) {
+            json.append("    ").append(results.get(i).toJson()).append((i < results.size() - 1) ? ",\n" : "\n");
+        }
+        json.append("  ]\n}\n");
+        Files.writeString(Path.of(filePath), json);
+    }
+
+    /**
+     * Reads the time per operation of each benchmark from a file written by writeJson.
+     * @param filePath the path of the JSON file
+     * @return Nanoseconds per operation, keyed by benchmark name and size.
+     * @throws IOException if the file cannot be read
+     */
+    public static LinkedHashMap<String, Double> readJson(String filePath) throws IOException {
+        LinkedHashMap<String, Double> nsPerOp = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(Path.of(filePath))) {
+            Matcher matcher = RESULT_LINE.matcher(line);
+            if (matcher.find()) {
+                nsPerOp.put(matcher.group(1) + " @ " + matcher.group(2), Double.parseDouble(matcher.group(3)));
+            }
+        }
+        return nsPerOp;
+    }
+
+    /**
+     * Prints how each benchmark changed between two result files. Benchmarks more than 10%
+     * slower are marked as regressions.
+     * @param baselinePath the earlier results
+     * @param currentPath the later results
+     * @return The number of regressions.
+     * @throws IOException if either file cannot be read
+     */
+    public static int compare(String baselinePath, String currentPath) throws IOException {
+        LinkedHashMap<String, Double> baseline = readJson(baselinePath);
+        LinkedHashMap<String, Double> current = readJson(currentPath);
+        int regressions = 0;
+        System.out.printf("%-40s %14s %14s %9s%n", "Benchmark", "Baseline ns", "Current ns", "Change");
+        for (String key : current.keySet()) {
+            Double before = baseline.get(key);
+            double after = current.get(key);
+            if (before == null) {
+                System.out.printf("%-40s %14s %14.1f %9s%n", key, "-", after, "new");
+                continue;
+            }
+            double change = (after - before) / before;
+            boolean regressed = change > REGRESSION_THRESHOLD;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-40s %14.1f %14.1f %+8.1f%%%s%n", key, before, after, change * 100,
+                    regressed ? "  REGRESSION" : "");
+        }
+        return regressions;
+    }
+
+    /**
+     * Runs the benchmarks or compares two result files from the command line.
+     * Usage: java PerformanceBenchmark [--quick] [--only name] [--max-scores n] [--out file.json]
+     *        java PerformanceBenchmark compare baseline.json current.json
+     * @param args the options, or compare and two result files
+     * @throws Exception if a benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length == 3 && args[0].equals("compare")) {
+            int regressions = compare(args[1], args[2]);
+            System.out.println(regressions + " regression(s)");
+            System.exit(regressions == 0 ? 0 : 1);
+        }
+
+        boolean quick = false;
+        int maxScores = SCORE_COUNTS[SCORE_COUNTS.length - 1];
+        String only = null;
+        String out = "benchmark-results.json";
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--quick":
+                    quick = true;
+                    break;
+                case "--only":
+                    only = args[++i];
+                    break;
+                case "--max-scores":
+                    maxScores = Integer.parseInt(args[++i]);
+                    break;
+                case "--out":
+                    out = args[++i];
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    return;
+            }
+        }
+
+        List<Result> results = new PerformanceBenchmark(quick, maxScores, only).run();
+        writeJson(results, out);
+        System.out.println("Results written to " + out);
+    }
+
+    // One benchmark's setup and timed work; run returns how many operations it performed
+    private interface Operation {
+        default void setUp() throws Exception {
+        }
+
+        long run() throws Exception;
+    }
+
+    /**
+     * The timings of one benchmark at one size.
+     */
+    public static class Result {
+        private String name;
+        private int size;
+        private int itemsPerOp;
+        private double mean;
+        private double min;
+        private double max;
+        private double stdDev;
+
+        private Result(String name, int size, int itemsPerOp, double[] nsPerOp) {
+            this.name = name;
+            this.size = size;
+            this.itemsPerOp = itemsPerOp;
+            this.min = Double.MAX_VALUE;
+            double sum = 0.0;
+            for (double value : nsPerOp) {
+                sum += value;
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            this.mean = sum / nsPerOp.length;
+            double squares = 0.0;
+            for (double value : nsPerOp) {
+                squares += (value - mean) * (value - mean);
+            }
+            this.stdDev = Math.sqrt(squares / nsPerOp.length);
+        }
+
+        /**
+         * Gets the mean time per operation.
+         * @return Nanoseconds per operation.
+         */
+        public double getNanosPerOp() {
+            return mean;
+        }
+
+        /**
+         * Gets the throughput in items, such as rows imported or scores curved.
+         * @return Items per second.
+         */
+        public double getItemsPerSecond() {
+            return itemsPerOp * 1e9 / mean;
+        }
+
+        private String toJson() {
+            return String.format(Locale.ROOT, "{\"benchmark\": \"%s\", \"size\": %d, \"nsPerOp\": %.1f, "
+                    + "\"nsPerOpMin\": %.1f, \"nsPerOpMax\": %.1f, \"nsPerOpStdDev\": %.1f, "
+                    + "\"opsPerSec\": %.1f, \"itemsPerSec\": %.1f}",
+                    name, size, mean, min, max, stdDev, 1e9 / mean, getItemsPerSecond());
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-24s %9d  %14.1f ns/op  +/-%5.1f%%  %14.0f items/sec",
+                    name, size, mean, (mean == 0) ? 0.0 : stdDev / mean * 100, getItemsPerSecond());
+        }
+    }
+}
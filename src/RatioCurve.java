@@ -0,0 +1,209 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Ratio Curve Class
+ * 06/11/2025
+ *
+ * The RatioCurve class is a rank-based CurveStrategy for the grade curving utility. It ranks
+ * students by original score and assigns fixed grades by percentile band (by default the top
+ * 10% get 95, the next 20% get 85, and so on), so it works on a whole batch instead of one score.
+ */
+
+public class RatioCurve implements CurveStrategy {
+    private static final double[] DEFAULT_BAND_PERCENTAGES = {0.10, 0.20, 0.40, 0.20};
+    private static final double[] DEFAULT_BAND_SCORES = {95.0, 85.0, 75.0, 65.0, 50.0};
+
+    private String name;
+    private double[] bandPercentages;
+    private double[] bandScores;
+
+    // Constructs the standard ratio curve with the 10/20/40/20/10 distribution
+    public RatioCurve() {
+        this("ratio", DEFAULT_BAND_PERCENTAGES, DEFAULT_BAND_SCORES);
+    }
+
+    /**
+     * Constructs a ratio curve with custom bands. Each percentage is the share of students
+     * in that band, best band first; everyone left over falls into the last band, so there
+     * is one more score than there are percentages.
+     * @param name the name to register the curve under
+     * @param bandPercentages the share of students in each band except the last, from 0 to 1
+     * @param bandScores the curved score for each band, best band first
+     */
+    public RatioCurve(String name, double[] bandPercentages, double[] bandScores) {
+        if (name == null || name.isEmpty() || bandPercentages == null || bandScores == null
+                || bandScores.length != bandPercentages.length + 1) {
+            throw new IllegalArgumentException("Invalid ratio curve bands");
+        }
+        double total = 0.0;
+        for (double percentage : bandPercentages) {
+            if (percentage < 0.0) {
+                throw new IllegalArgumentException("Band percentages cannot be negative");
+            }
+            total += percentage;
+        }
+        if (total > 1.0 + 1e-9) {
+            throw new IllegalArgumentException("Band percentages cannot add up to more than 100%");
+        }
+        this.name = name;
+        this.bandPercentages = bandPercentages.clone();
+        this.bandScores = bandScores.clone();
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Assigns letter grades based on a fixed percentage distribution (e.g., top 10% get an A).";
+    }
+
+    @Override
+    public boolean requiresValue() {
+        return false;
+    }
+
+    @Override
+    public String getValueDescription() {
+        return "No value needed.";
+    }
+
+    @Override
+    public boolean needsStatistics() {
+        return false;
+    }
+
+    /**
+     * Applies the ratio curve. Students are ranked by original score, highest first, and
+     * ties at a band boundary are broken by input order: the earlier student gets the
+     * higher band. Rather than sorting, each band boundary is found by selection, so the
+     * curve runs in linear expected time.
+     * @param batch the scores to curve
+     * @param curveValue unused
+     * @param stats unused
+     */
+    @Override
+    public void apply(ScoreBatch batch, double curveValue, ScoreStatistics stats) {
+        double[] original = batch.getOriginalScores();
+        double[] curved = batch.getCurvedScores();
+        int totalStudents = batch.size();
+        int cutCount = this.bandPercentages.length;
+
+        // cuts[j] is how many students are in bands 0..j
+        int[] cuts = new int[cutCount];
+        int cumulative = 0;
+        for (int j = 0; j < cutCount; j++) {
+            cumulative += (int) (totalStudents * this.bandPercentages[j]);
+            cuts[j] = Math.min(cumulative, totalStudents);
+        }
+
+        // thresholds[j] is the lowest score that can still make it into bands 0..j
+        double[] thresholds = new double[cutCount];
+        double[] work = new double[totalStudents];
+        System.arraycopy(original, 0, work, 0, totalStudents);
+        int searchEnd = totalStudents - 1;
+        for (int j = 0; j < cutCount; j++) {
+            if (cuts[j] == 0) {
+                continue;
+            }
+            // Larger cuts select lower positions, which lie in the already partitioned left part
+            int position = totalStudents - cuts[j];
+            thresholds[j] = select(work, 0, searchEnd, position);
+            searchEnd = position;
+        }
+
+        // Students tied on a threshold fill whatever places are left above it, in input order
+        int[] tieQuota = new int[cutCount];
+        for (int j = 0; j < cutCount; j++) {
+            tieQuota[j] = cuts[j];
+        }
+        for (int i = 0; i < totalStudents; i++) {
+            for (int j = 0; j < cutCount; j++) {
+                if (cuts[j] > 0 && Double.compare(original[i], thresholds[j]) > 0) {
+                    tieQuota[j]--;
+                }
+            }
+        }
+
+        for (int i = 0; i < totalStudents; i++) {
+            int band = cutCount;
+            for (int j = cutCount - 1; j >= 0; j--) {
+                if (cuts[j] == 0) {
+                    continue;
+                }
+                int comparison = Double.compare(original[i], thresholds[j]);
+                if (comparison > 0) {
+                    band = j;
+                } else if (comparison == 0 && tieQuota[j] > 0) {
+                    tieQuota[j]--;
+                    band = j;
+                }
+            }
+            curved[i] = ScoreBatch.clamp(this.bandScores[band]);
+        }
+    }
+
+    /**
+     * Finds the value that would be at a position if the range were sorted ascending,
+     * partially reordering the range around it (quickselect with a three-way partition,
+     * which stays fast when many scores are equal).
+     * @param values the values to search
+     * @param low the first index of the range
+     * @param high the last index of the range
+     * @param position the sorted position to find
+     * @return The value at that sorted position.
+     */
+    private static double select(double[] values, int low, int high, int position) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            double pivot = medianOfThree(values[low], values[mid], values[high]);
+
+            // Partition into [< pivot][== pivot][> pivot]
+            int lessEnd = low;
+            int greaterStart = high;
+            int i = low;
+            while (i <= greaterStart) {
+                int comparison = Double.compare(values[i], pivot);
+                if (comparison < 0) {
+                    swap(values, i++, lessEnd++);
+                } else if (comparison > 0) {
+                    swap(values, i, greaterStart--);
+                } else {
+                    i++;
+                }
+            }
+
+            if (position < lessEnd) {
+                high = lessEnd - 1;
+            } else if (position > greaterStart) {
+                low = greaterStart + 1;
+            } else {
+                return pivot;
+            }
+        }
+        return values[low];
+    }
+
+    // Picks the middle of three values as a pivot
+    private static double medianOfThree(double a, double b, double c) {
+        if (Double.compare(a, b) > 0) {
+            double temp = a;
+            a = b;
+            b = temp;
+        }
+        if (Double.compare(b, c) > 0) {
+            b = c;
+        }
+        return (Double.compare(a, b) > 0) ? a : b;
+    }
+
+    // Swaps two array entries
+    private static void swap(double[] values, int i, int j) {
+        double temp = values[i];
+        values[i] = values[j];
+        values[j] = temp;
+    }
+}
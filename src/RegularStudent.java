@@ -8,21 +8,50 @@
  * The RegularStudent class represents a standard high school student in the student management
  * system, managing their enrollment, grades, and GPA. It provides methods to enroll in classes,
  * calculate GPA, and retrieve schedules, serving as the base for student functionality.
+ * The schedule is rendered once and cached until the student's classes or name change.
  */
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Objects;
 
 // Represents a regular high school student, inheriting from SchoolEntity
 public class RegularStudent extends SchoolEntity {
     private int gradeLevel;
     private double gpa;
-    private ArrayList<Class> classes;
+
+    // Schedule keyed by class code, in enrollment order
+    private LinkedHashMap<String, Class> classes;
+
+    // The rendered schedule, or null until it is next asked for
+    private String schedule;
+
+    // Running aggregates so the GPA can be maintained in O(1) per grade change
+    private double gradeSum;
+    private int gradeCount;
+
+    // Per-class grade sums and counts in parallel arrays; a student has few classes, so a scan
+    // of the codes is cheaper in time and memory than a map
+    private String[] totalClassCodes;
+    private double[] totalSums;
+    private int[] totalCounts;
+    private int totalClasses;
 
     public RegularStudent(String id, String name, int gradeLevel) {
         super(id, name);
         this.gradeLevel = gradeLevel;
         this.gpa = 0.0;
-        this.classes = new ArrayList<Class>();
+        this.classes = new LinkedHashMap<>();
+        this.schedule = null;
+        this.gradeSum = 0.0;
+        this.gradeCount = 0;
+        this.totalClassCodes = new String[0];
+        this.totalSums = new double[0];
+        this.totalCounts = new int[0];
+        this.totalClasses = 0;
     }
 
     /**
@@ -30,10 +59,35 @@ public class RegularStudent extends SchoolEntity {
      * @param course the class to enroll in
      */
     public void enrollClass(Class course) {
-        if (course != null && !classes.stream().anyMatch(c -> c.getClassCode().equals(course.getClassCode()))) {
-            classes.add(course);
+        if (course != null && classes.putIfAbsent(course.getClassCode(), course) == null) {
             course.addStudent(this);
+            this.schedule = null;
+        }
+    }
+
+    /**
+     * Drops a class from the student's schedule and removes the student from its roster.
+     * The student's grades in the class are not changed.
+     * @param classCode the code of the class to drop
+     * @return true if the class was on the schedule
+     */
+    public boolean dropClass(String classCode) {
+        Class course = classes.remove(classCode);
+        if (course == null) {
+            return false;
         }
+        course.removeStudent(this);
+        this.schedule = null;
+        return true;
+    }
+
+    /**
+     * Checks whether a class is on the student's schedule.
+     * @param classCode the class code
+     * @return true if the student is enrolled in the class
+     */
+    public boolean isEnrolledIn(String classCode) {
+        return classes.containsKey(classCode);
     }
 
     /**
@@ -46,22 +100,128 @@ public class RegularStudent extends SchoolEntity {
     }
 
     /**
-     * Calculates the student's GPA based on a list of all grade records in the system.
-     * @param allGradeRecords A list of all grade records.
+     * Recalculates the student's GPA from scratch based on a list of grade records,
+     * resetting the running totals used for incremental updates.
+     * @param allGradeRecords A list of grade records; records for other students are ignored.
      */
     public void calculateGPA(ArrayList<GradeRecord> allGradeRecords) {
-        double totalPoints = 0;
-        int numGrades = 0;
+        this.gradeSum = 0.0;
+        this.gradeCount = 0;
+        this.totalClasses = 0;
         for (GradeRecord record : allGradeRecords) {
             if (record.getStudentID().equals(this.getId())) {
-                totalPoints += record.getGrade();
-                numGrades++;
+                updateTotals(record.getClassCode(), record.getGrade(), 1);
             }
         }
+        updateGPA();
+    }
+
+    /**
+     * Adds a grade record to the student's running totals and updates the GPA.
+     * The record will notify this student if its grade is changed later.
+     * @param record the grade record to add
+     */
+    public void addGrade(GradeRecord record) {
+        record.setOwner(this);
+        updateTotals(record.getClassCode(), record.getGrade(), 1);
+        updateGPA();
+    }
+
+    /**
+     * Removes a grade record from the student's running totals and updates the GPA.
+     * @param record the grade record to remove
+     */
+    public void removeGrade(GradeRecord record) {
+        if (record.getOwner() == this) {
+            record.setOwner(null);
+            updateTotals(record.getClassCode(), -record.getGrade(), -1);
+            updateGPA();
+        }
+    }
 
-        if (numGrades > 0) {
-            // Standard GPA is on a 4.0 scale
-            this.gpa = (totalPoints / numGrades) * 4.0 / 100.0;
+    /**
+     * Called by a grade record owned by this student when its grade changes.
+     * @param record the record that changed
+     * @param oldGrade the grade before the change
+     */
+    void gradeChanged(GradeRecord record, double oldGrade) {
+        updateTotals(record.getClassCode(), record.getGrade() - oldGrade, 0);
+        updateGPA();
+    }
+
+    /**
+     * Gets the student's average grade in a single class.
+     * @param classCode the class code
+     * @return the average grade, or 0.0 if the student has no grades in the class
+     */
+    public double getClassAverage(String classCode) {
+        int index = indexOfTotals(classCode);
+        return (index < 0) ? 0.0 : totalSums[index] / totalCounts[index];
+    }
+
+    /**
+     * Gets the number of different classes the student has grades in.
+     * @return the number of graded classes
+     */
+    int getGradedClassCount() {
+        return this.totalClasses;
+    }
+
+    /**
+     * Gets the maximum GPA for this student's scale.
+     * @return 4.0 for regular students
+     */
+    protected double getGpaScale() {
+        return 4.0;
+    }
+
+    // Applies a change to the overall and per-class running totals
+    private void updateTotals(String classCode, double gradeDelta, int countDelta) {
+        this.gradeSum += gradeDelta;
+        this.gradeCount += countDelta;
+        if (this.gradeCount == 0) {
+            this.gradeSum = 0.0;
+        }
+
+        int index = indexOfTotals(classCode);
+        if (index < 0) {
+            if (totalClasses == totalClassCodes.length) {
+                int capacity = Math.max(4, totalClasses * 2);
+                totalClassCodes = Arrays.copyOf(totalClassCodes, capacity);
+                totalSums = Arrays.copyOf(totalSums, capacity);
+                totalCounts = Arrays.copyOf(totalCounts, capacity);
+            }
+            index = totalClasses++;
+            totalClassCodes[index] = classCode;
+            totalSums[index] = 0.0;
+            totalCounts[index] = 0;
+        }
+        totalSums[index] += gradeDelta;
+        totalCounts[index] += countDelta;
+        if (totalCounts[index] == 0) {
+            // Move the last class into the emptied slot
+            totalClasses--;
+            totalClassCodes[index] = totalClassCodes[totalClasses];
+            totalSums[index] = totalSums[totalClasses];
+            totalCounts[index] = totalCounts[totalClasses];
+            totalClassCodes[totalClasses] = null;
+        }
+    }
+
+    // Finds a class in the per-class totals; shared class codes usually match by reference
+    private int indexOfTotals(String classCode) {
+        for (int i = 0; i < totalClasses; i++) {
+            if (Objects.equals(totalClassCodes[i], classCode)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Derives the GPA from the running totals
+    private void updateGPA() {
+        if (this.gradeCount > 0) {
+            this.gpa = (this.gradeSum / this.gradeCount) * getGpaScale() / 100.0;
         } else {
             this.gpa = 0.0;
         }
@@ -72,11 +232,36 @@ public class RegularStudent extends SchoolEntity {
      * @return string listing enrolled classes
      */
     public String getSchedule() {
-        String schedule = "Schedule for " + this.getName() + ":\n";
-        for (int i = 0; i < this.classes.size(); i++) {
-            schedule += this.classes.get(i).getClassInfo() + "\n";
+        if (this.schedule == null) {
+            StringBuilder out = new StringBuilder(32 + this.classes.size() * 64);
+            renderSchedule(out);
+            this.schedule = out.toString();
         }
-        return schedule;
+        return this.schedule;
+    }
+
+    /**
+     * Appends the student's schedule to a buffer, as getSchedule would return it. A schedule
+     * that is not cached is rendered straight into the buffer without being cached, so
+     * rendering every student's schedule at once does not keep them all in memory.
+     * @param out the buffer to append to
+     */
+    public void appendSchedule(StringBuilder out) {
+        if (this.schedule != null) {
+            out.append(this.schedule);
+        } else {
+            renderSchedule(out);
+        }
+    }
+
+    /**
+     * Sets the student's name and clears the cached schedule, which includes it.
+     * @param name The new name for the student.
+     */
+    @Override
+    public void setName(String name) {
+        super.setName(name);
+        this.schedule = null;
     }
 
     /**
@@ -114,10 +299,28 @@ public class RegularStudent extends SchoolEntity {
     }
 
     /**
-     * Gets the list of classes the student is enrolled in.
-     * @return An ArrayList of Class objects.
+     * Gets the classes the student is enrolled in, in the order they enrolled.
+     * @return A read-only view of the schedule.
+     */
+    public Collection<Class> getClasses() {
+        return Collections.unmodifiableCollection(this.classes.values());
+    }
+
+    /**
+     * Appends a class to the schedule without checking for duplicates or updating
+     * the class roster, for restoring a schedule that is already known to be consistent.
+     * @param course the class to append
      */
-    public ArrayList<Class> getClasses() {
-        return this.classes;
+    void restoreClass(Class course) {
+        this.classes.put(course.getClassCode(), course);
+        this.schedule = null;
+    }
+
+    // Writes the schedule header and one line per class
+    private void renderSchedule(StringBuilder out) {
+        out.append("Schedule for ").append(this.getName()).append(":\n");
+        for (Class course : this.classes.values()) {
+            out.append(course.getClassInfo()).append('\n');
+        }
     }
 }
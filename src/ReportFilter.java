@@ -0,0 +1,161 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Report Filter Class
+ * 06/11/2025
+ *
+ * The ReportFilter class selects which students and grade records appear in a streamed system
+ * report. Rows can be limited to one grade level, one class, or passing or failing grades, and a
+ * page of rows can be chosen with an offset and limit. A new filter matches everything.
+ */
+
+public class ReportFilter {
+    private Integer gradeLevel;
+    private String classCode;
+    private Boolean passing;
+    private int offset;
+    private int limit;
+
+    public ReportFilter() {
+        this.gradeLevel = null;
+        this.classCode = null;
+        this.passing = null;
+        this.offset = 0;
+        this.limit = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Tells whether this filter can exclude any row.
+     * @return true if no criteria or paging are set.
+     */
+    public boolean isUnfiltered() {
+        return gradeLevel == null && classCode == null && passing == null && offset == 0 && limit == Integer.MAX_VALUE;
+    }
+
+    /**
+     * Checks whether a student belongs in the report. A student is passing when none of
+     * their grades is failing.
+     * @param student the student to check
+     * @param manager the system the student belongs to
+     * @return true if the student matches every criterion.
+     */
+    public boolean matches(RegularStudent student, SystemManager manager) {
+        if (gradeLevel != null && student.getGradeLevel() != gradeLevel) {
+            return false;
+        }
+        if (classCode != null && !manager.isEnrolled(student, classCode)) {
+            return false;
+        }
+        if (passing != null) {
+            boolean allPassing = true;
+            for (GradeRecord record : manager.getGradesForStudent(student.getId())) {
+                if (!record.isPassing()) {
+                    allPassing = false;
+                    break;
+                }
+            }
+            return allPassing == passing;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a grade record belongs in the report.
+     * @param record the grade record to check
+     * @param manager the system the record belongs to
+     * @return true if the record matches every criterion.
+     */
+    public boolean matches(GradeRecord record, SystemManager manager) {
+        if (classCode != null && !classCode.equals(record.getClassCode())) {
+            return false;
+        }
+        if (passing != null && record.isPassing() != passing) {
+            return false;
+        }
+        if (gradeLevel != null) {
+            RegularStudent student = manager.findStudentById(record.getStudentID()).orElse(null);
+            return student != null && student.getGradeLevel() == gradeLevel;
+        }
+        return true;
+    }
+
+    /**
+     * Gets the grade level filter.
+     * @return The grade level, or null for all grade levels.
+     */
+    public Integer getGradeLevel() {
+        return gradeLevel;
+    }
+
+    /**
+     * Limits the report to students in one grade level and their grades.
+     * @param gradeLevel The grade level, or null for all grade levels.
+     */
+    public void setGradeLevel(Integer gradeLevel) {
+        this.gradeLevel = gradeLevel;
+    }
+
+    /**
+     * Gets the class filter.
+     * @return The class code, or null for all classes.
+     */
+    public String getClassCode() {
+        return classCode;
+    }
+
+    /**
+     * Limits the report to students enrolled in one class and that class's grades.
+     * @param classCode The class code, or null for all classes.
+     */
+    public void setClassCode(String classCode) {
+        this.classCode = classCode;
+    }
+
+    /**
+     * Gets the passing filter.
+     * @return true for passing only, false for failing only, or null for both.
+     */
+    public Boolean getPassing() {
+        return passing;
+    }
+
+    /**
+     * Limits the report to passing or failing grades, and to students without or with
+     * a failing grade.
+     * @param passing true for passing only, false for failing only, or null for both.
+     */
+    public void setPassing(Boolean passing) {
+        this.passing = passing;
+    }
+
+    /**
+     * Gets the number of matching rows skipped in each section.
+     * @return The offset.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Gets the most matching rows written in each section.
+     * @return The limit.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Selects one page of matching rows. The page applies separately to the student
+     * section and the grade section of the report.
+     * @param offset The number of matching rows to skip.
+     * @param limit The most rows to write, or Integer.MAX_VALUE for all of them.
+     */
+    public void setPage(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit cannot be negative");
+        }
+        this.offset = offset;
+        this.limit = limit;
+    }
+}
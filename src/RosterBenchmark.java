@@ -0,0 +1,85 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Roster Benchmark Class
+ * 06/11/2025
+ *
+ * The RosterBenchmark class measures withdrawals at the end of a term. It fills a system with
+ * sample students who are each enrolled and graded in several classes, then removes every
+ * senior, first one student at a time and then as a single batch on a fresh copy of the data.
+ */
+
+import java.util.ArrayList;
+import java.util.Random;
+
+public class RosterBenchmark {
+    private static final int SENIOR_GRADE_LEVEL = 12;
+
+    /**
+     * Fills a system with sample students spread evenly over grade levels 9 to 12.
+     * @param studentCount The number of students.
+     * @param classCount The number of classes.
+     * @param classesPerStudent The classes each student is enrolled and graded in.
+     * @return The filled system.
+     */
+    public static SystemManager createTerm(int studentCount, int classCount, int classesPerStudent) {
+        SystemManager manager = new SystemManager();
+        for (int c = 0; c < classCount; c++) {
+            manager.addClass(new Class(String.format("C%04d", c), "Sample Class " + c, "Staff", 1 + c % 7));
+        }
+        Random random = new Random(42);
+        for (int s = 0; s < studentCount; s++) {
+            RegularStudent student = new RegularStudent(String.format("S%06d", s), "Student " + s, 9 + s % 4);
+            manager.addStudent(student);
+            for (int i = 0; i < classesPerStudent; i++) {
+                Class course = manager.getClasses().get(random.nextInt(classCount));
+                manager.enrollStudent(student, course);
+                manager.assignGrade(student.getId(), course.getClassCode(), 50 + random.nextInt(51));
+            }
+        }
+        return manager;
+    }
+
+    /**
+     * Runs the benchmark from the command line.
+     * Usage: java RosterBenchmark [students] [classes] [classesPerStudent]
+     * @param args the optional student count, class count and classes per student
+     */
+    public static void main(String[] args) {
+        int students = (args.length > 0) ? Integer.parseInt(args[0]) : 40000;
+        int classes = (args.length > 1) ? Integer.parseInt(args[1]) : 400;
+        int classesPerStudent = (args.length > 2) ? Integer.parseInt(args[2]) : 6;
+        System.out.printf("Withdrawing all seniors from %d students in %d classes (%d classes each)%n",
+                students, classes, classesPerStudent);
+
+        SystemManager manager = createTerm(students, classes, classesPerStudent);
+        ArrayList<String> seniors = seniorIds(manager);
+        long start = System.nanoTime();
+        for (String id : seniors) {
+            manager.removeStudent(id);
+        }
+        report("One at a time", seniors.size(), System.nanoTime() - start, manager);
+
+        manager = createTerm(students, classes, classesPerStudent);
+        start = System.nanoTime();
+        int removed = manager.removeStudents(seniors);
+        report("As a batch", removed, System.nanoTime() - start, manager);
+    }
+
+    private static ArrayList<String> seniorIds(SystemManager manager) {
+        ArrayList<String> seniors = new ArrayList<>();
+        for (RegularStudent student : manager.getStudents()) {
+            if (student.getGradeLevel() == SENIOR_GRADE_LEVEL) {
+                seniors.add(student.getId());
+            }
+        }
+        return seniors;
+    }
+
+    private static void report(String label, int removed, long nanos, SystemManager manager) {
+        System.out.printf("%s: removed %d students in %.1f ms (%.0f removals/sec); %d students and %d enrollments left%n",
+                label, removed, nanos / 1e6, removed / (nanos / 1e9), manager.getStudents().size(),
+                manager.getTotalEnrollments());
+    }
+}
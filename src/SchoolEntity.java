@@ -7,7 +7,8 @@
  *
  * The SchoolEntity class is the abstract base class for entities in the student management system,
  * defining common attributes like ID and name. It provides common methods for all entities,
- * reducing code duplication across students and other entities.
+ * reducing code duplication across students and other entities. The details string is built
+ * once and cached until the name changes.
  */
 
 // Abstract base class for all entities/types of students in system
@@ -16,6 +17,9 @@ public abstract class SchoolEntity {
     private String name;
     private boolean isActive;
 
+    // The rendered details, or null until they are next asked for
+    private String details;
+
     public SchoolEntity(String id, String name) {
         if (id == null || id.isEmpty() || name == null || name.isEmpty()) {
             throw new IllegalArgumentException("ID and name cannot be null or empty");
@@ -23,6 +27,7 @@ public abstract class SchoolEntity {
         this.id = id;
         this.name = name;
         this.isActive = true;
+        this.details = null;
     }
 
     /**
@@ -30,8 +35,11 @@ public abstract class SchoolEntity {
      * @return String containing id and name
      */
     public String getDetails() {
-        String details = "ID: " + this.id + ", Name: " + this.name;
-        return details;
+        if (this.details == null) {
+            this.details = new StringBuilder(16 + this.id.length() + this.name.length())
+                    .append("ID: ").append(this.id).append(", Name: ").append(this.name).toString();
+        }
+        return this.details;
     }
 
     /**
@@ -73,6 +81,7 @@ public abstract class SchoolEntity {
     public void setName(String name) {
         if (name != null && !name.trim().isEmpty()) {
             this.name = name;
+            this.details = null;
         }
     }
 }
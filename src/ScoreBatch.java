@@ -0,0 +1,205 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Score Batch Class
+ * 06/11/2025
+ *
+ * The ScoreBatch class stores a whole assignment's scores in columns for the grade curving
+ * utility: one array of original scores, one of curved scores, and the student IDs packed
+ * into a single char array. Curves can then run as tight loops over primitive arrays.
+ */
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+public class ScoreBatch implements ScoreSink {
+    private double[] originalScores;
+    private double[] curvedScores;
+    private char[] idChars;
+    private int[] idOffsets;
+    private int idLength;
+    private int size;
+
+    public ScoreBatch() {
+        this(1024);
+    }
+
+    public ScoreBatch(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        this.originalScores = new double[capacity];
+        this.curvedScores = new double[capacity];
+        this.idChars = new char[capacity * 8];
+        this.idOffsets = new int[capacity + 1];
+        this.idLength = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Creates a batch holding the same scores as a list of AssignmentScore objects.
+     * @param scores the scores to copy
+     * @return A new ScoreBatch with the original and current curved scores.
+     */
+    public static ScoreBatch fromList(ArrayList<AssignmentScore> scores) {
+        ScoreBatch batch = new ScoreBatch(scores.size());
+        for (AssignmentScore score : scores) {
+            batch.add(score.getStudentID(), score.getOriginalScore());
+            batch.curvedScores[batch.size - 1] = score.getCurvedScore();
+        }
+        return batch;
+    }
+
+    /**
+     * Copies this batch's curved scores back onto the list it was created from.
+     * @param scores the list, in the same order as this batch
+     */
+    public void copyCurvedScoresTo(ArrayList<AssignmentScore> scores) {
+        for (int i = 0; i < this.size; i++) {
+            scores.get(i).setCurvedScore(this.curvedScores[i]);
+        }
+    }
+
+    /**
+     * Adds a score to the batch. The curved score starts out equal to the original.
+     * @param studentID the student's ID
+     * @param originalScore the student's original score
+     */
+    public void add(CharSequence studentID, double originalScore) {
+        if (this.size == this.originalScores.length) {
+            int capacity = this.size * 2;
+            double[] originals = new double[capacity];
+            double[] curved = new double[capacity];
+            int[] offsets = new int[capacity + 1];
+            System.arraycopy(this.originalScores, 0, originals, 0, this.size);
+            System.arraycopy(this.curvedScores, 0, curved, 0, this.size);
+            System.arraycopy(this.idOffsets, 0, offsets, 0, this.size + 1);
+            this.originalScores = originals;
+            this.curvedScores = curved;
+            this.idOffsets = offsets;
+        }
+
+        int length = studentID.length();
+        if (this.idLength + length > this.idChars.length) {
+            char[] chars = new char[Math.max(this.idChars.length * 2, this.idLength + length)];
+            System.arraycopy(this.idChars, 0, chars, 0, this.idLength);
+            this.idChars = chars;
+        }
+        for (int i = 0; i < length; i++) {
+            this.idChars[this.idLength + i] = studentID.charAt(i);
+        }
+        this.idLength += length;
+
+        this.originalScores[this.size] = originalScore;
+        this.curvedScores[this.size] = originalScore;
+        this.size++;
+        this.idOffsets[this.size] = this.idLength;
+    }
+
+    /**
+     * Adds a streamed score to the batch.
+     * @param studentID the student's ID
+     * @param score the original score
+     */
+    @Override
+    public void accept(CharSequence studentID, double score) {
+        add(studentID, score);
+    }
+
+    /**
+     * Gets the number of scores in the batch.
+     * @return The number of scores.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets a student's ID as a new String.
+     * @param index the position of the score
+     * @return The student ID.
+     */
+    public String getStudentID(int index) {
+        checkIndex(index);
+        return new String(this.idChars, this.idOffsets[index], this.idOffsets[index + 1] - this.idOffsets[index]);
+    }
+
+    /**
+     * Writes a student's ID straight from the packed ID column.
+     * @param index the position of the score
+     * @param writer the writer to append to
+     * @throws IOException if the writer fails
+     */
+    public void appendStudentID(int index, CsvWriter writer) throws IOException {
+        checkIndex(index);
+        writer.append(this.idChars, this.idOffsets[index], this.idOffsets[index + 1] - this.idOffsets[index]);
+    }
+
+    /**
+     * Gets a student's original score.
+     * @param index the position of the score
+     * @return The original score.
+     */
+    public double getOriginalScore(int index) {
+        checkIndex(index);
+        return this.originalScores[index];
+    }
+
+    /**
+     * Gets a student's curved score.
+     * @param index the position of the score
+     * @return The curved score.
+     */
+    public double getCurvedScore(int index) {
+        checkIndex(index);
+        return this.curvedScores[index];
+    }
+
+    /**
+     * Sets a curved score, ensuring it stays within the 0-100 range.
+     * @param index the position of the score
+     * @param curvedScore the new curved score
+     */
+    public void setCurvedScore(int index, double curvedScore) {
+        checkIndex(index);
+        this.curvedScores[index] = clamp(curvedScore);
+    }
+
+    /**
+     * Gets the original score column. Only the first size() entries are in use,
+     * and the array must not be modified.
+     * @return The backing array of original scores.
+     */
+    public double[] getOriginalScores() {
+        return this.originalScores;
+    }
+
+    /**
+     * Gets the curved score column for curves to write into directly. Only the
+     * first size() entries are in use, and values written must already be clamped.
+     * @return The backing array of curved scores.
+     */
+    public double[] getCurvedScores() {
+        return this.curvedScores;
+    }
+
+    /**
+     * Limits a curved score to the 0-100 range, as AssignmentScore does.
+     * @param score the score to limit
+     * @return The score, capped at 0 and 100.
+     */
+    public static double clamp(double score) {
+        if (score > 100.0) {
+            return 100.0;
+        } else if (score < 0.0) {
+            return 0.0;
+        }
+        return score;
+    }
+
+    // Ensures an index refers to a score in the batch
+    private void checkIndex(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of range for " + this.size + " scores");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Score Curve Interface
+ * 06/11/2025
+ *
+ * The ScoreCurve interface is a CurveStrategy that curves each score on its own, using at
+ * most the curve value and the mean and standard deviation of all scores. Because no score
+ * depends on another, these curves can be streamed from a file or curved in parallel chunks.
+ */
+
+/**
+ * Interface defining a curve that maps each score independently.
+ */
+public interface ScoreCurve extends CurveStrategy {
+    /**
+     * Curves a single score. Results are clamped to 0-100 by the caller.
+     * @param score the original score
+     * @param curveValue the curve value, if the curve uses one
+     * @param stats the score statistics, or null if the curve does not need them
+     * @return the curved score
+     */
+    double curve(double score, double curveValue, ScoreStatistics stats);
+
+    /**
+     * Curves every score in a batch by curving each one in turn.
+     * @param batch the scores to curve
+     * @param curveValue the curve value, if the curve uses one
+     * @param stats the score statistics, or null if the curve does not need them
+     */
+    @Override
+    default void apply(ScoreBatch batch, double curveValue, ScoreStatistics stats) {
+        double[] original = batch.getOriginalScores();
+        double[] curved = batch.getCurvedScores();
+        for (int i = 0; i < batch.size(); i++) {
+            curved[i] = ScoreBatch.clamp(curve(original[i], curveValue, stats));
+        }
+    }
+}
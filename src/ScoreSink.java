@@ -0,0 +1,24 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Score Sink Interface
+ * 06/11/2025
+ *
+ * The ScoreSink interface receives assignment scores one at a time as they are read,
+ * letting the grade curving utility stream large score files without creating an
+ * object for every row.
+ */
+
+/**
+ * Interface for consumers of streamed assignment scores.
+ */
+public interface ScoreSink {
+    /**
+     * Accepts one student's score.
+     * @param studentID the student's ID; the view is only valid during this call,
+     *                  so call toString() on it if it needs to be kept
+     * @param score the original score
+     */
+    void accept(CharSequence studentID, double score);
+}
@@ -0,0 +1,164 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Score Statistics Class
+ * 06/11/2025
+ *
+ * The ScoreStatistics class is an online accumulator for an assignment's scores, tracking the
+ * count, mean, sum of squared deviations, minimum and maximum with Welford's method. Scores can
+ * be added one at a time while a file streams, and partial results can be merged across threads.
+ */
+
+public class ScoreStatistics {
+    private long count;
+    private double mean;
+    private double m2;
+    private double min;
+    private double max;
+
+    public ScoreStatistics() {
+        this.count = 0;
+        this.mean = 0.0;
+        this.m2 = 0.0;
+        this.min = Double.POSITIVE_INFINITY;
+        this.max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Computes the statistics of the first n scores of an array. With the whole array
+     * in memory this uses an exact two-pass calculation.
+     * @param scores the scores
+     * @param n the number of scores in use
+     * @return The statistics of the scores.
+     */
+    public static ScoreStatistics of(double[] scores, int n) {
+        ScoreStatistics stats = new ScoreStatistics();
+        if (n == 0) {
+            return stats;
+        }
+
+        double sum = 0.0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            sum += scores[i];
+            min = Math.min(min, scores[i]);
+            max = Math.max(max, scores[i]);
+        }
+        double mean = sum / n;
+
+        double varianceSum = 0.0;
+        for (int i = 0; i < n; i++) {
+            double deviation = scores[i] - mean;
+            varianceSum += deviation * deviation;
+        }
+
+        stats.count = n;
+        stats.mean = mean;
+        stats.m2 = varianceSum;
+        stats.min = min;
+        stats.max = max;
+        return stats;
+    }
+
+    /**
+     * Adds one score to the running statistics.
+     * @param score the score to add
+     */
+    public void add(double score) {
+        this.count++;
+        double delta = score - this.mean;
+        this.mean += delta / this.count;
+        this.m2 += delta * (score - this.mean);
+        this.min = Math.min(this.min, score);
+        this.max = Math.max(this.max, score);
+    }
+
+    /**
+     * Adds a range of scores to the running statistics.
+     * @param scores the scores
+     * @param from the first index to add
+     * @param to the index after the last one to add
+     */
+    public void addAll(double[] scores, int from, int to) {
+        for (int i = from; i < to; i++) {
+            add(scores[i]);
+        }
+    }
+
+    /**
+     * Combines another accumulator's scores into this one, as if every score had been
+     * added here. Used to merge partial statistics computed on different threads.
+     * @param other the statistics to merge in
+     */
+    public void merge(ScoreStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (this.count == 0) {
+            this.count = other.count;
+            this.mean = other.mean;
+            this.m2 = other.m2;
+            this.min = other.min;
+            this.max = other.max;
+            return;
+        }
+
+        long total = this.count + other.count;
+        double delta = other.mean - this.mean;
+        this.mean += delta * other.count / total;
+        this.m2 += other.m2 + delta * delta * ((double) this.count * other.count / total);
+        this.count = total;
+        this.min = Math.min(this.min, other.min);
+        this.max = Math.max(this.max, other.max);
+    }
+
+    /**
+     * Gets the number of scores.
+     * @return The count.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Gets the mean score.
+     * @return The mean, or 0.0 if there are no scores.
+     */
+    public double getMean() {
+        return this.mean;
+    }
+
+    /**
+     * Gets the population variance of the scores.
+     * @return The variance, or 0.0 if there are no scores.
+     */
+    public double getVariance() {
+        return (this.count == 0) ? 0.0 : this.m2 / this.count;
+    }
+
+    /**
+     * Gets the population standard deviation of the scores.
+     * @return The standard deviation.
+     */
+    public double getStdDev() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Gets the lowest score.
+     * @return The minimum, or positive infinity if there are no scores.
+     */
+    public double getMin() {
+        return this.min;
+    }
+
+    /**
+     * Gets the highest score.
+     * @return The maximum, or negative infinity if there are no scores.
+     */
+    public double getMax() {
+        return this.max;
+    }
+}
@@ -0,0 +1,459 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Student Importer Class
+ * 06/11/2025
+ *
+ * The StudentImporter class imports student, class, and grade data from a CSV file into a
+ * SystemManager as a staged pipeline. Records are read in chunks, parsed in parallel on a pool
+ * of worker threads, and then applied to the system in file order on the calling thread.
+ * An incremental import runs the same pipeline but compares each row with the system and
+ * applies only the differences, so re-importing a mostly unchanged file changes very little.
+ */
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class StudentImporter {
+    private static final int DEFAULT_CHUNK_SIZE = 4096;
+
+    // A record this long almost certainly comes from a quote that is never closed
+    private static final int MAX_RECORD_LENGTH = 1024 * 1024;
+
+    private SystemManager manager;
+    private int workerCount;
+    private int chunkSize;
+
+    public StudentImporter(SystemManager manager) {
+        this(manager, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public StudentImporter(SystemManager manager, int workerCount, int chunkSize) {
+        if (manager == null || workerCount < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("Invalid importer parameters");
+        }
+        this.manager = manager;
+        this.workerCount = workerCount;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports a student CSV file. Rows that cannot be parsed are recorded in the
+     * result and skipped instead of stopping the import.
+     * @param filePath The path to the student CSV file.
+     * @return An ImportResult describing the rows read, applied, and rejected.
+     * @throws IOException if the file cannot be read
+     */
+    public ImportResult importFile(String filePath) throws IOException {
+        ImportResult result = new ImportResult();
+        long start = System.nanoTime();
+        importRows(filePath, result, false, null);
+        finish(result, start);
+        return result;
+    }
+
+    /**
+     * Imports a new copy of a student CSV file that was imported before, applying only the
+     * differences. Each student's row is compared with the system by (student, class) pair:
+     * new students, enrollments and grades are added, changed names, grade levels and grades
+     * are updated in place, and classes the row no longer lists are withdrawn. A student whose
+     * type changed between Regular and AP is replaced, since the type cannot change in place. Rows that
+     * already match are skipped without changing anything or writing to the journal.
+     * @param filePath The path to the student CSV file.
+     * @param removeMissing Whether to remove students who are not in the file. Nothing is
+     *                      removed if any row could not be imported, since a rejected row's
+     *                      student would otherwise look missing.
+     * @return An ImportResult that also counts new, changed and unchanged rows.
+     * @throws IOException if the file cannot be read
+     */
+    public ImportResult importChanges(String filePath, boolean removeMissing) throws IOException {
+        ImportResult result = new ImportResult();
+        long start = System.nanoTime();
+        HashSet<String> seenIds = removeMissing ? new HashSet<>() : null;
+        importRows(filePath, result, true, seenIds);
+
+        if (removeMissing && result.getErrorCount() == 0) {
+            ArrayList<String> missing = new ArrayList<>();
+            for (RegularStudent student : manager.getStudents()) {
+                if (!seenIds.contains(student.getId())) {
+                    missing.add(student.getId());
+                }
+            }
+            if (!missing.isEmpty()) {
+                result.setStudentsRemoved(manager.removeStudents(missing));
+            }
+        }
+        finish(result, start);
+        Metrics.count("import.rowsInserted", result.getRowsInserted());
+        Metrics.count("import.rowsUpdated", result.getRowsUpdated());
+        Metrics.count("import.rowsUnchanged", result.getRowsUnchanged());
+        Metrics.count("import.studentsRemoved", result.getStudentsRemoved());
+        return result;
+    }
+
+    /**
+     * Reads, parses and applies every row of a file.
+     * @param filePath the path to the student CSV file
+     * @param result the result to update
+     * @param incremental whether to apply only the differences from each row
+     * @param seenIds collects the ID of every row read, or null if not needed
+     * @throws IOException if the file cannot be read
+     */
+    private void importRows(String filePath, ImportResult result, boolean incremental, HashSet<String> seenIds)
+            throws IOException {
+        ExecutorService workers = Executors.newFixedThreadPool(this.workerCount);
+        // Parsed chunks waiting to be applied, oldest first; bounded so memory stays flat
+        ArrayDeque<Future<ParsedChunk>> pending = new ArrayDeque<>();
+        int maxPending = this.workerCount * 2;
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+            reader.readLine();
+            long lineNumber = 1;
+
+            while (true) {
+                String[] lines = new String[this.chunkSize];
+                long[] lineNumbers = new long[this.chunkSize];
+                int count = 0;
+                String line;
+                while (count < this.chunkSize && (line = reader.readLine()) != null) {
+                    lineNumber++;
+                    lineNumbers[count] = lineNumber;
+                    // A quoted field may span lines, so keep reading until it is closed
+                    if (endsInQuotedField(line, false)) {
+                        StringBuilder joined = new StringBuilder(line);
+                        boolean open = true;
+                        while (open && joined.length() <= MAX_RECORD_LENGTH && (line = reader.readLine()) != null) {
+                            lineNumber++;
+                            joined.append('\n').append(line);
+                            open = endsInQuotedField(line, true);
+                        }
+                        // An over-long record is left null and reported by parseChunk
+                        line = (joined.length() > MAX_RECORD_LENGTH) ? null : joined.toString();
+                    }
+                    lines[count++] = line;
+                }
+                if (count == 0) {
+                    break;
+                }
+
+                int chunkLength = count;
+                pending.add(workers.submit(() -> parseChunk(lines, lineNumbers, chunkLength)));
+                if (pending.size() >= maxPending) {
+                    applyChunk(pending.poll(), result, incremental, seenIds);
+                }
+            }
+
+            while (!pending.isEmpty()) {
+                applyChunk(pending.poll(), result, incremental, seenIds);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    // Records how long the import took and adds it to the metrics
+    private static void finish(ImportResult result, long start) {
+        result.setElapsedNanos(System.nanoTime() - start);
+        Metrics.count("import.rowsRead", result.getRowsRead());
+        Metrics.count("import.rowsApplied", result.getRowsApplied());
+        Metrics.setGauge("import.lastRowsPerSecond", result.getRowsPerSecond());
+    }
+
+    /**
+     * Parses a chunk of CSV records into rows. Runs on a worker thread and does not
+     * touch the SystemManager.
+     * @param lines the raw text of each record
+     * @param lineNumbers the file line number each record starts on
+     * @param count the number of records in use
+     * @return The parsed rows and any row-level errors.
+     * @throws IOException if a record cannot be tokenized
+     */
+    private ParsedChunk parseChunk(String[] lines, long[] lineNumbers, int count) throws IOException {
+        ParsedChunk chunk = new ParsedChunk(count);
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        for (int i = 0; i < count; i++) {
+            if (lines[i] == null) {
+                chunk.rows.add(null);
+                chunk.addError(lineNumbers[i], "Record is longer than " + MAX_RECORD_LENGTH
+                        + " characters; check for a quote that is never closed", "");
+                Metrics.count("import.errors.recordTooLong", 1);
+                continue;
+            }
+            tokenizer.reset(lines[i]);
+            tokenizer.nextRecord();
+            int fields = tokenizer.getTrimmedFieldCount();
+            if (fields == 0) {
+                chunk.rows.add(null);
+                continue;
+            }
+            if (fields < 4) {
+                chunk.rows.add(null);
+                chunk.addError(lineNumbers[i], "Expected at least 4 fields but found " + fields, tokenizer.getString(0));
+                Metrics.count("import.errors.tooFewFields", 1);
+                continue;
+            }
+
+            try {
+                ParsedRow row = new ParsedRow();
+                row.lineNumber = lineNumbers[i];
+                row.id = tokenizer.getString(0);
+                row.name = tokenizer.getString(1);
+                row.gradeLevel = tokenizer.getInt(2);
+                row.type = tokenizer.getString(3);
+
+                int pairs = (fields - 4) / 2;
+                row.classCodes = new String[pairs];
+                row.grades = new double[pairs];
+                for (int p = 0; p < pairs; p++) {
+                    row.classCodes[p] = tokenizer.getString(4 + p * 2);
+                    row.grades[p] = tokenizer.getDouble(5 + p * 2);
+                }
+                chunk.rows.add(row);
+            } catch (NumberFormatException e) {
+                chunk.rows.add(null);
+                chunk.addError(lineNumbers[i], "Invalid number: " + e.getMessage(), tokenizer.getString(0));
+                Metrics.count("import.errors.invalidNumber", 1);
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Checks whether a line ends inside a quoted field, following the same rules as
+     * CsvTokenizer: a quote only opens a field at its start (after any spaces), a doubled
+     * quote inside the field is a literal quote, and a quote anywhere else, as in O"Brien,
+     * is an ordinary character.
+     * @param line one line of the file
+     * @param inQuotes whether the line continues a quoted field from the line before
+     * @return true if the line ends with a quoted field still open
+     */
+    static boolean endsInQuotedField(String line, boolean inQuotes) {
+        boolean fieldStart = !inQuotes;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (inQuotes) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        i++;
+                    } else {
+                        inQuotes = false;
+                    }
+                }
+            } else if (c == ',') {
+                fieldStart = true;
+            } else if (c == '"' && fieldStart) {
+                inQuotes = true;
+                fieldStart = false;
+            } else if (c != ' ' && c != '\t') {
+                fieldStart = false;
+            }
+        }
+        return inQuotes;
+    }
+
+    /**
+     * Waits for a parsed chunk and applies its rows to the system in order.
+     * @param future the pending chunk
+     * @param result the result to update
+     * @param incremental whether to apply only the differences from each row
+     * @param seenIds collects the ID of every row read, or null if not needed
+     * @throws IOException if the parse task failed or the import was interrupted
+     */
+    private void applyChunk(Future<ParsedChunk> future, ImportResult result, boolean incremental,
+            HashSet<String> seenIds) throws IOException {
+        ParsedChunk chunk;
+        try {
+            chunk = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to parse import data", e.getCause());
+        }
+
+        for (int i = 0; i < chunk.errorLines.size(); i++) {
+            result.addError(chunk.errorLines.get(i), chunk.errorMessages.get(i));
+            // A rejected row still names its student, who must not be taken for missing
+            if (seenIds != null && !chunk.errorIds.get(i).isEmpty()) {
+                seenIds.add(chunk.errorIds.get(i));
+            }
+        }
+        for (ParsedRow row : chunk.rows) {
+            result.rowRead();
+            if (row != null) {
+                if (seenIds != null) {
+                    seenIds.add(row.id);
+                }
+                try {
+                    if (incremental) {
+                        applyChanges(row, result);
+                    } else {
+                        applyRow(row);
+                    }
+                    result.rowApplied();
+                } catch (IllegalArgumentException e) {
+                    result.addError(row.lineNumber, e.getMessage());
+                    Metrics.count("import.errors.rejected", 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Merges one parsed row's student, classes, enrollments and grades into the system.
+     * @param row the parsed row
+     */
+    private void applyRow(ParsedRow row) {
+        RegularStudent student = manager.findStudentById(row.id).orElse(null);
+        if (student == null) {
+            if ("AP".equalsIgnoreCase(row.type)) {
+                student = new APStudent(row.id, row.name, row.gradeLevel);
+            } else {
+                student = new RegularStudent(row.id, row.name, row.gradeLevel);
+            }
+            manager.addStudent(student);
+        }
+
+        for (int i = 0; i < row.classCodes.length; i++) {
+            Class course = manager.findOrCreateClass(row.classCodes[i]);
+            manager.enrollStudent(student, course);
+            manager.assignGrade(student.getId(), row.classCodes[i], row.grades[i]);
+        }
+    }
+
+    /**
+     * Brings one student into line with a parsed row, changing only what differs, and
+     * records whether the row was new, changed, or already up to date. If a row lists a
+     * class more than once, the last grade for it wins.
+     * @param row the parsed row
+     * @param result the result to update
+     */
+    private void applyChanges(ParsedRow row, ImportResult result) {
+        RegularStudent student = manager.findStudentById(row.id).orElse(null);
+        boolean inserted = (student == null);
+        boolean changed = false;
+        boolean apRow = "AP".equalsIgnoreCase(row.type);
+        if (!inserted && (student instanceof APStudent) != apRow) {
+            // The type decides how GPA is computed, so a changed type replaces the student
+            manager.removeStudent(row.id);
+            student = null;
+            changed = true;
+        }
+        if (student == null) {
+            if (apRow) {
+                student = new APStudent(row.id, row.name, row.gradeLevel);
+            } else {
+                student = new RegularStudent(row.id, row.name, row.gradeLevel);
+            }
+            manager.addStudent(student);
+        } else {
+            // The same checks setName and setGradeLevel make, so an ignored value is not a change
+            boolean nameChanged = !row.name.trim().isEmpty() && !row.name.equals(student.getName());
+            boolean levelChanged = row.gradeLevel >= 1 && row.gradeLevel <= 12 && row.gradeLevel != student.getGradeLevel();
+            if (nameChanged || levelChanged) {
+                manager.editStudent(row.id, nameChanged ? row.name : student.getName(),
+                        levelChanged ? row.gradeLevel : student.getGradeLevel());
+                changed = true;
+            }
+        }
+
+        int rowClasses = 0;
+        for (int i = 0; i < row.classCodes.length; i++) {
+            String classCode = row.classCodes[i];
+            if (indexOf(row.classCodes, classCode, i + 1) >= 0) {
+                continue;
+            }
+            rowClasses++;
+            if (!student.isEnrolledIn(classCode)) {
+                manager.enrollStudent(student, manager.findOrCreateClass(classCode));
+                changed = true;
+            }
+            GradeRecord record = manager.findGradeRecord(row.id, classCode).orElse(null);
+            // An out-of-range grade leaves an existing record as it is, so it is not a change
+            double grade = row.grades[i];
+            if (record == null || (grade == GradeRecord.validGrade(grade) && record.getGrade() != grade)) {
+                manager.assignGrade(row.id, classCode, grade);
+                changed = true;
+            }
+        }
+
+        // Every class in the row is now enrolled and graded, so anything more is no longer listed
+        if (student.getClasses().size() > rowClasses || student.getGradedClassCount() > rowClasses) {
+            ArrayList<String> dropped = new ArrayList<>();
+            for (Class course : student.getClasses()) {
+                if (indexOf(row.classCodes, course.getClassCode(), 0) < 0) {
+                    dropped.add(course.getClassCode());
+                }
+            }
+            for (GradeRecord record : manager.getGradesForStudent(row.id)) {
+                if (indexOf(row.classCodes, record.getClassCode(), 0) < 0 && !dropped.contains(record.getClassCode())) {
+                    dropped.add(record.getClassCode());
+                }
+            }
+            for (String classCode : dropped) {
+                manager.withdrawStudent(row.id, classCode);
+            }
+            changed = true;
+        }
+
+        if (inserted) {
+            result.rowInserted();
+        } else if (changed) {
+            result.rowUpdated();
+        } else {
+            result.rowUnchanged();
+        }
+    }
+
+    // Finds a class code in a row, starting from an index; rows list only a few classes
+    private static int indexOf(String[] classCodes, String classCode, int from) {
+        for (int i = from; i < classCodes.length; i++) {
+            if (classCodes[i].equals(classCode)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // A single CSV row after parsing, before it is applied to the system
+    private static class ParsedRow {
+        private long lineNumber;
+        private String id;
+        private String name;
+        private int gradeLevel;
+        private String type;
+        private String[] classCodes;
+        private double[] grades;
+    }
+
+    // The parsed rows of one chunk, with null entries for skipped rows
+    private static class ParsedChunk {
+        private ArrayList<ParsedRow> rows;
+        private ArrayList<Long> errorLines;
+        private ArrayList<String> errorMessages;
+        private ArrayList<String> errorIds;
+
+        private ParsedChunk(int size) {
+            this.rows = new ArrayList<>(size);
+            this.errorLines = new ArrayList<>();
+            this.errorMessages = new ArrayList<>();
+            this.errorIds = new ArrayList<>();
+        }
+
+        private void addError(long lineNumber, String message, String studentId) {
+            this.errorLines.add(lineNumber);
+            this.errorMessages.add(message);
+            this.errorIds.add(studentId);
+        }
+    }
+}
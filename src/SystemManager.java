@@ -8,28 +8,101 @@
  * The SystemManager class is the central coordinator of the student management system,
  * managing students, classes, grades, and curving operations. It provides methods to add,
  * edit, remove, and manage students, classes, and grades, orchestrating all system functionality.
+ * A student has at most one grade per class; assigning another updates it in place.
  */
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.AbstractCollection;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 public class SystemManager {
+    // Characters of report text buffered before each write in writeReport
+    private static final int REPORT_CHUNK_SIZE = 32 * 1024;
+
+    // How many past values each grade keeps, unless changed; 0 keeps none
+    private static final int DEFAULT_HISTORY_DEPTH =
+            Math.max(0, Math.min(GradeHistory.MAX_CAPACITY, Integer.getInteger("grades.historyDepth", 0)));
+
+    // Metrics for every public operation, shared with ConcurrentSystemManager; the fastest
+    // operations only have some of their calls timed
+    static final OperationTimer FIND_STUDENT_TIMER = Metrics.timer("SystemManager.findStudentById", 64);
+    static final OperationTimer FIND_CLASS_TIMER = Metrics.timer("SystemManager.findClassByCode", 64);
+    static final OperationTimer ADD_STUDENT_TIMER = Metrics.timer("SystemManager.addStudent", 16);
+    static final OperationTimer REMOVE_STUDENT_TIMER = Metrics.timer("SystemManager.removeStudent");
+    static final OperationTimer REMOVE_STUDENTS_TIMER = Metrics.timer("SystemManager.removeStudents");
+    static final OperationTimer EDIT_STUDENT_TIMER = Metrics.timer("SystemManager.editStudent");
+    static final OperationTimer ADD_CLASS_TIMER = Metrics.timer("SystemManager.addClass", 16);
+    static final OperationTimer ENROLL_TIMER = Metrics.timer("SystemManager.enrollStudent", 16);
+    static final OperationTimer ASSIGN_GRADE_TIMER = Metrics.timer("SystemManager.assignGrade", 16);
+    static final OperationTimer FIND_GRADE_TIMER = Metrics.timer("SystemManager.findGradeRecord", 16);
+    static final OperationTimer WITHDRAW_TIMER = Metrics.timer("SystemManager.withdrawStudent");
+    static final OperationTimer IMPORT_TIMER = Metrics.timer("SystemManager.importStudentsFromCSV");
+    static final OperationTimer IMPORT_CHANGES_TIMER = Metrics.timer("SystemManager.importStudentChangesFromCSV");
+    static final OperationTimer EXPORT_TIMER = Metrics.timer("SystemManager.exportStudentsToCSV");
+    static final OperationTimer GRADES_FOR_STUDENT_TIMER = Metrics.timer("SystemManager.getGradesForStudent", 16);
+    static final OperationTimer GRADES_FOR_CLASS_TIMER = Metrics.timer("SystemManager.getGradesForClass");
+    static final OperationTimer TOP_STUDENTS_TIMER = Metrics.timer("SystemManager.getTopStudents");
+    static final OperationTimer TOP_STUDENTS_IN_CLASS_TIMER = Metrics.timer("SystemManager.getTopStudentsInClass");
+    static final OperationTimer REPORT_TIMER = Metrics.timer("SystemManager.generateReport");
+    static final OperationTimer WRITE_REPORT_TIMER = Metrics.timer("SystemManager.writeReport");
+    static final OperationTimer WRITE_SCHEDULES_TIMER = Metrics.timer("SystemManager.writeSchedules");
+
     private ArrayList<RegularStudent> students;
     private ArrayList<Class> classes;
-    private ArrayList<GradeRecord> gradeRecords;
     private int totalEnrollments;
 
+    // All grade records in assignment order; a removed record leaves a null until the list is compacted
+    private ArrayList<GradeRecord> gradeRecords;
+    private int removedGradeRecords;
+
+    // One shared copy of every student ID and class code, so grade records do not hold their own
+    private IdDictionary studentIds;
+    private IdDictionary classCodes;
+
+    // Primary indexes kept in sync with the lists above for O(1) lookups
+    private HashMap<String, RegularStudent> studentsById;
+    private HashMap<String, Class> classesByCode;
+
+    // Secondary indexes over gradeRecords, keyed by student ID and class code
+    private HashMap<String, ArrayList<GradeRecord>> gradesByStudent;
+    private HashMap<String, ArrayList<GradeRecord>> gradesByClass;
+
+    // The one grade record for each (student, class) pair, keyed by gradeKey
+    private GradeIndex gradesByKey;
+    private volatile int gradeHistoryDepth;
+
+    // School-wide GPA ranking of the best students
+    private Leaderboard leaderboard;
+
+    // Optional write-ahead log of changes, and the sequence of the last change applied
+    private MutationJournal journal;
+    private long journalSequence;
+
     public SystemManager() {
         this.students = new ArrayList<>();
         this.classes = new ArrayList<>();
         this.gradeRecords = new ArrayList<>();
+        this.removedGradeRecords = 0;
+        this.studentIds = new IdDictionary();
+        this.classCodes = new IdDictionary();
+        this.studentsById = new HashMap<>();
+        this.classesByCode = new HashMap<>();
+        this.gradesByStudent = new HashMap<>();
+        this.gradesByClass = new HashMap<>();
+        this.gradesByKey = new GradeIndex();
+        this.gradeHistoryDepth = DEFAULT_HISTORY_DEPTH;
         this.totalEnrollments = 0;
+        this.leaderboard = new Leaderboard(Leaderboard.DEFAULT_CAPACITY, this::getStudents);
     }
 
     /**
@@ -38,9 +111,26 @@ public class SystemManager {
      * @return An Optional containing the student if found, otherwise empty.
      */
     public Optional<RegularStudent> findStudentById(String studentId) {
-        return students.stream()
-                .filter(s -> s.getId().equals(studentId))
-                .findFirst();
+        long start = FIND_STUDENT_TIMER.start();
+        try {
+            return Optional.ofNullable(studentsById.get(studentId));
+        } finally {
+            FIND_STUDENT_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Finds a class by its code.
+     * @param classCode The code of the class to find.
+     * @return An Optional containing the class if found, otherwise empty.
+     */
+    public Optional<Class> findClassByCode(String classCode) {
+        long start = FIND_CLASS_TIMER.start();
+        try {
+            return Optional.ofNullable(classesByCode.get(classCode));
+        } finally {
+            FIND_CLASS_TIMER.stop(start);
+        }
     }
 
     /**
@@ -48,8 +138,27 @@ public class SystemManager {
      * @param student the student to add
      */
     public void addStudent(RegularStudent student) {
-        if (student != null && findStudentById(student.getId()).isEmpty()) {
-            this.students.add(student);
+        long start = ADD_STUDENT_TIMER.start();
+        try {
+            if (student != null && !studentsById.containsKey(student.getId())) {
+                if (journal != null) {
+                    this.journalSequence = journal.logAddStudent(student);
+                }
+                this.students.add(student);
+                this.studentsById.put(student.getId(), student);
+                this.studentIds.idOf(student.getId());
+
+                // Pick up any grades that were recorded before the student was added
+                ArrayList<GradeRecord> studentGrades = gradesByStudent.get(student.getId());
+                if (studentGrades != null) {
+                    for (GradeRecord record : studentGrades) {
+                        student.addGrade(record);
+                    }
+                }
+                updateLeaderboards(student);
+            }
+        } finally {
+            ADD_STUDENT_TIMER.stop(start);
         }
     }
 
@@ -59,23 +168,103 @@ public class SystemManager {
      * @return true if the student was found and removed, false otherwise.
      */
     public boolean removeStudent(String studentId) {
-        Optional<RegularStudent> studentToRemoveOpt = findStudentById(studentId);
-        if (studentToRemoveOpt.isEmpty()) {
-            return false;
+        long start = REMOVE_STUDENT_TIMER.start();
+        try {
+            RegularStudent student = studentsById.get(studentId);
+            if (student == null) {
+                return false;
+            }
+            for (GradeRecord record : detachStudent(student)) {
+                ArrayList<GradeRecord> classGrades = gradesByClass.get(record.getClassCode());
+                if (classGrades != null) {
+                    classGrades.remove(record);
+                    if (classGrades.isEmpty()) {
+                        gradesByClass.remove(record.getClassCode());
+                    }
+                }
+            }
+            students.remove(student);
+            return true;
+        } finally {
+            REMOVE_STUDENT_TIMER.stop(start);
         }
-        RegularStudent studentToRemove = studentToRemoveOpt.get();
+    }
 
-        int enrollmentsRemoved = studentToRemove.getClasses().size();
-        this.totalEnrollments -= enrollmentsRemoved;
+    /**
+     * Removes many students at once, such as withdrawals at the end of a term. The student
+     * list and each affected class's grades are filtered once for the whole batch rather
+     * than once per student.
+     * @param studentIds The IDs of the students to remove; unknown IDs are ignored.
+     * @return The number of students removed.
+     */
+    public int removeStudents(Collection<String> studentIds) {
+        long start = REMOVE_STUDENTS_TIMER.start();
+        try {
+            HashSet<String> removedIds = new HashSet<>();
+            HashSet<String> gradedClasses = new HashSet<>();
+            try {
+                for (String studentId : studentIds) {
+                    RegularStudent student = studentsById.get(studentId);
+                    if (student != null && !removedIds.contains(studentId)) {
+                        for (GradeRecord record : detachStudent(student)) {
+                            gradedClasses.add(record.getClassCode());
+                        }
+                        removedIds.add(studentId);
+                    }
+                }
+            } finally {
+                // If the journal fails partway, the students already detached must still leave the lists
+                for (String classCode : gradedClasses) {
+                    ArrayList<GradeRecord> classGrades = gradesByClass.get(classCode);
+                    if (classGrades != null) {
+                        classGrades.removeIf(r -> removedIds.contains(r.getStudentID()));
+                        if (classGrades.isEmpty()) {
+                            gradesByClass.remove(classCode);
+                        }
+                    }
+                }
+                if (!removedIds.isEmpty()) {
+                    students.removeIf(s -> removedIds.contains(s.getId()));
+                }
+            }
+            return removedIds.size();
+        } finally {
+            REMOVE_STUDENTS_TIMER.stop(start);
+        }
+    }
 
-        for (Class c : classes) {
-            c.removeStudent(studentToRemove);
+    /**
+     * Records a student's removal in the journal, then takes them out of every index except
+     * the student list and the per-class grade lists, which the caller filters. Nothing is
+     * changed if the journal write fails.
+     * @param student the student to detach
+     * @return The student's grade records, which are no longer indexed by student.
+     */
+    private ArrayList<GradeRecord> detachStudent(RegularStudent student) {
+        if (journal != null) {
+            this.journalSequence = journal.logRemoveStudent(student.getId());
         }
 
-        gradeRecords.removeIf(record -> record.getStudentID().equals(studentId));
-        students.remove(studentToRemove);
+        // Rosters mirror schedules, so only the student's own classes need updating
+        this.totalEnrollments -= student.getClasses().size();
+        for (Class course : student.getClasses()) {
+            course.removeStudent(student);
+        }
 
-        return true;
+        ArrayList<GradeRecord> studentGrades = gradesByStudent.remove(student.getId());
+        if (studentGrades == null) {
+            studentGrades = new ArrayList<>();
+        }
+        for (GradeRecord record : studentGrades) {
+            gradesByKey.remove(gradeKey(record.getStudentID(), record.getClassCode(), false));
+            unlistGradeRecord(record);
+            if (record.getAggregate() != null) {
+                record.getAggregate().remove(record);
+            }
+        }
+        studentsById.remove(student.getId());
+        removeFromLeaderboards(student);
+        return studentGrades;
     }
 
     /**
@@ -86,14 +275,22 @@ public class SystemManager {
      * @return true if the student was found and edited, false otherwise.
      */
     public boolean editStudent(String studentId, String newName, int newGradeLevel) {
-        Optional<RegularStudent> studentOpt = findStudentById(studentId);
-        if (studentOpt.isPresent()) {
-            RegularStudent student = studentOpt.get();
-            student.setName(newName);
-            student.setGradeLevel(newGradeLevel);
-            return true;
+        long start = EDIT_STUDENT_TIMER.start();
+        try {
+            Optional<RegularStudent> studentOpt = findStudentById(studentId);
+            if (studentOpt.isPresent()) {
+                if (journal != null) {
+                    this.journalSequence = journal.logEditStudent(studentId, newName, newGradeLevel);
+                }
+                RegularStudent student = studentOpt.get();
+                student.setName(newName);
+                student.setGradeLevel(newGradeLevel);
+                return true;
+            }
+            return false;
+        } finally {
+            EDIT_STUDENT_TIMER.stop(start);
         }
-        return false;
     }
 
     /**
@@ -101,8 +298,26 @@ public class SystemManager {
      * @param course the class to add
      */
     public void addClass(Class course) {
-        if (course != null && classes.stream().noneMatch(c -> c.getClassCode().equals(course.getClassCode()))) {
-            this.classes.add(course);
+        long start = ADD_CLASS_TIMER.start();
+        try {
+            if (course != null && !classesByCode.containsKey(course.getClassCode())) {
+                if (journal != null) {
+                    this.journalSequence = journal.logAddClass(course);
+                }
+                this.classes.add(course);
+                this.classesByCode.put(course.getClassCode(), course);
+                this.classCodes.idOf(course.getClassCode());
+
+                // Count any grades that were recorded before the class was added
+                ArrayList<GradeRecord> classGrades = gradesByClass.get(course.getClassCode());
+                if (classGrades != null) {
+                    for (GradeRecord record : classGrades) {
+                        course.getGradeAggregate().add(record);
+                    }
+                }
+            }
+        } finally {
+            ADD_CLASS_TIMER.stop(start);
         }
     }
 
@@ -112,69 +327,186 @@ public class SystemManager {
      * @param course The class to enroll the student in.
      */
     public void enrollStudent(RegularStudent student, Class course) {
-        if (student != null && course != null) {
-            if (student.getClasses().stream().noneMatch(c -> c.getClassCode().equals(course.getClassCode()))) {
-                student.enrollClass(course);
-                this.totalEnrollments++;
+        long start = ENROLL_TIMER.start();
+        try {
+            if (student != null && course != null) {
+                if (!student.isEnrolledIn(course.getClassCode())) {
+                    if (journal != null) {
+                        this.journalSequence = journal.logEnrollStudent(student.getId(), course.getClassCode());
+                    }
+                    student.enrollClass(course);
+                    course.getLeaderboard().update(student);
+                    this.totalEnrollments++;
+                }
             }
+        } finally {
+            ENROLL_TIMER.stop(start);
         }
     }
 
     /**
-     * Assigns a grade to a student for a class.
+     * Assigns a grade to a student for a class. A student has at most one grade per class:
+     * if they already have one, its record is updated in place, keeping the old value in the
+     * record's history if history is on, instead of a second record being added.
      * @param studentID the student's ID
      * @param classCode the class code
      * @param grade the grade to assign
+     * @return true if a new grade record was created, false if an existing one was updated.
+     */
+    public boolean assignGrade(String studentID, String classCode, double grade) {
+        long start = ASSIGN_GRADE_TIMER.start();
+        try {
+            if (studentID == null || classCode == null) {
+                throw new IllegalArgumentException("Student ID and class code cannot be null");
+            }
+            if (journal != null) {
+                this.journalSequence = journal.logAssignGrade(studentID, classCode, grade);
+            }
+            long key = gradeKey(studentID, classCode, true);
+            GradeRecord record = gradesByKey.get(key);
+            boolean created = (record == null);
+            if (!created) {
+                if (gradeHistoryDepth > 0) {
+                    record.keepHistory(gradeHistoryDepth);
+                }
+                record.assignGrade(grade);
+                RegularStudent student = studentsById.get(studentID);
+                if (student != null) {
+                    updateLeaderboards(student);
+                }
+            } else {
+                record = new GradeRecord(studentIds.valueOf((int) (key >>> 32)), classCodes.valueOf((int) key), grade);
+                gradesByKey.put(key, record);
+                listGradeRecord(record);
+                gradesByStudent.computeIfAbsent(record.getStudentID(), k -> new ArrayList<>()).add(record);
+                gradesByClass.computeIfAbsent(record.getClassCode(), k -> new ArrayList<>()).add(record);
+                Class course = classesByCode.get(classCode);
+                if (course != null) {
+                    course.getGradeAggregate().add(record);
+                }
+
+                RegularStudent student = studentsById.get(studentID);
+                if (student != null) {
+                    student.addGrade(record);
+                    updateLeaderboards(student);
+                }
+            }
+            return created;
+        } finally {
+            ASSIGN_GRADE_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Finds a student's grade record for a class.
+     * @param studentID the student's ID
+     * @param classCode the class code
+     * @return The grade record, or empty if the student has no grade in the class.
      */
-    public void assignGrade(String studentID, String classCode, double grade) {
-        gradeRecords.add(new GradeRecord(studentID, classCode, grade));
-        findStudentById(studentID).ifPresent(student -> student.calculateGPA(this.gradeRecords));
+    public Optional<GradeRecord> findGradeRecord(String studentID, String classCode) {
+        long start = FIND_GRADE_TIMER.start();
+        try {
+            long key = gradeKey(studentID, classCode, false);
+            return Optional.ofNullable((key < 0) ? null : gradesByKey.get(key));
+        } finally {
+            FIND_GRADE_TIMER.stop(start);
+        }
     }
 
     /**
-     * Imports students and their class/grade data from a complex CSV file.
-     * @param filePath The path to the student CSV file.
+     * Withdraws a student from a class, dropping it from their schedule and removing
+     * their grades in it.
+     * @param studentID the student's ID
+     * @param classCode the class code
+     * @return true if the student was enrolled in or had grades in the class, false otherwise.
      */
-    public void importStudentsFromCSV(String filePath) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line = reader.readLine();
-
-            while ((line = reader.readLine()) != null) {
-                String[] data = line.split(",");
-                if (data.length < 4) continue;
-
-                String id = data[0].trim();
-                String name = data[1].trim();
-                int gradeLevel = Integer.parseInt(data[2].trim());
-                String type = data[3].trim();
-
-                RegularStudent student;
-                if (findStudentById(id).isEmpty()) {
-                    if ("AP".equalsIgnoreCase(type)) {
-                        student = new APStudent(id, name, gradeLevel);
-                    } else {
-                        student = new RegularStudent(id, name, gradeLevel);
-                    }
-                    this.addStudent(student);
-                } else {
-                    student = findStudentById(id).get();
-                }
+    public boolean withdrawStudent(String studentID, String classCode) {
+        long start = WITHDRAW_TIMER.start();
+        try {
+            long key = gradeKey(studentID, classCode, false);
+            GradeRecord record = (key < 0) ? null : gradesByKey.get(key);
+            RegularStudent student = studentsById.get(studentID);
+            boolean enrolled = student != null && student.isEnrolledIn(classCode);
+            if (record == null && !enrolled) {
+                return false;
+            }
+            if (journal != null) {
+                this.journalSequence = journal.logWithdrawStudent(studentID, classCode);
+            }
 
-                for (int i = 4; i < data.length; i += 2) {
-                    if (i + 1 < data.length) {
-                        String classCode = data[i].trim();
-                        double grade = Double.parseDouble(data[i + 1].trim());
+            if (record != null) {
+                removeGrade(key, record);
+            }
+            if (enrolled) {
+                student.dropClass(classCode);
+                this.totalEnrollments--;
+                Class course = classesByCode.get(classCode);
+                if (course != null) {
+                    course.getLeaderboard().remove(studentID);
+                }
+            }
+            if (student != null) {
+                updateLeaderboards(student);
+            }
+            return true;
+        } finally {
+            WITHDRAW_TIMER.stop(start);
+        }
+    }
 
-                        Class course = findOrCreateClass(classCode);
+    /**
+     * Imports students and their class/grade data from a complex CSV file.
+     * Rows with invalid data are skipped and reported rather than stopping the import.
+     * @param filePath The path to the student CSV file.
+     * @return An ImportResult summarizing the import, or null if the file could not be read.
+     */
+    public ImportResult importStudentsFromCSV(String filePath) {
+        long start = IMPORT_TIMER.start();
+        try {
+            try {
+                ImportResult result = new StudentImporter(this).importFile(filePath);
+                System.out.println("Student data imported successfully from " + filePath);
+                System.out.printf("Imported %d of %d rows (%.0f rows/sec)%n",
+                        result.getRowsApplied(), result.getRowsRead(), result.getRowsPerSecond());
+                printImportErrors(result);
+                return result;
+            } catch (IOException e) {
+                System.err.println("Error importing student data: " + e.getMessage());
+                return null;
+            }
+        } finally {
+            IMPORT_TIMER.stop(start);
+        }
+    }
 
-                        this.enrollStudent(student, course);
-                        this.assignGrade(student.getId(), classCode, grade);
-                    }
-                }
+    /**
+     * Imports a new copy of a student CSV file that has already been imported, applying only
+     * what changed: new students, classes and grades are added, changed names, grade levels
+     * and grades are updated in place, and classes missing from a student's row are withdrawn.
+     * Rows that match the system are skipped without changing anything.
+     * @param filePath The path to the student CSV file.
+     * @param removeMissing Whether to remove students who are not in the file. Nothing is
+     *                      removed if any row could not be imported.
+     * @return An ImportResult summarizing the import, or null if the file could not be read.
+     */
+    public ImportResult importStudentChangesFromCSV(String filePath, boolean removeMissing) {
+        long start = IMPORT_CHANGES_TIMER.start();
+        try {
+            try {
+                ImportResult result = new StudentImporter(this).importChanges(filePath, removeMissing);
+                System.out.println("Student changes imported successfully from " + filePath);
+                System.out.printf("Checked %d of %d rows: %d new, %d changed, %d unchanged, %d students removed (%.0f rows/sec)%n",
+                        result.getRowsApplied(), result.getRowsRead(), result.getRowsInserted(),
+                        result.getRowsUpdated(), result.getRowsUnchanged(), result.getStudentsRemoved(),
+                        result.getRowsPerSecond());
+                printImportErrors(result);
+                return result;
+            } catch (IOException e) {
+                System.err.println("Error importing student data: " + e.getMessage());
+                return null;
             }
-            System.out.println("Student data imported successfully from " + filePath);
-        } catch (IOException | NumberFormatException e) {
-            System.err.println("Error importing student data: " + e.getMessage());
+        } finally {
+            IMPORT_CHANGES_TIMER.stop(start);
         }
     }
 
@@ -183,11 +515,10 @@ public class SystemManager {
      * @param classCode The code of the class to find or create.
      * @return The existing or newly created Class object.
      */
-    private Class findOrCreateClass(String classCode) {
-        for (Class course : classes) {
-            if (course.getClassCode().equals(classCode)) {
-                return course;
-            }
+    Class findOrCreateClass(String classCode) {
+        Class existing = classesByCode.get(classCode);
+        if (existing != null) {
+            return existing;
         }
         Class newClass = new Class(classCode, "Class: " + classCode, "Staff", 1);
         this.addClass(newClass);
@@ -199,23 +530,25 @@ public class SystemManager {
      * @param filePath The path where the CSV file will be saved.
      */
     public void exportStudentsToCSV(String filePath) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-            writer.write("StudentID,Name,GradeLevel,StudentType,GPA\n");
-            for (RegularStudent student : students) {
-                String type = (student instanceof APStudent) ? "AP" : "Regular";
-                String line = String.join(",",
-                        student.getId(),
-                        student.getName(),
-                        String.valueOf(student.getGradeLevel()),
-                        type,
-                        String.format("%.2f", student.getGPA())
-                );
-                writer.write(line);
-                writer.newLine();
+        long start = EXPORT_TIMER.start();
+        try {
+            try (CsvWriter writer = new CsvWriter(filePath)) {
+                writer.append("StudentID,Name,GradeLevel,StudentType,GPA\n");
+                for (RegularStudent student : getStudents()) {
+                    String type = (student instanceof APStudent) ? "AP" : "Regular";
+                    writer.append(student.getId()).append(',')
+                            .append(student.getName()).append(',')
+                            .appendLong(student.getGradeLevel()).append(',')
+                            .append(type).append(',')
+                            .appendFixed2(student.getGPA())
+                            .newLine();
+                }
+                System.out.println("Students exported successfully to " + filePath);
+            } catch (IOException e) {
+                System.err.println("Error exporting students to CSV: " + e.getMessage());
             }
-            System.out.println("Students exported successfully to " + filePath);
-        } catch (IOException e) {
-            System.err.println("Error exporting students to CSV: " + e.getMessage());
+        } finally {
+            EXPORT_TIMER.stop(start);
         }
     }
 
@@ -227,15 +560,238 @@ public class SystemManager {
         return this.students;
     }
 
+    /**
+     * Returns a list of all classes in the system.
+     * @return An ArrayList of all classes.
+     */
+    public ArrayList<Class> getClasses() {
+        return this.classes;
+    }
+
+    /**
+     * Returns every grade record in the order they were assigned.
+     * @return An ArrayList of all grade records.
+     */
+    public ArrayList<GradeRecord> getGradeRecords() {
+        return new ArrayList<>(allGradeRecords());
+    }
+
+    /**
+     * Gets every grade record without copying, for iterating in assignment order.
+     * @return A read-only view of all grade records.
+     */
+    protected Collection<GradeRecord> allGradeRecords() {
+        return new AbstractCollection<GradeRecord>() {
+            @Override
+            public Iterator<GradeRecord> iterator() {
+                return gradeRecords.stream().filter(Objects::nonNull).iterator();
+            }
+
+            @Override
+            public int size() {
+                return gradeRecords.size() - removedGradeRecords;
+            }
+        };
+    }
+
+    /**
+     * Gets the dictionary of student IDs, whose entries are shared by grade records.
+     * @return The student ID dictionary.
+     */
+    IdDictionary getStudentIds() {
+        return this.studentIds;
+    }
+
+    /**
+     * Gets the dictionary of class codes, whose entries are shared by grade records.
+     * @return The class code dictionary.
+     */
+    IdDictionary getClassCodes() {
+        return this.classCodes;
+    }
+
+    /**
+     * Gets the total number of enrollments across all students.
+     * @return The enrollment count.
+     */
+    public int getTotalEnrollments() {
+        return this.totalEnrollments;
+    }
+
+    /**
+     * Gets the number of entries in each list and index, for the metrics.
+     * @return Sizes keyed by index name, in a fixed order.
+     */
+    LinkedHashMap<String, Integer> getIndexSizes() {
+        LinkedHashMap<String, Integer> sizes = new LinkedHashMap<>();
+        sizes.put("students", students.size());
+        sizes.put("classes", classes.size());
+        sizes.put("enrollments", totalEnrollments);
+        sizes.put("gradeRecords", gradeRecords.size() - removedGradeRecords);
+        sizes.put("gradeRecordSlots", gradeRecords.size());
+        sizes.put("studentsById", studentsById.size());
+        sizes.put("classesByCode", classesByCode.size());
+        sizes.put("gradesByStudent", gradesByStudent.size());
+        sizes.put("gradesByClass", gradesByClass.size());
+        sizes.put("gradesByKey", gradesByKey.size());
+        sizes.put("studentIds", studentIds.size());
+        sizes.put("classCodes", classCodes.size());
+        return sizes;
+    }
+
+    /**
+     * Gets how many past values each grade record keeps when its grade is changed.
+     * @return The history depth; 0 if no history is kept.
+     */
+    public int getGradeHistoryDepth() {
+        return this.gradeHistoryDepth;
+    }
+
+    /**
+     * Sets how many past values each grade record keeps when its grade is changed. Records
+     * that already keep a history keep their current depth. The default comes from the
+     * grades.historyDepth system property, or 0.
+     * @param depth The number of past values to keep, from 0 to GradeHistory.MAX_CAPACITY.
+     */
+    public void setGradeHistoryDepth(int depth) {
+        if (depth < 0 || depth > GradeHistory.MAX_CAPACITY) {
+            throw new IllegalArgumentException("History depth must be between 0 and " + GradeHistory.MAX_CAPACITY);
+        }
+        this.gradeHistoryDepth = depth;
+    }
+
+    /**
+     * Gets the journal that records changes to the system.
+     * @return The attached journal, or null if changes are not being recorded.
+     */
+    public MutationJournal getJournal() {
+        return this.journal;
+    }
+
+    /**
+     * Attaches a journal; every later change is recorded in it.
+     * @param journal The journal to record changes in, or null to stop recording.
+     */
+    void setJournal(MutationJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Gets the sequence number of the last journal record reflected in the system.
+     * @return The journal sequence, or 0 if no journaled change has been applied.
+     */
+    long getJournalSequence() {
+        return this.journalSequence;
+    }
+
+    /**
+     * Sets the journal sequence when restoring saved state or replaying the journal.
+     * @param journalSequence The sequence of the last record applied.
+     */
+    void setJournalSequence(long journalSequence) {
+        this.journalSequence = journalSequence;
+    }
+
+    /**
+     * Sets the total enrollment count when restoring saved state.
+     * @param totalEnrollments The saved enrollment count.
+     */
+    void setTotalEnrollments(int totalEnrollments) {
+        this.totalEnrollments = totalEnrollments;
+    }
+
     /**
      * Retrieves all grade records for a specific student.
      * @param studentId The ID of the student.
      * @return An ArrayList of GradeRecord objects for the specified student.
      */
     public ArrayList<GradeRecord> getGradesForStudent(String studentId) {
-        return gradeRecords.stream()
-                .filter(record -> record.getStudentID().equals(studentId))
-                .collect(Collectors.toCollection(ArrayList::new));
+        long start = GRADES_FOR_STUDENT_TIMER.start();
+        try {
+            ArrayList<GradeRecord> studentGrades = gradesByStudent.get(studentId);
+            return (studentGrades == null) ? new ArrayList<>() : new ArrayList<>(studentGrades);
+        } finally {
+            GRADES_FOR_STUDENT_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Retrieves all grade records for a specific class.
+     * @param classCode The code of the class.
+     * @return An ArrayList of GradeRecord objects for the specified class.
+     */
+    public ArrayList<GradeRecord> getGradesForClass(String classCode) {
+        long start = GRADES_FOR_CLASS_TIMER.start();
+        try {
+            ArrayList<GradeRecord> classGrades = gradesByClass.get(classCode);
+            return (classGrades == null) ? new ArrayList<>() : new ArrayList<>(classGrades);
+        } finally {
+            GRADES_FOR_CLASS_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Gets the students with the highest GPAs in the school, best first.
+     * @param count The number of students wanted.
+     * @return Up to count students in ranked order.
+     */
+    public ArrayList<RegularStudent> getTopStudents(int count) {
+        long start = TOP_STUDENTS_TIMER.start();
+        try {
+            return leaderboard.top(count);
+        } finally {
+            TOP_STUDENTS_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Gets the students enrolled in a class with the highest GPAs, best first.
+     * @param classCode The code of the class.
+     * @param count The number of students wanted.
+     * @return Up to count students in ranked order, or an empty list if there is no such class.
+     */
+    public ArrayList<RegularStudent> getTopStudents(String classCode, int count) {
+        long start = TOP_STUDENTS_IN_CLASS_TIMER.start();
+        try {
+            Class course = classesByCode.get(classCode);
+            return (course == null) ? new ArrayList<>() : course.getLeaderboard().top(count);
+        } finally {
+            TOP_STUDENTS_IN_CLASS_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Moves a student whose GPA changed to their new place on the school-wide leaderboard
+     * and the leaderboard of each class they are enrolled in.
+     * @param student the student whose GPA changed
+     */
+    void updateLeaderboards(RegularStudent student) {
+        leaderboard.update(student);
+        for (Class course : student.getClasses()) {
+            course.getLeaderboard().update(student);
+        }
+    }
+
+    /**
+     * Takes a student off the school-wide leaderboard and the leaderboards of their classes.
+     * @param student the student leaving the system
+     */
+    void removeFromLeaderboards(RegularStudent student) {
+        leaderboard.remove(student.getId());
+        for (Class course : student.getClasses()) {
+            course.getLeaderboard().remove(student.getId());
+        }
+    }
+
+    /**
+     * Rebuilds every leaderboard on its next query, after GPAs or rosters were restored
+     * without going through the usual updates.
+     */
+    void invalidateLeaderboards() {
+        leaderboard.invalidate();
+        for (Class course : getClasses()) {
+            course.getLeaderboard().invalidate();
+        }
     }
 
     /**
@@ -243,34 +799,230 @@ public class SystemManager {
      * @return string containing the report
      */
     public String generateReport() {
-        StringBuilder report = new StringBuilder("Student Management System Report\n");
-        report.append("====================================\n");
-        report.append("Total Students: ").append(this.students.size()).append("\n");
-        report.append("Total Enrollments: ").append(this.totalEnrollments).append("\n\n");
-        report.append("Students:\n");
-        report.append("---------");
-        if (students.isEmpty()){
-            report.append("\nNo students in the system.");
-        } else {
-            for (RegularStudent student : this.students) {
-                report.append("\nID: ").append(student.getId())
-                        .append(", Name: ").append(student.getName())
-                        .append(String.format(", GPA: %.2f", student.getGPA()));
+        long start = REPORT_TIMER.start();
+        try {
+            StringWriter report = new StringWriter();
+            try {
+                writeReport(report, new ReportFilter());
+            } catch (IOException e) {
+                // A StringWriter never throws
+                throw new UncheckedIOException(e);
             }
+            return report.toString();
+        } finally {
+            REPORT_TIMER.stop(start);
         }
-        report.append("\n\nGrades:\n");
-        report.append("-------");
-        if (gradeRecords.isEmpty()) {
-            report.append("\nNo grade records in the system.");
-        } else {
-            for (GradeRecord record : this.gradeRecords) {
-                report.append("\nStudent ID: ").append(record.getStudentID())
+    }
+
+    /**
+     * Streams the report of students and grades to a writer, one chunk at a time, so the
+     * whole report is never held in memory. The writer is flushed but not closed.
+     * @param out The writer to send the report to.
+     * @param filter Which students and grade records to include, and which page of them.
+     * @throws IOException if the writer fails
+     */
+    public void writeReport(Writer out, ReportFilter filter) throws IOException {
+        long start = WRITE_REPORT_TIMER.start();
+        try {
+            StringBuilder chunk = new StringBuilder(REPORT_CHUNK_SIZE + 256);
+            ArrayList<RegularStudent> allStudents = getStudents();
+            chunk.append("Student Management System Report\n");
+            chunk.append("====================================\n");
+            chunk.append("Total Students: ").append(allStudents.size()).append("\n");
+            chunk.append("Total Enrollments: ").append(getTotalEnrollments()).append("\n\n");
+            chunk.append("Students:\n");
+            chunk.append("---------");
+
+            int matched = 0;
+            int written = 0;
+            for (RegularStudent student : allStudents) {
+                if (written == filter.getLimit()) {
+                    break;
+                }
+                if (!filter.matches(student, this) || matched++ < filter.getOffset()) {
+                    continue;
+                }
+                chunk.append("\nID: ").append(student.getId())
+                        .append(", Name: ").append(student.getName())
+                        .append(", GPA: ");
+                CsvWriter.appendFixed2(chunk, student.getGPA());
+                written++;
+                flushReportChunk(out, chunk);
+            }
+            if (written == 0) {
+                chunk.append(allStudents.isEmpty() ? "\nNo students in the system." : "\nNo students match the filter.");
+            }
+
+            chunk.append("\n\nGrades:\n");
+            chunk.append("-------");
+            Collection<GradeRecord> allGrades = allGradeRecords();
+            matched = 0;
+            written = 0;
+            for (GradeRecord record : allGrades) {
+                if (written == filter.getLimit()) {
+                    break;
+                }
+                if (!filter.matches(record, this) || matched++ < filter.getOffset()) {
+                    continue;
+                }
+                chunk.append("\nStudent ID: ").append(record.getStudentID())
                         .append(", Class: ").append(record.getClassCode())
-                        .append(String.format(", Grade: %.2f", record.getGrade()))
-                        .append(", Passing: ").append(record.isPassing() ? "Yes" : "No");
+                        .append(", Grade: ");
+                CsvWriter.appendFixed2(chunk, record.getGrade());
+                chunk.append(", Passing: ").append(record.isPassing() ? "Yes" : "No");
+                written++;
+                flushReportChunk(out, chunk);
+            }
+            if (written == 0) {
+                chunk.append(allGrades.isEmpty() ? "\nNo grade records in the system." : "\nNo grade records match the filter.");
             }
+            chunk.append("\n====================================\n");
+            out.append(chunk);
+            out.flush();
+        } finally {
+            WRITE_REPORT_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Writes every student's schedule, in the order the students were added, with a blank
+     * line after each. The schedules are rendered into one reusable buffer that is handed to
+     * the writer whenever it fills, so no per-student strings are built for students whose
+     * schedules are not already cached.
+     * @param out the destination, such as a file or an HTTP response
+     * @throws IOException if the writer fails
+     */
+    public void writeSchedules(Writer out) throws IOException {
+        long start = WRITE_SCHEDULES_TIMER.start();
+        try {
+            StringBuilder chunk = new StringBuilder(REPORT_CHUNK_SIZE + 256);
+            for (RegularStudent student : getStudents()) {
+                appendSchedule(student, chunk);
+                chunk.append('\n');
+                flushReportChunk(out, chunk);
+            }
+            out.append(chunk);
+            out.flush();
+        } finally {
+            WRITE_SCHEDULES_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Blocks every change to the system until unlockAll is called, so the whole system can
+     * be read at one point in time, such as for a snapshot. SystemManager is used by one
+     * thread at a time, so there is nothing to block; ConcurrentSystemManager takes its locks.
+     */
+    void lockAll() {
+    }
+
+    /**
+     * Lets changes resume after lockAll.
+     */
+    void unlockAll() {
+    }
+
+    /**
+     * Appends a student's schedule to a buffer.
+     * @param student the student
+     * @param out the buffer to append to
+     */
+    void appendSchedule(RegularStudent student, StringBuilder out) {
+        student.appendSchedule(out);
+    }
+
+    /**
+     * Checks whether a student is enrolled in a class.
+     * @param student the student
+     * @param classCode the class code
+     * @return true if the class is on the student's schedule
+     */
+    boolean isEnrolled(RegularStudent student, String classCode) {
+        return student.isEnrolledIn(classCode);
+    }
+
+    /**
+     * Gets the key a student's grade for a class is stored under: the student ID's dictionary
+     * surrogate in the high 32 bits and the class code's in the low 32 bits.
+     * @param studentID the student's ID
+     * @param classCode the class code
+     * @param add whether to add the ID and code to the dictionaries if they are new
+     * @return The key, or -1 if add is false and either one has never been seen.
+     */
+    long gradeKey(String studentID, String classCode, boolean add) {
+        if (studentID == null || classCode == null) {
+            return -1;
+        }
+        int student = add ? studentIds.idOf(studentID) : studentIds.find(studentID);
+        int course = add ? classCodes.idOf(classCode) : classCodes.find(classCode);
+        return (student < 0 || course < 0) ? -1 : ((long) student << 32) | course;
+    }
+
+    // Removes a grade record from every index and from its student's and class's totals
+    private void removeGrade(long key, GradeRecord record) {
+        gradesByKey.remove(key);
+        ArrayList<GradeRecord> studentGrades = gradesByStudent.get(record.getStudentID());
+        if (studentGrades != null) {
+            studentGrades.remove(record);
+            if (studentGrades.isEmpty()) {
+                gradesByStudent.remove(record.getStudentID());
+            }
+        }
+        ArrayList<GradeRecord> classGrades = gradesByClass.get(record.getClassCode());
+        if (classGrades != null) {
+            classGrades.remove(record);
+            if (classGrades.isEmpty()) {
+                gradesByClass.remove(record.getClassCode());
+            }
+        }
+        unlistGradeRecord(record);
+        if (record.getAggregate() != null) {
+            record.getAggregate().remove(record);
+        }
+        if (record.getOwner() != null) {
+            record.getOwner().removeGrade(record);
+        }
+    }
+
+    // Prints the rows an import had to skip
+    private static void printImportErrors(ImportResult result) {
+        if (result.getErrorCount() > 0) {
+            System.err.println(result.getErrorCount() + " rows could not be imported:");
+            for (String error : result.getErrors()) {
+                System.err.println("  " + error);
+            }
+        }
+    }
+
+    // Appends a record to the list of all grade records
+    private void listGradeRecord(GradeRecord record) {
+        record.setPosition(gradeRecords.size());
+        gradeRecords.add(record);
+    }
+
+    // Clears a record's slot in the list, compacting the list once most of it is empty
+    private void unlistGradeRecord(GradeRecord record) {
+        gradeRecords.set(record.getPosition(), null);
+        record.setPosition(-1);
+        removedGradeRecords++;
+        if (removedGradeRecords > gradeRecords.size() / 2) {
+            int kept = 0;
+            for (GradeRecord listed : gradeRecords) {
+                if (listed != null) {
+                    listed.setPosition(kept);
+                    gradeRecords.set(kept++, listed);
+                }
+            }
+            gradeRecords.subList(kept, gradeRecords.size()).clear();
+            removedGradeRecords = 0;
+        }
+    }
+
+    // Hands the report chunk to the writer once it is full
+    private static void flushReportChunk(Writer out, StringBuilder chunk) throws IOException {
+        if (chunk.length() >= REPORT_CHUNK_SIZE) {
+            out.append(chunk);
+            chunk.setLength(0);
         }
-        report.append("\n====================================\n");
-        return report.toString();
     }
 }
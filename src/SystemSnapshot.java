@@ -0,0 +1,293 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - System Snapshot Class
+ * 06/11/2025
+ *
+ * The SystemSnapshot class saves and loads the complete state of a SystemManager in a compact
+ * binary file: students, classes, rosters, schedules, grade records and the enrollment count.
+ * Every string is stored once in a string table, so repeated class codes and IDs are shared.
+ * The snapshot also records the last MutationJournal sequence it includes.
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+public class SystemSnapshot {
+    // "SMSS" followed by the format version, checked before anything else is read
+    private static final int MAGIC = 0x534D5353;
+    private static final int VERSION = 2;
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final byte REGULAR_STUDENT = 0;
+    private static final byte AP_STUDENT = 1;
+
+    private SystemSnapshot() {}
+
+    /**
+     * Saves the complete state of a SystemManager to a snapshot file. Changes made through a
+     * ConcurrentSystemManager wait until the save finishes.
+     * @param manager The system to save.
+     * @param filePath The path of the snapshot file.
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(SystemManager manager, String filePath) throws IOException {
+        // Hold off changes for the whole save, so rosters, schedules and grades agree
+        manager.lockAll();
+        try {
+            ArrayList<Class> classes = manager.getClasses();
+            ArrayList<RegularStudent> students = manager.getStudents();
+            ArrayList<GradeRecord> records = manager.getGradeRecords();
+
+            // Build the string table first so every later reference is a single int
+            IdDictionary strings = new IdDictionary();
+            for (Class course : classes) {
+                strings.idOf(course.getClassCode());
+                strings.idOf(course.getClassName());
+                strings.idOf(course.getTeacher());
+            }
+            for (RegularStudent student : students) {
+                strings.idOf(student.getId());
+                strings.idOf(student.getName());
+            }
+            for (GradeRecord record : records) {
+                strings.idOf(record.getStudentID());
+                strings.idOf(record.getClassCode());
+            }
+
+            try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                Output out = new Output(channel);
+                out.putInt(MAGIC);
+                out.putInt(VERSION);
+                out.putLong(manager.getJournalSequence());
+
+                out.putInt(strings.size());
+                for (int i = 0; i < strings.size(); i++) {
+                    out.putString(strings.valueOf(i));
+                }
+
+                out.putInt(classes.size());
+                for (Class course : classes) {
+                    out.putInt(strings.idOf(course.getClassCode()));
+                    out.putInt(strings.idOf(course.getClassName()));
+                    out.putInt(strings.idOf(course.getTeacher()));
+                    out.putInt(course.getPeriod());
+                }
+
+                out.putInt(students.size());
+                for (RegularStudent student : students) {
+                    boolean ap = student instanceof APStudent;
+                    out.putByte(ap ? AP_STUDENT : REGULAR_STUDENT);
+                    out.putInt(strings.idOf(student.getId()));
+                    out.putInt(strings.idOf(student.getName()));
+                    out.putInt(student.getGradeLevel());
+                    out.putByte((byte) (student.isActive() ? 1 : 0));
+                    out.putInt(ap ? ((APStudent) student).getAPPoints() : 0);
+                    out.putDouble(student.getGPA());
+                    out.putInt(student.getClasses().size());
+                    for (Class course : student.getClasses()) {
+                        out.putInt(strings.idOf(course.getClassCode()));
+                    }
+                }
+
+                // Rosters are stored separately so their order survives a reload
+                for (Class course : classes) {
+                    out.putInt(course.getStudents().size());
+                    for (RegularStudent student : course.getStudents()) {
+                        out.putInt(strings.idOf(student.getId()));
+                    }
+                }
+
+                out.putInt(records.size());
+                for (GradeRecord record : records) {
+                    out.putInt(strings.idOf(record.getStudentID()));
+                    out.putInt(strings.idOf(record.getClassCode()));
+                    out.putDouble(record.getGrade());
+                }
+
+                out.putInt(manager.getTotalEnrollments());
+                out.flush();
+            }
+        } finally {
+            manager.unlockAll();
+        }
+    }
+
+    /**
+     * Loads a snapshot file into a new SystemManager.
+     * @param filePath The path of the snapshot file.
+     * @return A SystemManager with the saved state.
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    public static SystemManager load(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            try {
+                return read(in);
+            } catch (RuntimeException e) {
+                // Truncated data or out-of-range references surface as runtime exceptions
+                throw new IOException("Snapshot file is truncated or corrupt", e);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds a SystemManager from snapshot data.
+     * @param in the snapshot contents
+     * @return A SystemManager with the saved state.
+     * @throws IOException if the data is not a supported snapshot
+     */
+    private static SystemManager read(ByteBuffer in) throws IOException {
+        if (in.remaining() < 8 || in.getInt() != MAGIC) {
+            throw new IOException("Not a student system snapshot");
+        }
+        int version = in.getInt();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        // Version 1 snapshots were written before the mutation journal existed
+        long journalSequence = (version >= 2) ? in.getLong() : 0;
+
+        String[] strings = new String[in.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[in.getInt()];
+            in.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        SystemManager manager = new SystemManager();
+        HashMap<String, Class> classesByCode = new HashMap<>();
+        HashMap<String, RegularStudent> studentsById = new HashMap<>();
+        Class[] classes = new Class[in.getInt()];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = new Class(strings[in.getInt()], strings[in.getInt()], strings[in.getInt()], in.getInt());
+            manager.addClass(classes[i]);
+            classesByCode.put(classes[i].getClassCode(), classes[i]);
+        }
+
+        RegularStudent[] students = new RegularStudent[in.getInt()];
+        int[][] schedules = new int[students.length][];
+        double[] gpas = new double[students.length];
+        for (int i = 0; i < students.length; i++) {
+            byte type = in.get();
+            String id = strings[in.getInt()];
+            String name = strings[in.getInt()];
+            int gradeLevel = in.getInt();
+            boolean active = in.get() != 0;
+            int apPoints = in.getInt();
+            gpas[i] = in.getDouble();
+
+            if (type == AP_STUDENT) {
+                APStudent apStudent = new APStudent(id, name, gradeLevel);
+                apStudent.addAPPoints(apPoints);
+                students[i] = apStudent;
+            } else {
+                students[i] = new RegularStudent(id, name, gradeLevel);
+            }
+            students[i].updateStatus(active);
+            manager.addStudent(students[i]);
+            studentsById.put(id, students[i]);
+
+            schedules[i] = new int[in.getInt()];
+            for (int c = 0; c < schedules[i].length; c++) {
+                schedules[i][c] = in.getInt();
+            }
+        }
+
+        // Saved rosters and schedules are already consistent, so they are restored as-is
+        for (Class course : classes) {
+            int rosterSize = in.getInt();
+            for (int s = 0; s < rosterSize; s++) {
+                course.restoreStudent(studentsById.get(strings[in.getInt()]));
+            }
+        }
+        for (int i = 0; i < students.length; i++) {
+            for (int classRef : schedules[i]) {
+                students[i].restoreClass(classesByCode.get(strings[classRef]));
+            }
+        }
+
+        int recordCount = in.getInt();
+        for (int i = 0; i < recordCount; i++) {
+            manager.assignGrade(strings[in.getInt()], strings[in.getInt()], in.getDouble());
+        }
+
+        // A GPA set by hand is kept rather than recomputed from the grades
+        for (int i = 0; i < students.length; i++) {
+            students[i].setGpa(gpas[i]);
+        }
+        manager.invalidateLeaderboards();
+        manager.setTotalEnrollments(in.getInt());
+        manager.setJournalSequence(journalSequence);
+        return manager;
+    }
+
+    // Writes primitive values through a reusable buffer into a FileChannel
+    private static class Output {
+        private FileChannel channel;
+        private ByteBuffer buffer;
+
+        private Output(FileChannel channel) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        }
+
+        private void putByte(byte value) throws IOException {
+            ensureSpace(1);
+            buffer.put(value);
+        }
+
+        private void putInt(int value) throws IOException {
+            ensureSpace(4);
+            buffer.putInt(value);
+        }
+
+        private void putLong(long value) throws IOException {
+            ensureSpace(8);
+            buffer.putLong(value);
+        }
+
+        private void putDouble(double value) throws IOException {
+            ensureSpace(8);
+            buffer.putDouble(value);
+        }
+
+        private void putString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            if (bytes.length > buffer.capacity()) {
+                flush();
+                ByteBuffer large = ByteBuffer.wrap(bytes);
+                while (large.hasRemaining()) {
+                    channel.write(large);
+                }
+                return;
+            }
+            ensureSpace(bytes.length);
+            buffer.put(bytes);
+        }
+
+        private void ensureSpace(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Batch Curver Test
+ * 06/11/2025
+ *
+ * The BatchCurverTest class checks that a batch curve job only counts as succeeded when its
+ * curved scores were actually written. A job whose output file cannot be created must be
+ * reported as failed, as must a single-file curve to the same place. Exits with status 1 if
+ * any check fails.
+ */
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+public class BatchCurverTest {
+    private static ArrayList<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Files.createTempDirectory("curve");
+        Path scores = dir.resolve("scores.csv");
+        Files.write(scores, "StudentID,Score\nS1,55\nS2,72\nS3,90\nS4,64\n".getBytes("UTF-8"));
+        Path written = dir.resolve("curved.csv");
+        // A path under a regular file can never be created
+        Path unwritable = scores.resolve("curved.csv");
+
+        Path manifest = dir.resolve("manifest.csv");
+        Files.write(manifest, ("InputFile,CurveType,CurveValue,OutputFile\n"
+                + scores + ",sqrt,," + written + "\n"
+                + scores + ",ratio,," + unwritable + "\n").getBytes("UTF-8"));
+
+        AutoCurver curver = new AutoCurver();
+        BatchCurver batchCurver = new BatchCurver(curver, 2);
+        ArrayList<CurveJob> jobs = BatchCurver.readManifest(manifest.toString());
+        batchCurver.runJobs(jobs);
+        batchCurver.shutdown();
+
+        check(jobs.size() == 2, "expected 2 jobs, read " + jobs.size());
+        check(jobs.get(0).isSucceeded(), "job with a writable output was not marked succeeded");
+        check(Files.exists(written), "job with a writable output did not write it");
+        check(!jobs.get(1).isSucceeded(), "job with an unwritable output was marked succeeded");
+
+        check(!curver.curveFile(scores.toString(), unwritable.toString(), "ratio", 0),
+                "curveFile reported success for an unwritable output");
+        check(!curver.curveFile(scores.toString(), unwritable.toString(), "sqrt", 0),
+                "streaming curveFile reported success for an unwritable output");
+
+        if (!failures.isEmpty()) {
+            for (String failure : failures) {
+                System.out.println("FAIL " + failure);
+            }
+            System.out.println(failures.size() + " failures");
+            System.exit(1);
+        }
+        System.out.println("BatchCurverTest passed");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            failures.add(message);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Concurrent Stress Test
+ * 06/11/2025
+ *
+ * The ConcurrentStressTest class hammers a journaled ConcurrentSystemManager from several
+ * threads at once with enrollments, withdrawals, grades, edits, removals and re-adds, while
+ * other threads check its invariants, save snapshots and compact the journal. Every snapshot
+ * must load into a consistent system, and recovering from the final snapshot and journal must
+ * reproduce the live system exactly. Exits with status 1 if any check fails.
+ */
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ConcurrentStressTest {
+    private static final int STUDENTS = 400;
+    private static final int CLASSES = 25;
+    private static final int WORKERS = 4;
+    private static final long RUN_MILLIS = 3000;
+
+    private static ArrayList<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("stress");
+        String snapshotPath = dir.resolve("system.snapshot").toString();
+        String journalPath = dir.resolve("system.snapshot.journal").toString();
+
+        ConcurrentSystemManager manager = new ConcurrentSystemManager(MutationJournal.recover(snapshotPath, journalPath, 5));
+        for (int c = 0; c < CLASSES; c++) {
+            manager.addClass(new Class(classCode(c), "Class " + c, "Teacher " + c, 1 + c % 7));
+        }
+        for (int s = 0; s < STUDENTS; s++) {
+            manager.addStudent(newStudent(s, 9));
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong operations = new AtomicLong();
+        AtomicInteger snapshots = new AtomicInteger();
+        AtomicInteger compactions = new AtomicInteger();
+        AtomicInteger invariantChecks = new AtomicInteger();
+        ArrayList<Thread> threads = new ArrayList<>();
+
+        for (int w = 0; w < WORKERS; w++) {
+            threads.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (running.get()) {
+                    mutate(manager, random);
+                    operations.incrementAndGet();
+                }
+            }, "worker-" + w));
+        }
+        threads.add(new Thread(() -> {
+            while (running.get()) {
+                ArrayList<String> problems = manager.checkInvariants();
+                check(problems.isEmpty(), "Live invariants: " + problems);
+                invariantChecks.incrementAndGet();
+            }
+        }, "invariants"));
+        threads.add(new Thread(() -> {
+            String path = dir.resolve("copy.snapshot").toString();
+            while (running.get()) {
+                try {
+                    SystemSnapshot.save(manager, path);
+                    ArrayList<String> problems = new ConcurrentSystemManager(SystemSnapshot.load(path)).checkInvariants();
+                    check(problems.isEmpty(), "Saved snapshot invariants: " + problems);
+                    snapshots.incrementAndGet();
+                } catch (IOException e) {
+                    check(false, "Snapshot failed: " + e);
+                }
+            }
+        }, "snapshots"));
+        threads.add(new Thread(() -> {
+            while (running.get()) {
+                try {
+                    manager.getJournal().compact(manager);
+                    compactions.incrementAndGet();
+                    Thread.sleep(50);
+                } catch (IOException e) {
+                    check(false, "Compaction failed: " + e);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "compactions"));
+
+        for (Thread thread : threads) {
+            thread.setUncaughtExceptionHandler((t, e) -> check(false, t.getName() + " threw " + e));
+            thread.start();
+        }
+        Thread.sleep(RUN_MILLIS);
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        check(manager.checkInvariants().isEmpty(), "Final invariants: " + manager.checkInvariants());
+        check(snapshots.get() > 0, "No snapshot completed");
+        check(compactions.get() > 0, "No compaction completed");
+
+        // The last compacted snapshot plus the journal written since must rebuild the live system
+        String live = describe(manager);
+        manager.getJournal().close();
+        SystemManager recovered = MutationJournal.recover(snapshotPath, journalPath, 5);
+        check(live.equals(describe(recovered)), "Recovered system differs from the live system");
+        recovered.getJournal().close();
+
+        System.out.printf("%d operations, %d snapshots, %d compactions, %d invariant checks%n",
+                operations.get(), snapshots.get(), compactions.get(), invariantChecks.get());
+        if (!failures.isEmpty()) {
+            for (int i = 0; i < Math.min(failures.size(), 10); i++) {
+                System.out.println("FAIL " + failures.get(i));
+            }
+            System.out.println(failures.size() + " failures");
+            System.exit(1);
+        }
+        System.out.println("ConcurrentStressTest passed");
+    }
+
+    // Makes one random change of the kind users make all day
+    private static void mutate(ConcurrentSystemManager manager, ThreadLocalRandom random) {
+        int s = random.nextInt(STUDENTS);
+        String studentId = studentId(s);
+        String classCode = classCode(random.nextInt(CLASSES));
+        int choice = random.nextInt(100);
+        if (choice < 35) {
+            RegularStudent student = manager.findStudentById(studentId).orElse(null);
+            manager.enrollStudent(student, manager.findClassByCode(classCode).orElse(null));
+        } else if (choice < 70) {
+            manager.assignGrade(studentId, classCode, random.nextInt(101));
+        } else if (choice < 88) {
+            manager.withdrawStudent(studentId, classCode);
+        } else if (choice < 94) {
+            manager.editStudent(studentId, "Student " + s + "-" + random.nextInt(10), 9 + random.nextInt(4));
+        } else if (choice < 97) {
+            manager.removeStudent(studentId);
+        } else {
+            manager.addStudent(newStudent(s, 9 + random.nextInt(4)));
+        }
+    }
+
+    // Lists every student, schedule, grade and roster in a fixed order for comparison
+    private static String describe(SystemManager manager) {
+        ArrayList<String> lines = new ArrayList<>();
+        for (RegularStudent student : manager.getStudents()) {
+            ArrayList<String> classes = new ArrayList<>();
+            for (Class course : student.getClasses()) {
+                classes.add(course.getClassCode());
+            }
+            Collections.sort(classes);
+            ArrayList<String> grades = new ArrayList<>();
+            for (GradeRecord record : manager.getGradesForStudent(student.getId())) {
+                grades.add(record.getClassCode() + "=" + record.getGrade());
+            }
+            Collections.sort(grades);
+            lines.add("student " + student.getId() + " " + student.getName() + " " + student.getGradeLevel() + " "
+                    + student.getClass().getSimpleName() + " " + classes + " " + grades);
+        }
+        for (Class course : manager.getClasses()) {
+            ArrayList<String> roster = new ArrayList<>();
+            for (RegularStudent student : course.getStudents()) {
+                roster.add(student.getId());
+            }
+            Collections.sort(roster);
+            lines.add("class " + course.getClassCode() + " " + roster);
+        }
+        Collections.sort(lines);
+        lines.add("enrollments " + manager.getTotalEnrollments());
+        return String.join("\n", lines);
+    }
+
+    private static RegularStudent newStudent(int s, int gradeLevel) {
+        return (s % 3 == 0) ? new APStudent(studentId(s), "Student " + s, gradeLevel)
+                : new RegularStudent(studentId(s), "Student " + s, gradeLevel);
+    }
+
+    private static String studentId(int s) {
+        return String.format("S%04d", s);
+    }
+
+    private static String classCode(int c) {
+        return String.format("C%02d", c);
+    }
+
+    // Records a failure; checks run on many threads, so the list is guarded
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            synchronized (failures) {
+                failures.add(message);
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - GPA Property Test
+ * 06/11/2025
+ *
+ * The GpaPropertyTest class checks that the GPA each student keeps from running grade totals
+ * always matches a full recompute from their grade records. Random sequences of grade adds,
+ * changes and removals are applied first to single students and then through SystemManager
+ * and ConcurrentSystemManager, covering enrollment, grade upserts, withdrawals and removals.
+ * Pass a seed to repeat a run. Exits with status 1 if any check fails.
+ */
+
+import java.util.ArrayList;
+import java.util.Random;
+
+public class GpaPropertyTest {
+    private static final double TOLERANCE = 1e-9;
+    private static final int STUDENT_TRIALS = 2000;
+    private static final int SYSTEM_TRIALS = 200;
+    private static final int OPERATIONS = 60;
+
+    private static int checks = 0;
+    private static ArrayList<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) {
+        long seed = (args.length > 0) ? Long.parseLong(args[0]) : 20250611L;
+        Random random = new Random(seed);
+
+        for (int trial = 0; trial < STUDENT_TRIALS; trial++) {
+            checkStudent(random, trial);
+        }
+        for (int trial = 0; trial < SYSTEM_TRIALS; trial++) {
+            SystemManager manager = (trial % 2 == 0) ? new SystemManager() : new ConcurrentSystemManager();
+            if (trial % 4 >= 2) {
+                manager.setGradeHistoryDepth(4);
+            }
+            checkSystem(manager, random, trial);
+        }
+
+        checkInvalidRepost(new SystemManager());
+        checkInvalidRepost(new ConcurrentSystemManager());
+
+        System.out.printf("Seed %d: %d GPA checks%n", seed, checks);
+        if (!failures.isEmpty()) {
+            for (int i = 0; i < Math.min(failures.size(), 10); i++) {
+                System.out.println("FAIL " + failures.get(i));
+            }
+            System.out.println(failures.size() + " failures");
+            System.exit(1);
+        }
+        System.out.println("GpaPropertyTest passed");
+    }
+
+    // Adds, regrades and removes one student's grade records directly
+    private static void checkStudent(Random random, int trial) {
+        boolean ap = random.nextBoolean();
+        RegularStudent student = newStudent("S1", ap);
+        ArrayList<GradeRecord> records = new ArrayList<>();
+        for (int op = 0; op < OPERATIONS; op++) {
+            int choice = random.nextInt(3);
+            if (choice == 0 || records.isEmpty()) {
+                GradeRecord record = new GradeRecord("S1", "C" + random.nextInt(4), randomGrade(random));
+                records.add(record);
+                student.addGrade(record);
+            } else if (choice == 1) {
+                records.get(random.nextInt(records.size())).assignGrade(randomGrade(random));
+            } else {
+                student.removeGrade(records.remove(random.nextInt(records.size())));
+            }
+            checkGpa(student, records, "student trial " + trial + " op " + op);
+        }
+    }
+
+    // Drives a whole system and checks every student after each change
+    private static void checkSystem(SystemManager manager, Random random, int trial) {
+        int studentCount = 6;
+        for (int s = 0; s < studentCount; s++) {
+            manager.addStudent(newStudent("S" + s, s % 2 == 0));
+        }
+        for (int op = 0; op < OPERATIONS; op++) {
+            String studentId = "S" + random.nextInt(studentCount);
+            String classCode = "C" + random.nextInt(5);
+            int choice = random.nextInt(100);
+            if (choice < 50) {
+                RegularStudent student = manager.findStudentById(studentId).orElse(null);
+                manager.enrollStudent(student, manager.findOrCreateClass(classCode));
+                manager.assignGrade(studentId, classCode, randomGrade(random));
+            } else if (choice < 75) {
+                manager.withdrawStudent(studentId, classCode);
+            } else if (choice < 85) {
+                manager.editStudent(studentId, "Renamed " + op, 9 + random.nextInt(4));
+            } else if (choice < 93) {
+                manager.removeStudent(studentId);
+            } else {
+                // Grades may be posted before the student exists; adding them picks those up
+                manager.assignGrade(studentId, classCode, randomGrade(random));
+                manager.addStudent(newStudent(studentId, random.nextBoolean()));
+            }
+
+            ArrayList<GradeRecord> records = manager.getGradeRecords();
+            for (RegularStudent student : manager.getStudents()) {
+                checkGpa(student, records, manager.getClass().getSimpleName() + " trial " + trial + " op " + op);
+            }
+        }
+    }
+
+    // Re-posts out-of-range grades over a real one, which must leave it and its history alone
+    private static void checkInvalidRepost(SystemManager manager) {
+        String where = manager.getClass().getSimpleName() + " invalid re-post";
+        manager.setGradeHistoryDepth(4);
+        manager.addStudent(newStudent("S1", false));
+        manager.enrollStudent(manager.findStudentById("S1").orElse(null), manager.findOrCreateClass("C1"));
+        manager.assignGrade("S1", "C1", 95.0);
+        RegularStudent student = manager.findStudentById("S1").orElse(null);
+        double gpa = student.getGPA();
+
+        for (double invalid : new double[] {150.0, -5.0}) {
+            boolean created = manager.assignGrade("S1", "C1", invalid);
+            GradeRecord record = manager.findGradeRecord("S1", "C1").orElse(null);
+            checks++;
+            if (created || record == null || record.getGrade() != 95.0) {
+                failures.add(where + " of " + invalid + ": grade is "
+                        + ((record == null) ? "missing" : String.valueOf(record.getGrade())) + ", expected 95.0");
+            } else if (record.getHistory().length != 0) {
+                failures.add(where + " of " + invalid + ": history has " + record.getHistory().length + " entries");
+            }
+            if (student.getGPA() != gpa) {
+                failures.add(where + " of " + invalid + ": GPA changed from " + gpa + " to " + student.getGPA());
+            }
+            checkGpa(student, manager.getGradeRecords(), where);
+        }
+    }
+
+    // Compares a student's running GPA with a fresh student of the same type recomputed from scratch
+    private static void checkGpa(RegularStudent student, ArrayList<GradeRecord> records, String where) {
+        RegularStudent fresh = newStudent(student.getId(), student instanceof APStudent);
+        fresh.calculateGPA(records);
+        checks++;
+        if (Math.abs(student.getGPA() - fresh.getGPA()) > TOLERANCE) {
+            failures.add(where + ": " + student.getId() + " has GPA " + student.getGPA()
+                    + " but recomputes to " + fresh.getGPA());
+        }
+    }
+
+    private static RegularStudent newStudent(String id, boolean ap) {
+        return ap ? new APStudent(id, "Student " + id, 10) : new RegularStudent(id, "Student " + id, 10);
+    }
+
+    // Mostly valid grades, with some out of range to exercise validation
+    private static double randomGrade(Random random) {
+        return (random.nextInt(20) == 0) ? 150.0 : random.nextDouble() * 100.0;
+    }
+}
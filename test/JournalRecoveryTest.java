@@ -0,0 +1,117 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Journal Recovery Test
+ * 06/11/2025
+ *
+ * The JournalRecoveryTest class checks that every change recorded in the mutation journal
+ * survives a restart: changes made after a normal start, after a compaction, and after a
+ * snapshot from another journal is loaded the way menu option 8 does. Exits with status 1
+ * if any check fails.
+ */
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+public class JournalRecoveryTest {
+    private static ArrayList<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) throws IOException {
+        recoversChanges();
+        recoversChangesAfterCompaction();
+        recoversChangesAfterLoadingSnapshot();
+
+        if (!failures.isEmpty()) {
+            for (String failure : failures) {
+                System.out.println("FAIL " + failure);
+            }
+            System.out.println(failures.size() + " failures");
+            System.exit(1);
+        }
+        System.out.println("JournalRecoveryTest passed");
+    }
+
+    // Changes made since startup are replayed from the journal alone
+    private static void recoversChanges() throws IOException {
+        Path dir = Files.createTempDirectory("journal");
+        SystemManager manager = recover(dir);
+        addStudents(manager, "A", 20);
+        manager.enrollStudent(manager.findStudentById("A0").get(), manager.findOrCreateClass("MATH"));
+        manager.assignGrade("A0", "MATH", 91);
+        manager.removeStudent("A1");
+        expectRecovered(manager, dir, "plain journal");
+    }
+
+    // Changes made after a compaction are replayed on top of its snapshot
+    private static void recoversChangesAfterCompaction() throws IOException {
+        Path dir = Files.createTempDirectory("journal");
+        SystemManager manager = recover(dir);
+        addStudents(manager, "B", 20);
+        manager.getJournal().compact(manager);
+        addStudents(manager, "C", 5);
+        manager.assignGrade("B3", "SCI", 77);
+        expectRecovered(manager, dir, "after compaction");
+    }
+
+    // A snapshot written by a longer-running journal is loaded into a fresh one, as option 8 does
+    private static void recoversChangesAfterLoadingSnapshot() throws IOException {
+        Path older = Files.createTempDirectory("journal");
+        SystemManager source = recover(older);
+        addStudents(source, "D", 50);
+        source.getJournal().compact(source);
+        source.getJournal().close();
+
+        Path dir = Files.createTempDirectory("journal");
+        SystemManager fresh = recover(dir);
+        MutationJournal journal = fresh.getJournal();
+        SystemManager manager = SystemSnapshot.load(older.resolve("system.snapshot").toString());
+        manager.setJournal(journal);
+        journal.compact(manager);
+
+        manager.addStudent(new RegularStudent("NEW", "New Student", 9));
+        manager.assignGrade("D7", "ART", 88);
+        expectRecovered(manager, dir, "after loading a snapshot");
+    }
+
+    private static SystemManager recover(Path dir) throws IOException {
+        return MutationJournal.recover(dir.resolve("system.snapshot").toString(),
+                dir.resolve("system.snapshot.journal").toString(), 0);
+    }
+
+    private static void addStudents(SystemManager manager, String prefix, int count) {
+        for (int i = 0; i < count; i++) {
+            manager.addStudent(new RegularStudent(prefix + i, "Student " + prefix + i, 10));
+        }
+    }
+
+    // Closes the live system's journal and checks a restart rebuilds the same students and grades
+    private static void expectRecovered(SystemManager manager, Path dir, String scenario) throws IOException {
+        String live = describe(manager);
+        manager.getJournal().close();
+        SystemManager recovered = recover(dir);
+        String restored = describe(recovered);
+        recovered.getJournal().close();
+        if (!live.equals(restored)) {
+            failures.add(scenario + ": expected\n" + live + "\nbut recovered\n" + restored);
+        }
+    }
+
+    // Lists every student with their classes and grades, in system order
+    private static String describe(SystemManager manager) {
+        StringBuilder out = new StringBuilder();
+        for (RegularStudent student : manager.getStudents()) {
+            out.append(student.getId()).append(' ').append(student.getName());
+            for (Class course : student.getClasses()) {
+                out.append(' ').append(course.getClassCode());
+            }
+            for (GradeRecord record : manager.getGradesForStudent(student.getId())) {
+                out.append(' ').append(record.getClassCode()).append('=').append(record.getGrade());
+            }
+            out.append('\n');
+        }
+        return out.toString();
+    }
+}
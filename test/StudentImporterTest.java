@@ -0,0 +1,112 @@
+/*
+ * Krish Senthil
+ *
+ * Period 1
+ * APCSA - Final Project - Student Management System - Student Importer Test
+ * 06/11/2025
+ *
+ * The StudentImporterTest class checks how the CSV importer joins records across lines. A
+ * quoted field may span lines, but a stray quote inside an unquoted field, as in O"Brien,
+ * must not swallow the rest of the file, and a quote that is never closed must be reported
+ * as an error rather than silently dropping rows. Exits with status 1 if any check fails.
+ */
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+public class StudentImporterTest {
+    private static final String HEADER = "ID,Name,Grade,Type,Class1,Grade1\n";
+
+    private static ArrayList<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) throws IOException {
+        strayQuoteIsAnOrdinaryCharacter();
+        quotedFieldMaySpanLines();
+        unclosedQuoteIsAnError();
+        overLongRecordIsAnError();
+        quoteRulesMatchTokenizer();
+
+        if (!failures.isEmpty()) {
+            for (String failure : failures) {
+                System.out.println("FAIL " + failure);
+            }
+            System.out.println(failures.size() + " failures");
+            System.exit(1);
+        }
+        System.out.println("StudentImporterTest passed");
+    }
+
+    private static void strayQuoteIsAnOrdinaryCharacter() throws IOException {
+        Path file = write(HEADER + "S1,Pat O\"Brien,10,Regular,MATH,90\n"
+                + "S2,Bob,11,Regular,MATH,80\n"
+                + "S3,Cy,12,AP,SCI,70\n");
+        SystemManager manager = new SystemManager();
+        ImportResult result = new StudentImporter(manager).importFile(file.toString());
+        check(result.getRowsApplied() == 3, "stray quote: expected 3 rows applied, got " + result.getRowsApplied());
+        check(result.getErrorCount() == 0, "stray quote: expected no errors, got " + result.getErrorCount());
+        check(manager.findStudentById("S1").map(RegularStudent::getName).orElse("").equals("Pat O\"Brien"),
+                "stray quote: name of S1 not kept as written");
+        check(manager.findStudentById("S3").isPresent(), "stray quote: S3 was dropped");
+    }
+
+    private static void quotedFieldMaySpanLines() throws IOException {
+        Path file = write(HEADER + "S1,\"Smith, Jr.\nthe second\",10,Regular,MATH,90\n"
+                + "S2,\"Say \"\"hi\"\"\",11,Regular,MATH,80\n");
+        SystemManager manager = new SystemManager();
+        ImportResult result = new StudentImporter(manager).importFile(file.toString());
+        check(result.getRowsApplied() == 2, "multi-line field: expected 2 rows applied, got " + result.getRowsApplied());
+        check(manager.findStudentById("S1").map(RegularStudent::getName).orElse("").equals("Smith, Jr.\nthe second"),
+                "multi-line field: name of S1 not joined across lines");
+        check(manager.findStudentById("S2").map(RegularStudent::getName).orElse("").equals("Say \"hi\""),
+                "multi-line field: doubled quotes not unescaped");
+    }
+
+    // An incremental import with removal must not delete students hidden by a bad quote
+    private static void unclosedQuoteIsAnError() throws IOException {
+        SystemManager manager = new SystemManager();
+        Path file = write(HEADER + "S1,Ann,10,Regular,MATH,90\nS2,Bob,11,Regular,MATH,80\nS3,Cy,12,AP,SCI,70\n");
+        new StudentImporter(manager).importChanges(file.toString(), true);
+
+        Path broken = write(HEADER + "S1,\"Ann,10,Regular,MATH,90\nS2,Bob,11,Regular,MATH,80\nS3,Cy,12,AP,SCI,70\n");
+        ImportResult result = new StudentImporter(manager).importChanges(broken.toString(), true);
+        check(result.getErrorCount() > 0, "unclosed quote: rows were swallowed without an error");
+        check(manager.getStudents().size() == 3, "unclosed quote: expected 3 students kept, got "
+                + manager.getStudents().size());
+    }
+
+    // Past the length cap the joined record is reported and reading starts afresh
+    private static void overLongRecordIsAnError() throws IOException {
+        StringBuilder contents = new StringBuilder(HEADER).append("S0,\"Never closed,10,Regular,MATH,90\n");
+        int rows = 40000;
+        for (int i = 1; i <= rows; i++) {
+            contents.append("S").append(i).append(",Student number ").append(i).append(",10,Regular,MATH,90\n");
+        }
+        SystemManager manager = new SystemManager();
+        ImportResult result = new StudentImporter(manager).importFile(write(contents.toString()).toString());
+        check(result.getErrorCount() == 1, "over-long record: expected 1 error, got " + result.getErrorCount());
+        check(manager.findStudentById("S" + rows).isPresent(), "over-long record: rows after it were not imported");
+    }
+
+    private static void quoteRulesMatchTokenizer() {
+        check(!StudentImporter.endsInQuotedField("S1,Pat O\"Brien,10", false), "quote inside a field opened it");
+        check(StudentImporter.endsInQuotedField("S1,\"Smith, Jr.", false), "quote at field start did not open it");
+        check(StudentImporter.endsInQuotedField("S1,  \"Smith", false), "quote after spaces did not open it");
+        check(!StudentImporter.endsInQuotedField("S1,\"Say \"\"hi\"\"\",10", false), "doubled quotes closed or reopened the field");
+        check(!StudentImporter.endsInQuotedField("the second\",10,Regular", true), "closing quote on a later line was missed");
+        check(StudentImporter.endsInQuotedField("still \"\"inside", true), "doubled quote on a later line closed the field");
+    }
+
+    private static Path write(String contents) throws IOException {
+        Path file = Files.createTempFile("students", ".csv");
+        Files.write(file, contents.getBytes("UTF-8"));
+        return file;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            failures.add(message);
+        }
+    }
+}